@@ -2,7 +2,6 @@ package org.arend.lib.meta.closure;
 
 import org.arend.ext.concrete.ConcreteFactory;
 import org.arend.ext.concrete.ConcreteSourceNode;
-import org.arend.ext.concrete.expr.ConcreteAppExpression;
 import org.arend.ext.concrete.expr.ConcreteArgument;
 import org.arend.ext.concrete.expr.ConcreteExpression;
 import org.arend.ext.core.expr.*;
@@ -16,17 +15,40 @@ import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Congruence closure of equalities between terms.
+ * Terms are split into binary applications which are represented by nodes with dense integer ids.
+ * Equivalence classes of nodes are kept in a union-find structure, and congruent applications are found with a table of signatures,
+ * that is, pairs of representatives of the function and the argument.
+ * Proofs are recovered from a proof forest whose edges are labeled either by given proofs or by congruences.
+ */
 public class CongruenceClosure<V extends CoreExpression> implements BinaryRelationClosure<V> {
   private final ValuesEx terms;
-
-  private final DisjointSet<VarId> varsEquivClasses = new DisjointSetImpl<>();
-  private final EquivalenceClosure<VarId> equivalenceClosure;
-  private final Map<VarId, Pair<VarId, VarId>> varDefs = new HashMap<>();
-  private final Map<VarId, List<VarId>> occurrenceLists = new HashMap<>();
-  private final Map<Integer, List<VarId>> congrTable = new HashMap<>();
-
+  private final ConcreteExpression refl;
+  private final ConcreteExpression sym;
+  private final ConcreteExpression trans;
+  private final ConcreteFactory factory;
   private final Function<List<EqProofOrElement>, ConcreteExpression> congrLemma;
 
+  private final Map<VarId, Integer> nodeIds = new HashMap<>();
+  private int numberOfNodes;
+  private VarId[] nodeVars = new VarId[16];
+  // an application node is defined as funcs[node] applied to args[node]; both are -1 for other nodes
+  private int[] funcs = new int[16];
+  private int[] args = new int[16];
+
+  // union-find by size
+  private int[] classParents = new int[16];
+  private int[] classSizes = new int[16];
+  // applications whose function or argument belongs to the class; only defined for representatives
+  private IntList[] uses = new IntList[16];
+  private final Map<Long, Integer> signatures = new HashMap<>();
+
+  // every equivalence class is a tree in the proof forest; an edge between a node and its parent is stored in the node
+  private int[] proofParents = new int[16];
+  private ProofEdge[] proofEdges = new ProofEdge[16];
+  private int numberOfProofEdges;
+
   public static class EqualityIsEquivProof {
     public ConcreteExpression refl;
     public ConcreteExpression sym;
@@ -42,28 +64,68 @@ public class CongruenceClosure<V extends CoreExpression> implements BinaryRelati
   public CongruenceClosure(ExpressionTypechecker typechecker, ConcreteSourceNode marker, Function<List<EqProofOrElement>, ConcreteExpression> congrLemma, EqualityIsEquivProof equalityIsEquivLemma, ConcreteFactory factory) {
     this.congrLemma = congrLemma;
     this.terms = new ValuesEx(typechecker, marker);
-    this.equivalenceClosure = new EquivalenceClosure<>(equalityIsEquivLemma.refl, equalityIsEquivLemma.sym, equalityIsEquivLemma.trans, factory);
+    this.refl = equalityIsEquivLemma.refl;
+    this.sym = equalityIsEquivLemma.sym;
+    this.trans = equalityIsEquivLemma.trans;
+    this.factory = factory;
+  }
+
+  private int getNode(VarId var) {
+    Integer node = nodeIds.get(var);
+    if (node != null) {
+      return node;
+    }
+
+    int id = numberOfNodes++;
+    if (id == funcs.length) {
+      int capacity = 2 * id;
+      nodeVars = Arrays.copyOf(nodeVars, capacity);
+      funcs = Arrays.copyOf(funcs, capacity);
+      args = Arrays.copyOf(args, capacity);
+      classParents = Arrays.copyOf(classParents, capacity);
+      classSizes = Arrays.copyOf(classSizes, capacity);
+      uses = Arrays.copyOf(uses, capacity);
+      proofParents = Arrays.copyOf(proofParents, capacity);
+      proofEdges = Arrays.copyOf(proofEdges, capacity);
+    }
+
+    nodeVars[id] = var;
+    funcs[id] = -1;
+    args[id] = -1;
+    classParents[id] = id;
+    classSizes[id] = 1;
+    proofParents[id] = -1;
+    nodeIds.put(var, id);
+    return id;
+  }
+
+  private int find(int node) {
+    while (classParents[node] != node) {
+      classParents[node] = classParents[classParents[node]];
+      node = classParents[node];
+    }
+    return node;
   }
 
-  private void initAppExprVar(VarId var, VarId parentVar) {
-    List<VarId> occurList = occurrenceLists.get(var);
-    if (occurList == null) {
-      occurList = new ArrayList<>(Collections.singletonList(parentVar));
-      occurrenceLists.put(var, occurList);
-    } else {
-      occurList.add(parentVar);
+  private void addUse(int rep, int node) {
+    if (uses[rep] == null) {
+      uses[rep] = new IntList();
     }
+    uses[rep].add(node);
+  }
+
+  private void setDefinition(int node, int func, int arg) {
+    funcs[node] = func;
+    args[node] = arg;
+    addUse(find(func), node);
+    addUse(find(arg), node);
   }
 
-  private int addTerm(CoreExpression term, VarId parentVar, Queue<Pair<CoreExpression, Integer>> termsToSplit) {
+  private int addTerm(CoreExpression term, Queue<Pair<CoreExpression, Integer>> termsToSplit) {
     var normTerm = term.normalize(NormalizationMode.WHNF);
     int numOfTerms = terms.getValues().size();
     int termInd = terms.addValue(normTerm);
 
-    if (parentVar != null) {
-      initAppExprVar(new VarId(termInd, -1), parentVar);
-    }
-
     if (terms.getValues().size() != numOfTerms) {
       termsToSplit.add(new Pair<>(normTerm, termInd));
     }
@@ -71,18 +133,18 @@ public class CongruenceClosure<V extends CoreExpression> implements BinaryRelati
     return termInd;
   }
 
-  private Integer splitIntoSubterms(V term) {
+  private int splitIntoSubterms(V term) {
     Queue<Pair<CoreExpression, Integer>> termsToSplit = new ArrayDeque<>();
-    Set<VarId> toBeAddedToCongrTable = new HashSet<>();
+    List<Integer> toBeAddedToCongrTable = new ArrayList<>();
 
-    int inputTermVar = addTerm(term, null, termsToSplit);
+    int inputTermVar = addTerm(term, termsToSplit);
 
     while (!termsToSplit.isEmpty()) {
       Pair<CoreExpression, Integer> subtermPair = termsToSplit.poll();
       CoreExpression subterm = subtermPair.proj1;
       int var = subtermPair.proj2;
+      int node = getNode(new VarId(var, -1));
 
-      toBeAddedToCongrTable.add(new VarId(var, -1));
       if (subterm instanceof CoreAppExpression) {
         CoreExpression func = ((CoreAppExpression) subterm).getFunction();
         CoreExpression arg = ((CoreAppExpression) subterm).getArgument();
@@ -94,10 +156,11 @@ public class CongruenceClosure<V extends CoreExpression> implements BinaryRelati
         }
 
         if (doSplitting) {
-          int funcVar = addTerm(func, new VarId(var, -1), termsToSplit);
-          int argVar = addTerm(arg, new VarId(var, -1), termsToSplit);
+          int funcVar = addTerm(func, termsToSplit);
+          int argVar = addTerm(arg, termsToSplit);
 
-          varDefs.put(new VarId(var, -1), new Pair<>(new VarId(funcVar, -1), new VarId(argVar, -1)));
+          setDefinition(node, getNode(new VarId(funcVar, -1)), getNode(new VarId(argVar, -1)));
+          toBeAddedToCongrTable.add(node);
         }
       } else if (subterm instanceof CoreDefCallExpression && !(subterm instanceof CoreFieldCallExpression)) {
         int numArgs = ((CoreDefCallExpression) subterm).getDefCallArguments().size();
@@ -105,51 +168,32 @@ public class CongruenceClosure<V extends CoreExpression> implements BinaryRelati
         VarId appVar = prefixVars.get(0);
 
         for (int i = 0; i < numArgs; ++i) {
-          int argVar = addTerm(((CoreDefCallExpression) subterm).getDefCallArguments().get(numArgs - 1 - i), appVar, termsToSplit);
+          int argVar = addTerm(((CoreDefCallExpression) subterm).getDefCallArguments().get(numArgs - 1 - i), termsToSplit);
           VarId funcVar = prefixVars.get(i + 1);
           boolean stop = funcVar != null;
           if (funcVar == null) {
             funcVar = new VarId(var, i);
           }
-          varDefs.put(appVar, new Pair<>(funcVar, new VarId(argVar, -1)));
-          initAppExprVar(funcVar, appVar);
-          toBeAddedToCongrTable.add(appVar);
+          int appNode = getNode(appVar);
+          setDefinition(appNode, getNode(funcVar), getNode(new VarId(argVar, -1)));
+          toBeAddedToCongrTable.add(appNode);
           if (stop) {
             break;
           }
-          if (i == numArgs - 1) {
-            toBeAddedToCongrTable.add(funcVar);
-          }
           appVar = funcVar;
         }
       }
     }
 
     Queue<Equality> pending = new ArrayDeque<>();
-    for (VarId var : toBeAddedToCongrTable) {
-      addToCongrTable(var, pending);
+    for (int node : toBeAddedToCongrTable) {
+      addToCongrTable(node, pending);
     }
 
     addEqualities(pending);
     return inputTermVar;
   }
 
-  private boolean areCongruent(VarId var1, VarId var2, boolean canBeEqual) {
-    if (canBeEqual && varsEquivClasses.find(var1).equals(varsEquivClasses.find(var2))) {
-      return true;
-    }
-
-    Pair<VarId, VarId> def1 = varDefs.get(var1);
-    Pair<VarId, VarId> def2 = varDefs.get(var2);
-
-    if ((def1 == null) != (def2 == null)) return false;
-
-    if (def1 == null) return false;
-
-    return varsEquivClasses.find(def1.proj2).equals(varsEquivClasses.find(def2.proj2)) &&
-        areCongruent(def1.proj1, def2.proj1, true);
-  }
-
   public static class EqProofOrElement {
     public ConcreteExpression eqProofOrElement;
     public boolean isElement;
@@ -160,83 +204,167 @@ public class CongruenceClosure<V extends CoreExpression> implements BinaryRelati
     }
   }
 
-  private ConcreteExpression getConcreteTerm(VarId var) {
+  private ConcreteExpression getConcreteTerm(int node) {
+    VarId var = nodeVars[node];
     CoreExpression term = terms.getValue(var.value);
-    ConcreteFactory factory = equivalenceClosure.factory;
     if (var.prefix == -1) {
       return factory.core(term.computeTyped());
     }
     if (!(term instanceof CoreDefCallExpression)) return null;
     int numArgs = ((CoreDefCallExpression) term).getDefCallArguments().size();
-    List<ConcreteArgument> args = ((CoreDefCallExpression) term).getDefCallArguments().subList(0, numArgs - 1 - var.prefix).stream().map(x -> factory.arg(factory.core(x.computeTyped()), true)).collect(Collectors.toList());
-    return factory.app(factory.ref(((CoreDefCallExpression) term).getDefinition().getRef()), args);
+    List<ConcreteArgument> arguments = ((CoreDefCallExpression) term).getDefCallArguments().subList(0, numArgs - 1 - var.prefix).stream().map(x -> factory.arg(factory.core(x.computeTyped()), true)).collect(Collectors.toList());
+    return factory.app(factory.ref(((CoreDefCallExpression) term).getDefinition().getRef()), arguments);
   }
 
-  private int getNumberOfInvs(List<ConcreteExpression> path) {
-    int numOfInvs = 0;
-    for (ConcreteExpression proof : path) {
-      if (proof instanceof ConcreteAppExpression && ((ConcreteAppExpression) proof).getFunction().equals(equivalenceClosure.sym)) {
-        ++numOfInvs;
-      }
+  /**
+   * An edge of the proof forest.
+   * It is labeled either by a proof of {@code node1 = node2}, or by the congruence of applications {@code node1} and {@code node2}.
+   * Edges are numbered in the order of their creation.
+   */
+  private static class ProofEdge {
+    final int node1;
+    final int node2;
+    final int index;
+    final boolean isCongruence;
+    ConcreteExpression proof;
+    ConcreteExpression inverseProof;
+
+    ProofEdge(int node1, int node2, int index, ConcreteExpression proof) {
+      this.node1 = node1;
+      this.node2 = node2;
+      this.index = index;
+      this.isCongruence = proof == null;
+      this.proof = proof;
+    }
+  }
+
+  private record ProofStep(ProofEdge edge, int from) {}
+
+  /**
+   * Makes {@code node} the root of its tree in the proof forest.
+   */
+  private void reroot(int node) {
+    int prev = -1;
+    ProofEdge prevEdge = null;
+    while (node != -1) {
+      int next = proofParents[node];
+      ProofEdge nextEdge = proofEdges[node];
+      proofParents[node] = prev;
+      proofEdges[node] = prevEdge;
+      prev = node;
+      prevEdge = nextEdge;
+      node = next;
     }
-    return numOfInvs;
   }
 
-  private boolean shouldBeInverted(VarId var1, VarId var2) {
-    List<ConcreteExpression> path12 = equivalenceClosure.getPath(var1, var2);
-    List<ConcreteExpression> path21 = equivalenceClosure.getPath(var2, var1);
-    return (path12 != null && path21 != null && getNumberOfInvs(path12) > getNumberOfInvs(path21));
+  /**
+   * Adds an edge between trees of the proof forest. The smaller tree is rerooted.
+   */
+  private void addProofEdge(int node1, int node2, ConcreteExpression proof, boolean isFirstSmaller) {
+    ProofEdge edge = new ProofEdge(node1, node2, numberOfProofEdges++, proof);
+    int child = isFirstSmaller ? node1 : node2;
+    reroot(child);
+    proofParents[child] = isFirstSmaller ? node2 : node1;
+    proofEdges[child] = edge;
   }
 
-  private EqProofOrElement checkEquality(VarId var1, VarId var2) {
-    if (var1.equals(var2)) {
-      return new EqProofOrElement(getConcreteTerm(var1), true);
+  private List<Integer> getPathToRoot(int node) {
+    List<Integer> result = new ArrayList<>();
+    for (; node != -1; node = proofParents[node]) {
+      result.add(node);
     }
-    return new EqProofOrElement(equivalenceClosure.checkRelation(var1, var2), false);
+    return result;
   }
 
-  private boolean shouldInvertCongrProof(VarId var1, VarId var2) {
-    Pair<VarId, VarId> def1 = varDefs.get(var1);
-    int numShouldBeInverted = 0;
-    int totalNum = 0;
-    VarId var1_ = var1, var2_ = var2;
-
-    while (def1 != null) {
-      Pair<VarId, VarId> def2 = varDefs.get(var2_);
-      var1_ = def1.proj1;
-      var2_ = def2.proj1;
-      if (shouldBeInverted(def1.proj2, def2.proj2)) {
-        ++numShouldBeInverted;
-      }
-      if (!def1.proj2.equals(def2.proj2)) {
-        ++totalNum;
+  /**
+   * @return the path between two nodes of the same equivalence class in the proof forest.
+   */
+  private List<ProofStep> getProofPath(int node1, int node2) {
+    List<Integer> path1 = getPathToRoot(node1);
+    List<Integer> path2 = getPathToRoot(node2);
+    int i = path1.size() - 1, j = path2.size() - 1;
+    while (i > 0 && j > 0 && path1.get(i - 1).equals(path2.get(j - 1))) {
+      i--;
+      j--;
+    }
+
+    List<ProofStep> result = new ArrayList<>(i + j);
+    for (int k = 0; k < i; k++) {
+      result.add(new ProofStep(proofEdges[path1.get(k)], path1.get(k)));
+    }
+    for (int k = j - 1; k >= 0; k--) {
+      result.add(new ProofStep(proofEdges[path2.get(k)], path2.get(k + 1)));
+    }
+    return result;
+  }
+
+  /**
+   * Checks if two nodes are equal because of edges created before the given one.
+   * The path between nodes of the same class never changes, so it consists of such edges if and only if the nodes were equal when the edge was created.
+   */
+  private boolean wereEqualBefore(int node1, int node2, int edgeIndex) {
+    if (node1 == node2) return true;
+    if (find(node1) != find(node2)) return false;
+    for (ProofStep step : getProofPath(node1, node2)) {
+      if (step.edge.index >= edgeIndex) {
+        return false;
       }
-      def1 = varDefs.get(var1_);
+    }
+    return true;
+  }
 
+  private ConcreteExpression getProof(ProofStep step) {
+    ProofEdge edge = step.edge;
+    boolean isForward = step.from == edge.node1;
+    ConcreteExpression proof = isForward ? edge.proof : edge.inverseProof;
+    if (proof == null) {
+      proof = edge.isCongruence
+        ? genCongrProof(step.from, isForward ? edge.node2 : edge.node1, edge.index).eqProofOrElement
+        : factory.app(sym, true, Collections.singletonList(edge.proof));
+      if (isForward) {
+        edge.proof = proof;
+      } else {
+        edge.inverseProof = proof;
+      }
     }
+    return proof;
+  }
 
-    if (shouldBeInverted(var1_, var2_)) {
-      ++numShouldBeInverted;
+  private ConcreteExpression pathToExpr(List<ProofStep> path) {
+    if (path.isEmpty()) {
+      return refl;
     }
 
-    if (!var1_.equals(var2_)) totalNum++;
+    ConcreteExpression result = null;
+    for (int i = path.size() - 1; i >= 0; i--) {
+      ConcreteExpression proof = getProof(path.get(i));
+      result = result == null ? proof : factory.app(trans, true, Arrays.asList(proof, result));
+    }
+    return result;
+  }
 
-    return 2 * numShouldBeInverted > totalNum;
+  private EqProofOrElement checkEquality(int node1, int node2) {
+    if (node1 == node2) {
+      return new EqProofOrElement(getConcreteTerm(node1), true);
+    }
+    return new EqProofOrElement(find(node1) == find(node2) ? pathToExpr(getProofPath(node1, node2)) : null, false);
   }
 
-  private EqProofOrElement genCongrProof(VarId var1, VarId var2) {
-    Pair<VarId, VarId> def1 = varDefs.get(var1);
+  /**
+   * Generates a proof of the congruence of applications labeling the edge with the given index.
+   * The applications are unfolded as long as their functions and arguments were equal when the edge was created,
+   * so the proof refers only to older edges.
+   */
+  private EqProofOrElement genCongrProof(int node1, int node2, int edgeIndex) {
     List<EqProofOrElement> eqProofs = new ArrayList<>();
 
-    while (def1 != null) {
-      Pair<VarId, VarId> def2 = varDefs.get(var2);
-      var1 = def1.proj1;
-      var2 = def2.proj1;
-      eqProofs.add(checkEquality(def1.proj2, def2.proj2));
-      def1 = varDefs.get(var1);
+    while (funcs[node1] != -1 && funcs[node2] != -1 && wereEqualBefore(args[node1], args[node2], edgeIndex) && wereEqualBefore(funcs[node1], funcs[node2], edgeIndex)) {
+      eqProofs.add(checkEquality(args[node1], args[node2]));
+      node1 = funcs[node1];
+      node2 = funcs[node2];
     }
 
-    eqProofs.add(checkEquality(var1, var2));
+    eqProofs.add(checkEquality(node1, node2));
 
     if (eqProofs.size() == 1) {
       return eqProofs.get(0);
@@ -246,94 +374,51 @@ public class CongruenceClosure<V extends CoreExpression> implements BinaryRelati
     return new EqProofOrElement(congrLemma.apply(eqProofs), false);
   }
 
-  private void addToCongrTable(VarId var, Queue<Equality> pending) {
-    List<VarId> congrList = congrTable.get(varHashCode(var));
-    if (congrList == null) {
-      congrTable.put(varHashCode(var), new ArrayList<>(Collections.singletonList(var)));
-    } else {
-      for (VarId congrDef : congrList) {
-        if (areCongruent(var, congrDef, false)) {
-          boolean shouldInvert = shouldInvertCongrProof(var, congrDef);
-          EqProofOrElement proof = !shouldInvert ? genCongrProof(var, congrDef) : genCongrProof(congrDef, var);
-          if (proof == null) continue;
-          if (!shouldInvert) {
-            pending.add(new Equality(var, congrDef, proof));
-          } else {
-            pending.add(new Equality(congrDef, var, proof));
-          }
-        }
-      }
-      congrList.add(var);
-    }
+  private long getSignature(int node) {
+    return ((long) find(funcs[node]) << 32) | find(args[node]);
   }
 
-  private Set<VarId> getTransitiveOccurrences(VarId var) {
-    Queue<VarId> toProcess = new ArrayDeque<>();
-    Set<VarId> occurrences = new HashSet<>();
-
-    toProcess.add(var);
-    while (!toProcess.isEmpty()) {
-      VarId v = toProcess.poll();
-      List<VarId> occurList = occurrenceLists.get(v);
-      if (occurList == null) continue;
-
-      for (VarId u : occurList) {
-        if (occurrences.add(u)) {
-          toProcess.add(u);
-        }
-      }
-    }
-
-    return occurrences;
-  }
-
-  private void updateCongrTable(VarId var1, VarId var2, Queue<Equality> pending) {
-    Set<VarId> occurList = getTransitiveOccurrences(var1);
-
-    occurList.add(var1);
-    for (VarId containingDef : occurList) {
-      congrTable.get(varHashCode(containingDef)).remove(containingDef);
+  private void addToCongrTable(int node, Queue<Equality> pending) {
+    if (funcs[node] == -1) {
+      return;
     }
 
-    varsEquivClasses.union(var1, var2);
-
-    for (VarId containingDef : occurList) {
-      addToCongrTable(containingDef, pending);
+    Integer congruent = signatures.putIfAbsent(getSignature(node), node);
+    if (congruent != null && find(congruent) != find(node)) {
+      pending.add(new Equality(node, congruent, null));
     }
   }
 
-  private static class Equality {
-    public VarId var1;
-    public VarId var2;
-    EqProofOrElement proof;
-
-    public Equality(VarId var1, VarId var2, EqProofOrElement proof) {
-      this.var1 = var1;
-      this.var2 = var2;
-      this.proof = proof;
-    }
-  }
+  /**
+   * An equality of nodes; if the proof is null, then the nodes are congruent applications.
+   */
+  private record Equality(int node1, int node2, ConcreteExpression proof) {}
 
-  private void addEqualities(Queue<Equality> eqProofs) {
-    while (!eqProofs.isEmpty()) {
-      Equality eq = eqProofs.poll();
-      VarId v1 = eq.var1, v2 = eq.var2;
-      EqProofOrElement pr = eq.proof;
-
-      if (varsEquivClasses.find(v1).equals(varsEquivClasses.find(v2))) {
+  private void addEqualities(Queue<Equality> pending) {
+    while (!pending.isEmpty()) {
+      Equality eq = pending.poll();
+      int rep1 = find(eq.node1), rep2 = find(eq.node2);
+      if (rep1 == rep2) {
         continue;
       }
 
-      equivalenceClosure.addRelation(v1, v2, pr.eqProofOrElement);
-
-      VarId var1Rep = varsEquivClasses.find(v1);
-      VarId var2Rep = varsEquivClasses.find(v2);
-      VarId unionVar = varsEquivClasses.compare(var1Rep, var2Rep);
-
-      if (var1Rep != unionVar) {
-        updateCongrTable(var1Rep, var2Rep, eqProofs);
-      } else {
-        updateCongrTable(var2Rep, var1Rep, eqProofs);
+      boolean isFirstSmaller = classSizes[rep1] <= classSizes[rep2];
+      addProofEdge(eq.node1, eq.node2, eq.proof, isFirstSmaller);
+
+      int small = isFirstSmaller ? rep1 : rep2;
+      int large = isFirstSmaller ? rep2 : rep1;
+      classParents[small] = large;
+      classSizes[large] += classSizes[small];
+
+      // Signatures of applications that use the smaller class have changed
+      IntList smallUses = uses[small];
+      uses[small] = null;
+      if (smallUses != null) {
+        for (int i = 0; i < smallUses.size; i++) {
+          int node = smallUses.data[i];
+          addToCongrTable(node, pending);
+          addUse(large, node);
+        }
       }
     }
   }
@@ -342,67 +427,22 @@ public class CongruenceClosure<V extends CoreExpression> implements BinaryRelati
   public void addRelation(V value1, V value2, ConcreteExpression proof) {
     int var1 = splitIntoSubterms(value1);
     int var2 = splitIntoSubterms(value2);
-    addEqualities(new ArrayDeque<>(Collections.singletonList(new Equality(new VarId(var1, -1), new VarId(var2, -1), new EqProofOrElement(proof, false)))));
+    addEqualities(new ArrayDeque<>(Collections.singletonList(new Equality(getNode(new VarId(var1, -1)), getNode(new VarId(var2, -1)), proof))));
   }
 
   @Override
   public @Nullable ConcreteExpression checkRelation(V value1, V value2) {
-    VarId var1 = new VarId(splitIntoSubterms(value1), -1);
-    VarId var2 = new VarId(splitIntoSubterms(value2), -1);
+    int node1 = getNode(new VarId(splitIntoSubterms(value1), -1));
+    int node2 = getNode(new VarId(splitIntoSubterms(value2), -1));
 
-    EqProofOrElement eqProof = checkEquality(var1, var2);
-    if (eqProof.eqProofOrElement != null) {
-      if (!eqProof.isElement) {
-        return eqProof.eqProofOrElement;
-      }
-      ConcreteFactory factory = equivalenceClosure.factory;
-      //return factory.app(equivalenceClosure.refl, Collections.singletonList(factory.arg(eqProof.eqProofOrElement, false)));
-      return equivalenceClosure.refl;
+    EqProofOrElement eqProof = checkEquality(node1, node2);
+    if (eqProof.eqProofOrElement == null) {
+      return null;
     }
-
-    if (congrTable.get(varHashCode(var1)).contains(var2)) {
-      if (areCongruent(var1, var2, false)) {
-        return genCongrProof(var1, var2).eqProofOrElement;
-      }
-    }
-
-    return null;
+    return eqProof.isElement ? refl : eqProof.eqProofOrElement;
   }
 
-  private int varHashCode(VarId var) {
-    Pair<VarId, VarId> def = varDefs.get(var);
-    if (def != null) {
-      VarId func = varsEquivClasses.find(def.proj1);
-      VarId arg = varsEquivClasses.find(def.proj2);
-      return Objects.hash(varHashCode(func), varHashCode(arg));
-    }
-    return Objects.hash(varsEquivClasses.find(var));
-  }
-
-
-  private static class VarId {
-    public int value;
-    public int prefix;
-
-    public VarId(int value, int prefix) {
-      this.value = value;
-      this.prefix = prefix;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) return true;
-      if (o == null || getClass() != o.getClass()) return false;
-      VarId varId = (VarId) o;
-      return value == varId.value &&
-          prefix == varId.prefix;
-    }
-
-    @Override
-    public int hashCode() {
-      return Objects.hash(value, prefix);
-    }
-  }
+  private record VarId(int value, int prefix) {}
 
   private static class ValuesEx extends Values<CoreExpression> {
     public ValuesEx(ExpressionTypechecker typechecker, ConcreteSourceNode marker) {
@@ -470,63 +510,17 @@ public class CongruenceClosure<V extends CoreExpression> implements BinaryRelati
       return result;
     }
 
-  } /**/
-
-  interface DisjointSet<W> {
-    W find(W x);
-
-    void union(W x, W y);
-
-    W compare(W x, W y);
   }
 
-  private static class DisjointSetImpl<W> implements DisjointSet<W> {
-    private final Map<W, W> parent = new HashMap<>();
-    private final Map<W, Integer> size = new HashMap<>();
-
-    @Override
-    public W find(W w) {
-      if (parent.get(w) == null) {
-        parent.put(w, w);
-        size.put(w, 1);
-        return w;
-      }
-      W z = w;
-      W p = parent.get(z);
-      while (z != p) {
-        W pp = parent.get(p);
-        parent.remove(z);
-        parent.put(z, pp);
-        z = p;
-        p = pp;
-      }
-      return z;
-    }
-
-    @Override
-    public void union(W x, W y) {
-      W xRep = find(x), yRep = find(y);
-      if (xRep == yRep) return;
-
-      W z = compare(xRep, yRep);
-      if (z == xRep) {
-        parent.put(yRep, xRep);
-        size.put(xRep, size.get(xRep) + size.get(yRep));
-        size.remove(yRep);
-      } else {
-        parent.put(xRep, yRep);
-        size.put(yRep, size.get(xRep) + size.get(yRep));
-        size.remove(xRep);
-      }
-    }
+  private static class IntList {
+    private int[] data = new int[4];
+    private int size;
 
-    @Override
-    public W compare(W x, W y) {
-      W xRep = find(x), yRep = find(y);
-      if (size.get(xRep) > size.get(yRep)) {
-        return x;
+    void add(int value) {
+      if (size == data.length) {
+        data = Arrays.copyOf(data, 2 * size);
       }
-      return y;
+      data[size++] = value;
     }
   }
 }
@@ -0,0 +1,139 @@
+package org.arend.lib.meta.linear;
+
+import org.arend.lib.ring.BigRational;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Searches for a certificate of unsatisfiability of a list of equations.
+ * A certificate is a list of non-negative coefficients c_i such that the sum of c_i * (rhs_i - lhs_i) is zero
+ * and the coefficient of at least one strict inequality is positive.
+ * Such a certificate is a feasible point of a linear program which is found by the first phase of the simplex method.
+ */
+final class SimplexSolver {
+  private final int myNumberOfColumns;
+  private final int myNumberOfRows;
+  private final BigRational[][] myTableau; // the last column is the right-hand side, and the last row is the objective
+  private final int[] myBasis; // indices of basic variables; artificial variables have indices starting from myNumberOfColumns
+
+  private SimplexSolver(List<? extends Equation<CompiledTerm>> equations, int numberOfVariables) {
+    myNumberOfColumns = equations.size();
+    myNumberOfRows = numberOfVariables + 2;
+    myTableau = new BigRational[myNumberOfRows + 1][myNumberOfColumns + 1];
+    myBasis = new int[myNumberOfRows];
+
+    // The sum of c_i * (rhs_i - lhs_i) is zero in every coefficient and the sum of c_i over strict inequalities is 1
+    for (int i = 0; i < myNumberOfColumns; i++) {
+      Equation<CompiledTerm> equation = equations.get(i);
+      for (int j = 0; j <= numberOfVariables; j++) {
+        myTableau[j][i] = BigRational.makeInt(equation.rhsTerm.getCoef(j).subtract(equation.lhsTerm.getCoef(j)));
+      }
+      myTableau[myNumberOfRows - 1][i] = equation.operation == Equation.Operation.LESS ? BigRational.ONE : BigRational.ZERO;
+    }
+    for (int j = 0; j < myNumberOfRows; j++) {
+      myTableau[j][myNumberOfColumns] = j == myNumberOfRows - 1 ? BigRational.ONE : BigRational.ZERO;
+      myBasis[j] = myNumberOfColumns + j;
+    }
+
+    // Initially, every row has an artificial variable; the objective is to minimize their sum
+    BigRational[] objective = myTableau[myNumberOfRows];
+    Arrays.fill(objective, BigRational.ZERO);
+    for (int j = 0; j < myNumberOfRows; j++) {
+      for (int i = 0; i <= myNumberOfColumns; i++) {
+        objective[i] = objective[i].subtract(myTableau[j][i]);
+      }
+    }
+  }
+
+  private void pivot(int row, int column) {
+    BigRational[] pivotRow = myTableau[row];
+    BigRational pivot = pivotRow[column];
+    for (int i = 0; i <= myNumberOfColumns; i++) {
+      pivotRow[i] = pivotRow[i].divide(pivot);
+    }
+    for (int j = 0; j <= myNumberOfRows; j++) {
+      BigRational coef = myTableau[j][column];
+      if (j != row && coef.signum() != 0) {
+        for (int i = 0; i <= myNumberOfColumns; i++) {
+          myTableau[j][i] = myTableau[j][i].subtract(coef.multiply(pivotRow[i]));
+        }
+      }
+    }
+    myBasis[row] = column;
+  }
+
+  /**
+   * Minimizes the sum of artificial variables using Bland's rule, which guarantees termination.
+   *
+   * @return true if the minimum is zero.
+   */
+  private boolean minimize() {
+    BigRational[] objective = myTableau[myNumberOfRows];
+    while (true) {
+      int column = -1;
+      for (int i = 0; i < myNumberOfColumns; i++) {
+        if (objective[i].signum() < 0) {
+          column = i;
+          break;
+        }
+      }
+      if (column == -1) {
+        return objective[myNumberOfColumns].signum() == 0;
+      }
+
+      int row = -1;
+      BigRational minRatio = null;
+      for (int j = 0; j < myNumberOfRows; j++) {
+        BigRational coef = myTableau[j][column];
+        if (coef.signum() > 0) {
+          BigRational ratio = myTableau[j][myNumberOfColumns].divide(coef);
+          int cmp = minRatio == null ? -1 : ratio.subtract(minRatio).signum();
+          if (cmp < 0 || cmp == 0 && myBasis[j] < myBasis[row]) {
+            row = j;
+            minRatio = ratio;
+          }
+        }
+      }
+      if (row == -1) {
+        // The objective is bounded below by zero, so this cannot happen
+        return false;
+      }
+      pivot(row, column);
+    }
+  }
+
+  /**
+   * @return a certificate with integer coefficients, or null if it does not exist.
+   */
+  static List<BigInteger> solve(List<? extends Equation<CompiledTerm>> equations, int numberOfVariables) {
+    if (equations.isEmpty()) {
+      return null;
+    }
+
+    SimplexSolver solver = new SimplexSolver(equations, numberOfVariables);
+    if (!solver.minimize()) {
+      return null;
+    }
+
+    BigRational[] values = new BigRational[solver.myNumberOfColumns];
+    Arrays.fill(values, BigRational.ZERO);
+    BigInteger lcm = BigInteger.ONE;
+    for (int j = 0; j < solver.myNumberOfRows; j++) {
+      int var = solver.myBasis[j];
+      if (var < solver.myNumberOfColumns) {
+        BigRational value = solver.myTableau[j][solver.myNumberOfColumns];
+        values[var] = value;
+        lcm = lcm.divide(lcm.gcd(value.denom)).multiply(value.denom);
+      }
+    }
+
+    List<BigInteger> result = new ArrayList<>(values.length);
+    for (BigRational value : values) {
+      result.add(value.nom.multiply(lcm.divide(value.denom)));
+    }
+    return result;
+  }
+}
@@ -42,4 +42,18 @@ public class BigRational implements Ring {
   public BigRational subtract(Ring x) {
     return BigRational.make(nom.multiply(((BigRational) x).denom).subtract(((BigRational) x).nom.multiply(denom)), denom.multiply(((BigRational) x).denom));
   }
-}
\ No newline at end of file
+
+  public int signum() {
+    return nom.signum() * denom.signum();
+  }
+
+  public BigRational divide(BigRational x) {
+    BigInteger newNom = nom.multiply(x.denom);
+    BigInteger newDenom = denom.multiply(x.nom);
+    if (newDenom.signum() < 0) {
+      newNom = newNom.negate();
+      newDenom = newDenom.negate();
+    }
+    return BigRational.make(newNom, newDenom);
+  }
+}
@@ -25,6 +25,10 @@ public class ComMonoidWP {
     return new Monomial<>(BigInteger.ONE, word, Ring.Z);
   }
 
+  private static Monomial<BigInteger> wordToMonomial(int[] word) {
+    return new Monomial<>(BigInteger.ONE, word, Ring.Z);
+  }
+
   private static Monomial<BigInteger> wordToMonomial(List<Integer> word, int numVars) {
     if (word.size() == numVars) {
       return new Monomial<>(BigInteger.ONE, word, Ring.Z);
@@ -62,17 +66,17 @@ public class ComMonoidWP {
     return powersSeq;
   }
 
-  public static List<Integer> powersSeqToElemsSeq(List<Integer> powers) {
+  public static List<Integer> powersSeqToElemsSeq(int[] powers) {
     var word = new ArrayList<Integer>();
-    for (int i = 0; i < powers.size(); ++i) {
-      for (int j = 0; j < powers.get(i); ++j) {
+    for (int i = 0; i < powers.length; ++i) {
+      for (int j = 0; j < powers[i]; ++j) {
         word.add(i);
       }
     }
     return word;
   }
 
-  private static List<Integer> monomialToWord(Monomial<BigInteger> monomial) {
+  private static int[] monomialToWord(Monomial<BigInteger> monomial) {
     return monomial.degreeVector;
   }
 
@@ -96,13 +100,13 @@ public class ComMonoidWP {
         var f1 = wordToMonomial(axioms.get(i).proj1);
         var f2 = wordToMonomial(axioms.get(i).proj2);
         if (tQ.coefficient.compareTo(BigInteger.ZERO) >= 0) {
-          if (f1.mul(tQ.degreeVector).degreeVector.equals(t.degreeVector)) {
+          if (f1.mul(tQ.degreeVector).degVecEquals(t)) {
             reductionStep.redex = f2.mul(tQ.degreeVector);
             reductionStep.axiomInd = i;
             coeffs.set(i, coeffs.get(i).subtr(wordToMonomial(monomialToWord(tQ))));
             return reductionStep;
           }
-        } else if (f2.mul(tQ.degreeVector).degreeVector.equals(t.degreeVector)) {
+        } else if (f2.mul(tQ.degreeVector).degVecEquals(t)) {
           reductionStep.redex = f1.mul(tQ.degreeVector);
           reductionStep.axiomInd = i;
           reductionStep.isDirectApp = false;
@@ -154,7 +158,7 @@ public class ComMonoidWP {
       if (reductionStep == null) return null;
 
       reductionSteps.add(new Pair<>(reductionStep.axiomInd, reductionStep.isDirectApp));
-      if (reductionStep.redex.degreeVector.equals(t2.degreeVector)) {
+      if (reductionStep.redex.degVecEquals(t2)) {
         break;
       }
       curRedex = reductionStep.redex;
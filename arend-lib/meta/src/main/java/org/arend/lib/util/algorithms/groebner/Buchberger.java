@@ -7,10 +7,14 @@ import org.arend.lib.util.algorithms.polynomials.Ring;
 
 import java.math.BigInteger;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Buchberger's algorithm over integers.
+ * Since reduction only cancels terms whose coefficients are divisible by leading coefficients of the basis,
+ * the computed basis is not a strong Groebner basis, and which polynomials reduce to zero by it depends on the order of pairs.
+ * Because of that, every pair is processed, and pairs are processed in the order in which they appear.
+ */
 public class Buchberger implements GroebnerBasisAlgorithm {
-
   @Override
   public Map<Poly<BigInteger>, List<Poly<BigInteger>>> computeGBwCoefficients(List<Poly<BigInteger>> generators) {
     if (generators.isEmpty()) {
@@ -18,8 +22,8 @@ public class Buchberger implements GroebnerBasisAlgorithm {
     }
 
     List<Poly<BigInteger>> groebnerBasis = new ArrayList<>(generators);
-    Queue<Pair<Integer, Integer>> pairsToProcess = new LinkedList<>();
-    Map<Poly<BigInteger>, List<Poly<BigInteger>>> gbCoefficients = new HashMap<>();
+    Queue<Pair<Integer, Integer>> pairsToProcess = new ArrayDeque<>();
+    Map<Poly<BigInteger>, List<Poly<BigInteger>>> gbCoefficients = new LinkedHashMap<>();
     int nVars = generators.get(0).numVars();
     Ring<BigInteger> ring = generators.get(0).ring();
 
@@ -43,14 +47,14 @@ public class Buchberger implements GroebnerBasisAlgorithm {
       var f1 = groebnerBasis.get(pair.proj1);
       var f2 = groebnerBasis.get(pair.proj2);
       Monomial<BigInteger> lt1 = f1.leadingTerm(), lt2 = f2.leadingTerm(), lcm = lt1.lcm(lt2);
-      var s12 = f1.mul(lcm.divideBy(lt1)).subtr(f2.mul(lcm.divideBy(lt2)));
-      Poly<BigInteger> lastRedS12 = Poly.constant(ring.zero(), nVars, ring);
+      var m1 = lcm.divideBy(lt1);
+      var m2 = lcm.divideBy(lt2);
+      var s12 = f1.mul(m1).subtr(f2.mul(m2));
       var coeffs = new ArrayList<Poly<BigInteger>>();
 
       for (int i = 0; i < generators.size(); ++i) {
-        var c1 = gbCoefficients.get(groebnerBasis.get(pair.proj1)).get(i).mul(new Poly<>(Collections.singletonList(lcm.divideBy(lt1))));
-        var c2 = gbCoefficients.get(groebnerBasis.get(pair.proj2)).get(i).mul(new Poly<>(Collections.singletonList(lcm.divideBy(lt2))));
-        // mul(Poly.constant(Ring.negUnit(ring), nVars, ring));
+        var c1 = gbCoefficients.get(f1).get(i).mul(m1);
+        var c2 = gbCoefficients.get(f2).get(i).mul(m2);
         coeffs.add(c1.subtr(c2));
       }
 
@@ -1,6 +1,7 @@
 package org.arend.lib.util.algorithms.idealmem;
 
 import org.arend.lib.util.algorithms.groebner.GroebnerBasisAlgorithm;
+import org.arend.lib.util.algorithms.polynomials.DegLexMonomialOrder;
 import org.arend.lib.util.algorithms.polynomials.Poly;
 
 import java.math.BigInteger;
@@ -18,6 +19,9 @@ public class GroebnerIM implements IdealMembership {
   public List<Poly<BigInteger>> computeGenDecomposition(Poly<BigInteger> poly, List<Poly<BigInteger>> generators) {
     var groebnerBasisCoeffs = gbAlg.computeGBwCoefficients(generators);
     var groebnerBasis = new ArrayList<>(groebnerBasisCoeffs.keySet());
+    // The remainder depends on the order of the basis, so it is sorted to make the result deterministic
+    var order = new DegLexMonomialOrder<BigInteger>();
+    groebnerBasis.sort((p1, p2) -> order.compare(p2.leadingTerm(), p1.leadingTerm()));
     var divResult = poly.divideWRemainder(groebnerBasis);
     if (!divResult.get(divResult.size() - 1).isZero()) {
       return null;
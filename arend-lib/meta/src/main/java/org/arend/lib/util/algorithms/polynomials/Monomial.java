@@ -4,43 +4,67 @@ import java.util.*;
 
 public class Monomial<E> {
   public E coefficient;
-  public final List<Integer> degreeVector;
+  /**
+   * Exponents of variables. The array is never modified after the monomial is constructed.
+   */
+  public final int[] degreeVector;
   public final Ring<E> ring;
+  private final int myDegree;
 
-  public Monomial(E coefficient, List<Integer> degreeVector, Ring<E> ring) {
+  private Monomial(E coefficient, int[] degreeVector, int degree, Ring<E> ring) {
     this.coefficient = coefficient;
-    this.degreeVector = new ArrayList<>(degreeVector);
+    this.degreeVector = degreeVector;
     this.ring = ring;
+    this.myDegree = degree;
+  }
+
+  public Monomial(E coefficient, int[] degreeVector, Ring<E> ring) {
+    this(coefficient, degreeVector.clone(), sum(degreeVector), ring);
+  }
+
+  public Monomial(E coefficient, List<Integer> degreeVector, Ring<E> ring) {
+    this(coefficient, degreeVector.stream().mapToInt(Integer::intValue).toArray(), ring);
   }
 
   public Monomial(E coefficient, int numVars, Ring<E> ring) {
-    this.degreeVector = new ArrayList<>();
-    this.coefficient = coefficient;
-    this.ring = ring;
-    for (int i = 0; i < numVars; ++i) {
-      this.degreeVector.add(0);
-    }
+    this(coefficient, new int[numVars], 0, ring);
   }
 
   public Monomial(Monomial<E> monomial) {
-    this.coefficient = monomial.coefficient;
-    this.degreeVector = new ArrayList<>(monomial.degreeVector);
-    this.ring = monomial.ring;
+    this(monomial.coefficient, monomial.degreeVector, monomial.myDegree, monomial.ring);
+  }
+
+  private static int sum(int[] degreeVector) {
+    int deg = 0;
+    for (int d : degreeVector) {
+      deg += d;
+    }
+    return deg;
+  }
+
+  /**
+   * @return a copy of this monomial with {@code numVars} variables, where new variables have degree 0.
+   */
+  public Monomial<E> pad(int numVars) {
+    return numVars == degreeVector.length ? new Monomial<>(this) : new Monomial<>(coefficient, Arrays.copyOf(degreeVector, numVars), myDegree, ring);
   }
 
   public Monomial<E> lcm(Monomial<E> m) {
-    int N = numVars();
-    var dv = new ArrayList<>(degreeVector);//, dv2 = t2.dv().exponents;
-    for (int i = 0; i < N; ++i) {
-      int deg = Math.max(dv.get(i), m.degreeVector.get(i));
-      dv.set(i, deg);
+    int[] dv = new int[degreeVector.length];
+    int degree = 0;
+    for (int i = 0; i < dv.length; ++i) {
+      dv[i] = Math.max(degreeVector[i], m.degreeVector[i]);
+      degree += dv[i];
     }
-    return new Monomial<>(ring.lcm(coefficient, m.coefficient), dv, ring);
+    return new Monomial<>(ring.lcm(coefficient, m.coefficient), dv, degree, ring);
   }
 
   public boolean isDivisible(Monomial<E> m) {
-    for (int i = 0; i < degreeVector.size(); ++i) {
-      if (degreeVector.get(i) < m.degreeVector.get(i)) {
+    if (myDegree < m.myDegree) {
+      return false;
+    }
+    for (int i = 0; i < degreeVector.length; ++i) {
+      if (degreeVector[i] < m.degreeVector[i]) {
         return false;
       }
     }
@@ -49,7 +73,7 @@ public class Monomial<E> {
 
   public boolean degVecEquals(Monomial<E> m) {
     if (m == null) return false;
-    return Objects.equals(degreeVector, m.degreeVector);
+    return myDegree == m.myDegree && Arrays.equals(degreeVector, m.degreeVector);
   }
 
   @Override
@@ -58,12 +82,12 @@ public class Monomial<E> {
     if (o == null || getClass() != o.getClass()) return false;
     Monomial<?> monomial = (Monomial<?>) o;
     return Objects.equals(coefficient, monomial.coefficient) &&
-            Objects.equals(degreeVector, monomial.degreeVector);
+            Arrays.equals(degreeVector, monomial.degreeVector);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(coefficient, degreeVector, ring);
+    return Objects.hash(coefficient, Arrays.hashCode(degreeVector), ring);
   }
 
   @Override
@@ -73,50 +97,44 @@ public class Monomial<E> {
     }
     StringBuilder str = new StringBuilder(!coefficient.equals(ring.unit()) ? coefficient.toString() + " * " : "");
     for (int i = 0; i < numVars(); ++i) {
-      if (degreeVector.get(i) == 1) {
+      if (degreeVector[i] == 1) {
         str.append("x").append(i + 1);
-      } else if (degreeVector.get(i) > 1) {
-        str.append("x").append(i + 1).append("^").append(degreeVector.get(i));
+      } else if (degreeVector[i] > 1) {
+        str.append("x").append(i + 1).append("^").append(degreeVector[i]);
       }
     }
     return str.toString();
   }
 
   public Monomial<E> divideBy(Monomial<E> m) {
-    var quot = new Monomial<>(this);
-    for (int i = 0; i < degreeVector.size(); ++i) {
-      var deg = quot.degreeVector.get(i);
-      quot.degreeVector.set(i, deg - m.degreeVector.get(i));
+    int[] dv = new int[degreeVector.length];
+    for (int i = 0; i < dv.length; ++i) {
+      dv[i] = degreeVector[i] - m.degreeVector[i];
     }
-    quot.coefficient = ring.div(coefficient, m.coefficient);
-    return quot;
+    return new Monomial<>(ring.div(coefficient, m.coefficient), dv, myDegree - m.myDegree, ring);
   }
 
   public Monomial<E> mul(Monomial<E> m) {
-    var result = new Monomial<>(ring.mul(coefficient, m.coefficient), new ArrayList<>(), ring);
-    for (int i = 0; i < Math.max(degreeVector.size(), m.degreeVector.size()); ++i) {
-      int deg = i < degreeVector.size() ? degreeVector.get(i) : 0;
-      if (i < m.degreeVector.size()) {
-        deg += m.degreeVector.get(i);
-      }
-      result.degreeVector.add(deg);
-    }
-    return result;
+    return mul(ring.mul(coefficient, m.coefficient), m.degreeVector, m.myDegree);
+  }
+
+  public Monomial<E> mul(int[] degreeVector) {
+    return mul(coefficient, degreeVector, sum(degreeVector));
   }
 
-  public Monomial<E> mul(List<Integer> degreeVector) {
-    return mul(new Monomial<>(ring.unit(), degreeVector, ring));
+  private Monomial<E> mul(E coefficient, int[] degreeVector, int degree) {
+    int[] dv = Arrays.copyOf(this.degreeVector, Math.max(this.degreeVector.length, degreeVector.length));
+    for (int i = 0; i < degreeVector.length; ++i) {
+      dv[i] += degreeVector[i];
+    }
+    return new Monomial<>(coefficient, dv, myDegree + degree, ring);
   }
 
   public int numVars() {
-    return degreeVector.size();
+    return degreeVector.length;
   }
 
   public int degree() {
-    int deg = 0;
-    for (int d : degreeVector) {
-      deg += d;
-    }
-    return deg;
+    return myDegree;
   }
 }
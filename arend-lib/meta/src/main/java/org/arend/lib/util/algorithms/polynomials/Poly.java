@@ -18,9 +18,7 @@ public class Poly<E> {
     var ring = monomials.getFirst().ring;
 
     for (var mon : monomials) {
-      var paddedDegVec = new ArrayList<>(mon.degreeVector);
-      paddedDegVec.addAll(java.util.Collections.nCopies(numVars - mon.numVars(), 0));
-      monUniformCpy.add(new Monomial<>(mon.coefficient, paddedDegVec, ring));
+      monUniformCpy.add(mon.pad(numVars));
     }
 
     monUniformCpy.sort(new DegLexMonomialOrder<>());
@@ -33,7 +31,7 @@ public class Poly<E> {
     Monomial<E> lastAdded = null;
     for (Monomial<E> mon : monUniformCpy) {
       if (!mon.degVecEquals(lastMon)) {
-        lastAdded = new Monomial<>(mon);
+        lastAdded = mon;
         this.monomials.add(lastAdded);
       } else {
         assert lastAdded != null;
@@ -20,10 +20,15 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 public class ClassDefinition extends TopLevelDefinition implements CoreClassDefinition {
+  private volatile Set<ClassDefinition> myAncestors; // this class and all of its ancestors, or null if it is not computed yet
+  private int myAncestorsVersion; // incremented whenever myAncestors is invalidated
+  // Subclasses whose ancestors were computed using this class; they are invalidated together with it. Also guards myAncestors.
+  private final Set<ClassDefinition> myDependentSubclasses = Collections.newSetFromMap(new WeakHashMap<>());
   private final Set<ClassDefinition> mySuperClasses = new LinkedHashSet<>();
   private final LinkedHashSet<ClassField> myNotImplementedFields = new LinkedHashSet<>();
   private final List<ClassField> myPersonalFields = new ArrayList<>();
@@ -44,6 +49,9 @@ public class ClassDefinition extends TopLevelDefinition implements CoreClassDefi
   private Map<ClassDefinition, Levels> mySuperLevels = Collections.emptyMap();
   private final Set<ClassField> myOmegaFields = new HashSet<>();
   private UniverseKind myBaseUniverseKind = UniverseKind.NO_UNIVERSES;
+  // Every field that may be implemented in a class call of this class gets a slot; slots are never reassigned
+  private final Map<ClassField, Integer> myFieldSlots = new ConcurrentHashMap<>();
+  private volatile ClassField[] mySlotFields = new ClassField[0];
 
   public ClassDefinition(TCDefReferable referable) {
     super(referable, TypeCheckingStatus.NEEDS_TYPE_CHECKING);
@@ -252,7 +260,77 @@ public class ClassDefinition extends TopLevelDefinition implements CoreClassDefi
   }
 
   public void addSuperClass(ClassDefinition superClass) {
-    mySuperClasses.add(superClass);
+    if (mySuperClasses.add(superClass)) {
+      invalidateAncestors();
+    }
+  }
+
+  /**
+   * Invalidates cached ancestors of this class and of its subclasses that used them.
+   */
+  private void invalidateAncestors() {
+    Deque<ClassDefinition> toInvalidate = new ArrayDeque<>();
+    toInvalidate.push(this);
+    while (!toInvalidate.isEmpty()) {
+      ClassDefinition classDef = toInvalidate.pop();
+      synchronized (classDef.myDependentSubclasses) {
+        classDef.myAncestors = null;
+        classDef.myAncestorsVersion++;
+        toInvalidate.addAll(classDef.myDependentSubclasses);
+        classDef.myDependentSubclasses.clear();
+      }
+    }
+  }
+
+  /**
+   * @return the set of this class and all of its ancestors.
+   */
+  private Set<ClassDefinition> getAncestors() {
+    Set<ClassDefinition> ancestors = myAncestors;
+    if (ancestors != null) {
+      return ancestors;
+    }
+
+    int version;
+    synchronized (myDependentSubclasses) {
+      version = myAncestorsVersion;
+    }
+
+    Set<ClassDefinition> result = new HashSet<>();
+    Deque<ClassDefinition> toVisit = new ArrayDeque<>();
+    toVisit.push(this);
+    while (!toVisit.isEmpty()) {
+      ClassDefinition classDef = toVisit.pop();
+      if (result.contains(classDef)) {
+        continue;
+      }
+      if (classDef != this) {
+        // Register before reading the ancestors of classDef, so that their later changes invalidate the result
+        Set<ClassDefinition> superAncestors;
+        synchronized (classDef.myDependentSubclasses) {
+          classDef.myDependentSubclasses.add(this);
+          superAncestors = classDef.myAncestors;
+        }
+        if (superAncestors != null) {
+          result.addAll(superAncestors);
+          continue;
+        }
+      }
+      result.add(classDef);
+      toVisit.addAll(classDef.mySuperClasses);
+    }
+
+    synchronized (myDependentSubclasses) {
+      if (myAncestorsVersion == version) {
+        myAncestors = result;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean isSubClassOf(@NotNull CoreClassDefinition classDefinition) {
+    return this == classDefinition || classDefinition instanceof ClassDefinition && getAncestors().contains(classDefinition);
   }
 
   @NotNull
@@ -328,6 +406,7 @@ public class ClassDefinition extends TopLevelDefinition implements CoreClassDefi
 
   public void addField(ClassField field) {
     myNotImplementedFields.add(field);
+    addFieldSlot(field);
   }
 
   public void addPersonalField(ClassField field) {
@@ -336,6 +415,43 @@ public class ClassDefinition extends TopLevelDefinition implements CoreClassDefi
 
   public void addFields(Collection<? extends ClassField> fields) {
     myNotImplementedFields.addAll(fields);
+    for (ClassField field : fields) {
+      addFieldSlot(field);
+    }
+  }
+
+  /**
+   * @return the slot of the field in implementations of class calls of this class, or -1 if the field does not have a slot yet.
+   */
+  public int getFieldSlot(ClassField field) {
+    Integer slot = myFieldSlots.get(field);
+    return slot == null ? -1 : slot;
+  }
+
+  /**
+   * Assigns a slot to the field if it does not have one.
+   *
+   * @return the slot of the field.
+   */
+  public synchronized int addFieldSlot(ClassField field) {
+    Integer slot = myFieldSlots.get(field);
+    if (slot != null) {
+      return slot;
+    }
+
+    ClassField[] slotFields = Arrays.copyOf(mySlotFields, mySlotFields.length + 1);
+    slotFields[mySlotFields.length] = field;
+    mySlotFields = slotFields;
+    myFieldSlots.put(field, mySlotFields.length - 1);
+    return mySlotFields.length - 1;
+  }
+
+  public ClassField getSlotField(int slot) {
+    return mySlotFields[slot];
+  }
+
+  public int getNumberOfFieldSlots() {
+    return mySlotFields.length;
   }
 
   @Override
@@ -542,6 +658,7 @@ public class ClassDefinition extends TopLevelDefinition implements CoreClassDefi
 
   public void clear() {
     mySuperClasses.clear();
+    invalidateAncestors();
     myNotImplementedFields.clear();
     myPersonalFields.clear();
     myImplemented.clear();
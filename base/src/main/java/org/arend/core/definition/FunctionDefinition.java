@@ -11,15 +11,20 @@ import org.arend.ext.core.level.LevelSubstitution;
 import org.arend.naming.reference.TCDefReferable;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.ref.SoftReference;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 public class FunctionDefinition extends TopLevelDefinition implements Function, CoreFunctionDefinition {
   private DependentLink myParameters;
   private Expression myResultType;
   private Expression myResultTypeLevel;
   private Body myBody;
+  // If the body is stored outside of memory, it is loaded on demand and can be collected again when it is not used
+  private volatile Supplier<? extends Body> myBodyLoader;
+  private volatile SoftReference<Body> myLoadedBody;
   private List<Integer> myParametersTypecheckingOrder;
   private Kind myKind = Kind.FUNC;
   private HiddenStatus myBodyIsHidden = HiddenStatus.NOT_HIDDEN;
@@ -46,6 +51,8 @@ public class FunctionDefinition extends TopLevelDefinition implements Function,
     this.myResultType = other.myResultType;
     this.myResultTypeLevel = other.myResultTypeLevel;
     this.myBody = other.myBody;
+    this.myBodyLoader = other.myBodyLoader;
+    this.myLoadedBody = other.myLoadedBody;
     this.myParametersTypecheckingOrder = other.myParametersTypecheckingOrder;
     this.myKind = other.myKind;
     this.myBodyIsHidden = other.myBodyIsHidden;
@@ -59,18 +66,33 @@ public class FunctionDefinition extends TopLevelDefinition implements Function,
     this.myImplementedField = other.myImplementedField;
   }
 
+  private Body getStoredBody() {
+    Supplier<? extends Body> loader = myBodyLoader;
+    if (loader == null) {
+      return myBody;
+    }
+
+    SoftReference<Body> loadedBody = myLoadedBody;
+    Body body = loadedBody == null ? null : loadedBody.get();
+    if (body == null) {
+      body = loader.get();
+      myLoadedBody = new SoftReference<>(body);
+    }
+    return body;
+  }
+
   @Override
   public Body getBody() {
-    return isSFunc() || myBodyIsHidden != HiddenStatus.NOT_HIDDEN ? null : myBody;
+    return isSFunc() || myBodyIsHidden != HiddenStatus.NOT_HIDDEN ? null : getStoredBody();
   }
 
   @Override
   public Body getActualBody() {
-    return myBodyIsHidden == HiddenStatus.REALLY_HIDDEN ? null : myBody;
+    return myBodyIsHidden == HiddenStatus.REALLY_HIDDEN ? null : getStoredBody();
   }
 
   public Body getReallyActualBody() {
-    return myBody;
+    return getStoredBody();
   }
 
   public HiddenStatus getBodyHiddenStatus() {
@@ -87,6 +109,21 @@ public class FunctionDefinition extends TopLevelDefinition implements Function,
 
   public void setBody(Body body) {
     myBody = body;
+    myBodyLoader = null;
+    myLoadedBody = null;
+  }
+
+  /**
+   * Replaces the body with a loader that is invoked when the body is requested.
+   */
+  public void setBodyLoader(Supplier<? extends Body> loader) {
+    myLoadedBody = null;
+    myBodyLoader = loader;
+    myBody = null;
+  }
+
+  public boolean hasBodyLoader() {
+    return myBodyLoader != null;
   }
 
   @Override
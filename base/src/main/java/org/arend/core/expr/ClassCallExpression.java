@@ -80,7 +80,7 @@ public class ClassCallExpression extends LeveledDefCallExpression implements Typ
 
   public ClassCallExpression(ClassDefinition definition, Levels levels, Map<ClassField, Expression> implementations, Sort sort, UniverseKind universeKind) {
     super(definition, levels);
-    assert implementations instanceof LinkedHashMap || implementations.size() <= 1;
+    assert implementations instanceof LinkedHashMap || implementations instanceof ImplementationMap || implementations.size() <= 1;
     myImplementations = implementations;
     mySort = sort;
     myUniverseKind = universeKind.max(definition.getBaseUniverseKind());
@@ -99,7 +99,7 @@ public class ClassCallExpression extends LeveledDefCallExpression implements Typ
 
   public void fixOrderOfImplementations() {
     if (myImplementations.size() <= 1) return;
-    Map<ClassField, Expression> newImpls = new LinkedHashMap<>();
+    Map<ClassField, Expression> newImpls = new ImplementationMap(getDefinition());
     for (ClassField field : getDefinition().getNotImplementedFields()) {
       Expression impl = myImplementations.get(field);
       if (impl != null) {
@@ -305,7 +305,7 @@ public class ClassCallExpression extends LeveledDefCallExpression implements Typ
 
   @Override
   public @NotNull DependentLink getClassFieldParameters() {
-    Map<ClassField, Expression> implementations = new LinkedHashMap<>();
+    Map<ClassField, Expression> implementations = new ImplementationMap(getDefinition());
     NewExpression newExpr = new NewExpression(null, new ClassCallExpression(getDefinition(), getLevels(), implementations, Sort.PROP, UniverseKind.NO_UNIVERSES));
     newExpr.getClassCall().copyImplementationsFrom(this);
 
@@ -435,7 +435,7 @@ public class ClassCallExpression extends LeveledDefCallExpression implements Typ
 
         @Override
         public Expression visitClassCall(ClassCallExpression expr, Void params) {
-          Map<ClassField, Expression> fieldSet = new LinkedHashMap<>();
+          Map<ClassField, Expression> fieldSet = new ImplementationMap(expr.getDefinition());
           ClassCallExpression result = new ClassCallExpression(expr.getDefinition(), expr.getLevels().subst(getLevelSubstitution()), fieldSet, expr.getSort(), expr.getUniverseKind());
           getExprSubstitution().add(expr.getThisBinding(), new ReferenceExpression(result.getThisBinding()));
           for (Map.Entry<ClassField, Expression> entry : expr.getImplementedHere().entrySet()) {
@@ -0,0 +1,257 @@
+package org.arend.core.expr;
+
+import org.arend.core.context.binding.inference.InferenceLevelVariable;
+import org.arend.core.sort.Level;
+import org.arend.core.subst.Levels;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+/**
+ * An opt-in interning layer for closed first-order core expressions.
+ * Interned expressions are definition calls whose arguments are interned expressions themselves and integer literals.
+ * Structurally equal interned expressions are represented by a single instance,
+ * so they share memory and {@link org.arend.core.expr.visitor.CompareVisitor} compares them by reference.
+ * The table holds expressions weakly, so it does not keep them alive.
+ * <p>
+ * Core expressions are not immutable in general (for example, levels of definition calls are fixed in place after typechecking),
+ * so only expressions that are not modified after they are constructed should be interned.
+ */
+public final class ExpressionInterner {
+  private static volatile boolean ourEnabled;
+  private static final Table ourTable = new Table();
+
+  private static final int NOT_INTERNABLE = 0;
+
+  private ExpressionInterner() {}
+
+  public static boolean isEnabled() {
+    return ourEnabled;
+  }
+
+  public static void setEnabled(boolean enabled) {
+    ourEnabled = enabled;
+    if (!enabled) {
+      ourTable.clear();
+    }
+  }
+
+  /**
+   * @return a structurally equal interned expression if interning is enabled and the expression can be interned,
+   *         the expression itself otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends Expression> T intern(T expr) {
+    return ourEnabled ? (T) ourTable.intern(expr) : expr;
+  }
+
+  /**
+   * Computes the structural hash of an expression.
+   * Arguments of definition calls should be already interned, so their hashes are taken from the table.
+   *
+   * @return {@link #NOT_INTERNABLE} if the expression is not closed or contains expressions that are not interned.
+   */
+  private static int hash(Expression expr, boolean isArgument) {
+    if (expr instanceof IntegerExpression intExpr) {
+      return normalize(intExpr.getBigInteger().hashCode());
+    }
+    if (!(expr instanceof LeveledDefCallExpression defCall)) {
+      return NOT_INTERNABLE;
+    }
+    if (isArgument) {
+      return ourTable.getHash(defCall);
+    }
+
+    int hash = hashLevels(defCall.getLevels());
+    if (hash != NOT_INTERNABLE) {
+      hash = 31 * hash + defCall.getDefinition().hashCode();
+      if (defCall instanceof ConCallExpression conCall) {
+        hash = hashList(hash, conCall.getDataTypeArguments());
+      }
+      if (hash != NOT_INTERNABLE) {
+        hash = hashList(hash, defCall.getDefCallArguments());
+      }
+    }
+    return hash;
+  }
+
+  private static int hashList(int hash, List<? extends Expression> exprs) {
+    for (Expression expr : exprs) {
+      int argHash = expr == null ? NOT_INTERNABLE : hash(expr, true);
+      if (argHash == NOT_INTERNABLE) return NOT_INTERNABLE;
+      hash = 31 * hash + argHash;
+    }
+    return normalize(hash);
+  }
+
+  private static int hashLevels(Levels levels) {
+    int hash = 17;
+    for (Level level : levels.toList()) {
+      if (level.getVar() instanceof InferenceLevelVariable) return NOT_INTERNABLE;
+      // Variables are hashed by their type since equal variables may have different hash codes
+      hash = 31 * hash + (level.isInfinity() ? -1 : level.getVar() == null ? 0 : level.getVar().getType().ordinal() + 1);
+      hash = 31 * hash + level.getConstant();
+      hash = 31 * hash + level.getMaxConstant();
+    }
+    return normalize(hash);
+  }
+
+  private static int normalize(int hash) {
+    return hash == NOT_INTERNABLE ? 1 : hash;
+  }
+
+  /**
+   * Checks if two internable expressions are structurally equal.
+   */
+  private static boolean structurallyEquals(Expression expr1, Expression expr2) {
+    if (expr1 == expr2) return true;
+    if (expr1.getClass() != expr2.getClass()) return false;
+    if (expr1 instanceof IntegerExpression intExpr1) {
+      return intExpr1.isEqual((IntegerExpression) expr2);
+    }
+    if (!(expr1 instanceof LeveledDefCallExpression defCall1)) {
+      return false;
+    }
+
+    LeveledDefCallExpression defCall2 = (LeveledDefCallExpression) expr2;
+    if (defCall1.getDefinition() != defCall2.getDefinition() || !defCall1.getLevels().equals(defCall2.getLevels())) {
+      return false;
+    }
+    return (!(defCall1 instanceof ConCallExpression conCall1) || listEquals(conCall1.getDataTypeArguments(), ((ConCallExpression) defCall2).getDataTypeArguments())) && listEquals(defCall1.getDefCallArguments(), defCall2.getDefCallArguments());
+  }
+
+  private static boolean listEquals(List<? extends Expression> list1, List<? extends Expression> list2) {
+    if (list1.size() != list2.size()) return false;
+    for (int i = 0; i < list1.size(); i++) {
+      if (!structurallyEquals(list1.get(i), list2.get(i))) return false;
+    }
+    return true;
+  }
+
+  /**
+   * A weak reference to an interned expression together with its structural hash.
+   * Each entry belongs to two chains: by the structural hash and by the identity hash of the expression.
+   */
+  private static class Entry extends WeakReference<Expression> {
+    private final int hash;
+    private final int identityHash;
+    private Entry next;
+    private Entry identityNext;
+
+    private Entry(Expression expr, int hash, ReferenceQueue<Expression> queue) {
+      super(expr, queue);
+      this.hash = hash;
+      this.identityHash = System.identityHashCode(expr);
+    }
+  }
+
+  /**
+   * A hash table with weak entries.
+   */
+  private static class Table {
+    private final ReferenceQueue<Expression> myQueue = new ReferenceQueue<>();
+    private Entry[] myBuckets = new Entry[1024];
+    private Entry[] myIdentityBuckets = new Entry[1024];
+    private int mySize;
+
+    /**
+     * @return the structural hash of an interned expression, or {@code NOT_INTERNABLE} if the expression is not interned.
+     */
+    private synchronized int getHash(Expression expr) {
+      for (Entry entry = myIdentityBuckets[System.identityHashCode(expr) & (myIdentityBuckets.length - 1)]; entry != null; entry = entry.identityNext) {
+        if (entry.get() == expr) {
+          return entry.hash;
+        }
+      }
+      return NOT_INTERNABLE;
+    }
+
+    private synchronized Expression intern(Expression expr) {
+      expungeStaleEntries();
+      int hash = hash(expr, false);
+      if (hash == NOT_INTERNABLE) {
+        return expr;
+      }
+
+      int index = hash & (myBuckets.length - 1);
+      for (Entry entry = myBuckets[index]; entry != null; entry = entry.next) {
+        if (entry.hash == hash) {
+          Expression interned = entry.get();
+          if (interned != null && structurallyEquals(interned, expr)) {
+            return interned;
+          }
+        }
+      }
+
+      Entry entry = new Entry(expr, hash, myQueue);
+      entry.next = myBuckets[index];
+      myBuckets[index] = entry;
+      int identityIndex = entry.identityHash & (myIdentityBuckets.length - 1);
+      entry.identityNext = myIdentityBuckets[identityIndex];
+      myIdentityBuckets[identityIndex] = entry;
+      if (++mySize > myBuckets.length * 3 / 4) {
+        resize();
+      }
+      return expr;
+    }
+
+    private void resize() {
+      Entry[] buckets = new Entry[myBuckets.length * 2];
+      Entry[] identityBuckets = new Entry[buckets.length];
+      for (Entry entry : myBuckets) {
+        while (entry != null) {
+          Entry next = entry.next;
+          int index = entry.hash & (buckets.length - 1);
+          entry.next = buckets[index];
+          buckets[index] = entry;
+          int identityIndex = entry.identityHash & (identityBuckets.length - 1);
+          entry.identityNext = identityBuckets[identityIndex];
+          identityBuckets[identityIndex] = entry;
+          entry = next;
+        }
+      }
+      myBuckets = buckets;
+      myIdentityBuckets = identityBuckets;
+    }
+
+    private void expungeStaleEntries() {
+      for (Object ref = myQueue.poll(); ref != null; ref = myQueue.poll()) {
+        Entry stale = (Entry) ref;
+        int index = stale.hash & (myBuckets.length - 1);
+        Entry prev = null;
+        for (Entry entry = myBuckets[index]; entry != null; prev = entry, entry = entry.next) {
+          if (entry == stale) {
+            if (prev == null) {
+              myBuckets[index] = entry.next;
+            } else {
+              prev.next = entry.next;
+            }
+            mySize--;
+            break;
+          }
+        }
+
+        int identityIndex = stale.identityHash & (myIdentityBuckets.length - 1);
+        prev = null;
+        for (Entry entry = myIdentityBuckets[identityIndex]; entry != null; prev = entry, entry = entry.identityNext) {
+          if (entry == stale) {
+            if (prev == null) {
+              myIdentityBuckets[identityIndex] = entry.identityNext;
+            } else {
+              prev.identityNext = entry.identityNext;
+            }
+            break;
+          }
+        }
+      }
+    }
+
+    private synchronized void clear() {
+      while (myQueue.poll() != null) {}
+      myBuckets = new Entry[1024];
+      myIdentityBuckets = new Entry[1024];
+      mySize = 0;
+    }
+  }
+}
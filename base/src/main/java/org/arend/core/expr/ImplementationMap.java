@@ -0,0 +1,211 @@
+package org.arend.core.expr;
+
+import org.arend.core.definition.ClassDefinition;
+import org.arend.core.definition.ClassField;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Implementations of fields in a class call.
+ * Values are stored in an array indexed by slots of fields in the class definition.
+ * The array is only as long as needed for the largest implemented slot.
+ * Entries are iterated in the order of insertion as in {@link LinkedHashMap}.
+ */
+public final class ImplementationMap extends AbstractMap<ClassField, Expression> {
+  private static final Expression[] EMPTY_VALUES = new Expression[0];
+
+  private final ClassDefinition myDefinition;
+  private Expression[] myValues = EMPTY_VALUES;
+  private int[] myOrder;
+  private int mySize;
+
+  public ImplementationMap(ClassDefinition definition) {
+    myDefinition = definition;
+  }
+
+  private int getSlot(Object key) {
+    if (!(key instanceof ClassField field)) {
+      return -1;
+    }
+    int slot = myDefinition.getFieldSlot(field);
+    return slot < myValues.length ? slot : -1;
+  }
+
+  private int indexOf(int slot) {
+    for (int i = 0; i < mySize; i++) {
+      if (myOrder[i] == slot) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int size() {
+    return mySize;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return mySize == 0;
+  }
+
+  @Override
+  public Expression get(Object key) {
+    int slot = getSlot(key);
+    return slot >= 0 ? myValues[slot] : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    int slot = getSlot(key);
+    return slot >= 0 && (myValues[slot] != null || indexOf(slot) >= 0);
+  }
+
+  @Override
+  public Expression put(ClassField key, Expression value) {
+    int slot = myDefinition.addFieldSlot(key);
+    if (slot >= myValues.length) {
+      // Class calls usually implement only the first fields of a class, so the array is not allocated for all of them
+      myValues = Arrays.copyOf(myValues, Math.max(slot + 1, Math.min(myValues.length * 2, myDefinition.getNumberOfFieldSlots())));
+    }
+
+    Expression old = myValues[slot];
+    if (old == null && indexOf(slot) < 0) {
+      if (myOrder == null) {
+        myOrder = new int[4];
+      } else if (mySize == myOrder.length) {
+        myOrder = Arrays.copyOf(myOrder, mySize * 2);
+      }
+      myOrder[mySize++] = slot;
+    }
+    myValues[slot] = value;
+    return old;
+  }
+
+  private void removeAt(int index) {
+    myValues[myOrder[index]] = null;
+    System.arraycopy(myOrder, index + 1, myOrder, index, mySize - index - 1);
+    mySize--;
+  }
+
+  @Override
+  public Expression remove(Object key) {
+    int slot = getSlot(key);
+    if (slot < 0) {
+      return null;
+    }
+    int index = indexOf(slot);
+    if (index < 0) {
+      return null;
+    }
+    Expression old = myValues[slot];
+    removeAt(index);
+    return old;
+  }
+
+  @Override
+  public void clear() {
+    for (int i = 0; i < mySize; i++) {
+      myValues[myOrder[i]] = null;
+    }
+    mySize = 0;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super ClassField, ? super Expression> action) {
+    for (int i = 0; i < mySize; i++) {
+      int slot = myOrder[i];
+      action.accept(myDefinition.getSlotField(slot), myValues[slot]);
+    }
+  }
+
+  private final class Entry implements Map.Entry<ClassField, Expression> {
+    private final int mySlot;
+
+    private Entry(int slot) {
+      mySlot = slot;
+    }
+
+    @Override
+    public ClassField getKey() {
+      return myDefinition.getSlotField(mySlot);
+    }
+
+    @Override
+    public Expression getValue() {
+      return myValues[mySlot];
+    }
+
+    @Override
+    public Expression setValue(Expression value) {
+      Expression old = myValues[mySlot];
+      myValues[mySlot] = value;
+      return old;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Map.Entry<?, ?> entry && getKey().equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return getKey().hashCode() ^ Objects.hashCode(getValue());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+
+  @NotNull
+  @Override
+  public Set<Map.Entry<ClassField, Expression>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public @NotNull Iterator<Map.Entry<ClassField, Expression>> iterator() {
+        return new Iterator<>() {
+          private int myIndex;
+          private boolean myCanRemove;
+
+          @Override
+          public boolean hasNext() {
+            return myIndex < mySize;
+          }
+
+          @Override
+          public Map.Entry<ClassField, Expression> next() {
+            if (myIndex >= mySize) {
+              throw new NoSuchElementException();
+            }
+            myCanRemove = true;
+            return new Entry(myOrder[myIndex++]);
+          }
+
+          @Override
+          public void remove() {
+            if (!myCanRemove) {
+              throw new IllegalStateException();
+            }
+            myCanRemove = false;
+            removeAt(--myIndex);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return mySize;
+      }
+
+      @Override
+      public void clear() {
+        ImplementationMap.this.clear();
+      }
+    };
+  }
+}
@@ -64,7 +64,7 @@ public class LetExpression extends Expression implements CoreLetExpression {
     NewExpression newExpr = expression.cast(NewExpression.class);
     if (newExpr != null && pattern.getFields() != null && pattern.getFields().size() == pattern.getPatterns().size()) {
       ClassCallExpression classCall = newExpr.getClassCall();
-      Map<ClassField, Expression> implementations = new LinkedHashMap<>();
+      Map<ClassField, Expression> implementations = new ImplementationMap(classCall.getDefinition());
       ClassCallExpression resultClassCall = new ClassCallExpression(classCall.getDefinition(), classCall.getLevels(), implementations, Sort.PROP, UniverseKind.NO_UNIVERSES);
 
       boolean someNotImplemented = false;
@@ -1228,7 +1228,7 @@ public class CompareVisitor implements ExpressionVisitor2<Expression, Expression
         lam = defCall1.getDefinition().getDefCall(defCall1.getLevels(), newDataArgs);
         codSort = defCall1 instanceof DataCallExpression ? ((DataCallExpression) defCall1).getDefinition().getSort() : ((UniverseExpression) ((FunCallExpression) defCall1).getDefinition().getResultType()).getSort();
       } else {
-        Map<ClassField, Expression> implementations = new LinkedHashMap<>();
+        Map<ClassField, Expression> implementations = new ImplementationMap(classCall1.getDefinition());
         codSort = classCall1.getSortOfType();
         ClassCallExpression classCall = new ClassCallExpression(classCall1.getDefinition(), classCall1.getLevels(), implementations, classCall1.getSort(), classCall1.getUniverseKind());
         int i = 0;
@@ -2033,14 +2033,18 @@ public class CompareVisitor implements ExpressionVisitor2<Expression, Expression
           myCMP = isGE ? CMP.GE : CMP.LE;
           TypecheckerState state = new TypecheckerState(null, 0, 0, null, null, null, true);
           myEquations.saveState(state);
-          ok = normalizedCompare(type1, type2, Type.OMEGA, false);
-          myCMP = origCMP;
-          if (ok) {
-            ok = compare(list1.get(i), list2.get(i), isGE ? type1 : type2, true);
-          }
-          if (!ok) {
-            state.numberOfLevelVariables = Integer.MAX_VALUE;
-            myEquations.loadState(state);
+          try {
+            ok = normalizedCompare(type1, type2, Type.OMEGA, false);
+            myCMP = origCMP;
+            if (ok) {
+              ok = compare(list1.get(i), list2.get(i), isGE ? type1 : type2, true);
+            }
+            if (!ok) {
+              state.numberOfLevelVariables = Integer.MAX_VALUE;
+              myEquations.loadState(state);
+            }
+          } finally {
+            myEquations.releaseState(state);
           }
         } else {
           ok = compare(list1.get(i), list2.get(i), substitution != null && link.hasNext() ? link.getTypeExpr().subst(substitution) : null, true);
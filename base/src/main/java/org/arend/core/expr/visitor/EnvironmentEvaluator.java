@@ -0,0 +1,411 @@
+package org.arend.core.expr.visitor;
+
+import org.arend.core.context.binding.Binding;
+import org.arend.core.context.binding.EvaluatingBinding;
+import org.arend.core.context.param.DependentLink;
+import org.arend.core.definition.Constructor;
+import org.arend.core.definition.FunctionDefinition;
+import org.arend.core.elimtree.*;
+import org.arend.core.expr.*;
+import org.arend.core.expr.let.HaveClause;
+import org.arend.core.pattern.Pattern;
+import org.arend.core.subst.ExprSubstitution;
+import org.arend.core.subst.Levels;
+import org.arend.ext.core.level.LevelSubstitution;
+import org.arend.ext.core.ops.NormalizationMode;
+import org.arend.prelude.Prelude;
+import org.arend.typechecking.computation.ComputationRunner;
+
+import java.util.*;
+
+/**
+ * An environment-based evaluator of function calls.
+ * Instead of substituting arguments into bodies of functions, it evaluates bodies in environments that map bindings to lazy values,
+ * so arguments are evaluated at most once and expressions are substituted only when the result is read back.
+ * It handles calls of functions defined by pattern matching, non-strict {@code \case} expressions, non-strict {@code \let} expressions,
+ * constructors and integer literals.
+ * Everything else is read back and normalized by {@link NormalizeVisitor}.
+ */
+public final class EnvironmentEvaluator {
+  private static volatile boolean ourEnabled;
+  private static final ThreadLocal<Boolean> ourFallback = ThreadLocal.withInitial(() -> false);
+
+  private EnvironmentEvaluator() {}
+
+  public static boolean isEnabled() {
+    return ourEnabled;
+  }
+
+  public static void setEnabled(boolean enabled) {
+    ourEnabled = enabled;
+  }
+
+  private static abstract class Value {
+    abstract Expression readBack();
+  }
+
+  private static class IntValue extends Value {
+    private final IntegerExpression myExpression;
+
+    private IntValue(IntegerExpression expression) {
+      myExpression = expression;
+    }
+
+    @Override
+    Expression readBack() {
+      return myExpression;
+    }
+  }
+
+  private static class ConValue extends Value {
+    private final Constructor myConstructor;
+    private final Levels myLevels;
+    private final List<Thunk> myDataTypeArguments;
+    private final List<Thunk> myArguments;
+
+    private ConValue(Constructor constructor, Levels levels, List<Thunk> dataTypeArguments, List<Thunk> arguments) {
+      myConstructor = constructor;
+      myLevels = levels;
+      myDataTypeArguments = dataTypeArguments;
+      myArguments = arguments;
+    }
+
+    @Override
+    Expression readBack() {
+      return ConCallExpression.make(myConstructor, myLevels, readBackAll(myDataTypeArguments), readBackAll(myArguments));
+    }
+  }
+
+  /**
+   * A value in weak head normal form that cannot be evaluated further by this evaluator.
+   */
+  private static class NeutralValue extends Value {
+    private final Expression myExpression;
+
+    private NeutralValue(Expression expression) {
+      myExpression = expression;
+    }
+
+    @Override
+    Expression readBack() {
+      return myExpression;
+    }
+  }
+
+  private static class Thunk {
+    private final Expression myExpression;
+    private final Environment myEnvironment;
+    private Value myValue;
+    private Expression myReadBack;
+
+    private Thunk(Expression expression, Environment environment) {
+      myExpression = expression;
+      myEnvironment = environment;
+    }
+
+    private Thunk(Value value) {
+      myExpression = null;
+      myEnvironment = null;
+      myValue = value;
+    }
+
+    Value force() {
+      if (myValue == null) {
+        myValue = eval(myExpression, myEnvironment);
+      }
+      return myValue;
+    }
+
+    Expression readBack() {
+      if (myReadBack == null) {
+        myReadBack = myValue != null ? myValue.readBack() : myEnvironment.readBack(myExpression);
+      }
+      return myReadBack;
+    }
+  }
+
+  private static class Environment {
+    private static final Environment EMPTY = new Environment(null, LevelSubstitution.EMPTY);
+
+    private final Environment myParent;
+    private final Map<Binding, Thunk> myBindings = new HashMap<>();
+    private final LevelSubstitution myLevelSubstitution;
+    private ExprSubstitution mySubstitution;
+
+    private Environment(Environment parent, LevelSubstitution levelSubstitution) {
+      myParent = parent;
+      myLevelSubstitution = levelSubstitution;
+    }
+
+    void bind(Binding binding, Thunk thunk) {
+      myBindings.put(binding, thunk);
+      mySubstitution = null;
+    }
+
+    Thunk get(Binding binding) {
+      for (Environment env = this; env != null; env = env.myParent) {
+        Thunk thunk = env.myBindings.get(binding);
+        if (thunk != null) {
+          return thunk;
+        }
+      }
+      return null;
+    }
+
+    ExprSubstitution getSubstitution() {
+      if (mySubstitution == null) {
+        ExprSubstitution substitution = myParent == null ? new ExprSubstitution() : new ExprSubstitution(myParent.getSubstitution());
+        for (Map.Entry<Binding, Thunk> entry : myBindings.entrySet()) {
+          substitution.add(entry.getKey(), entry.getValue().readBack());
+        }
+        mySubstitution = substitution;
+      }
+      return mySubstitution;
+    }
+
+    Expression readBack(Expression expr) {
+      ExprSubstitution substitution = getSubstitution();
+      return substitution.isEmpty() && myLevelSubstitution.isEmpty() ? expr : expr.subst(substitution, myLevelSubstitution);
+    }
+  }
+
+  /**
+   * Evaluates a function call.
+   *
+   * @return the normalized expression or null if the call cannot be evaluated by this evaluator.
+   */
+  public static Expression evaluate(FunCallExpression expr, NormalizationMode mode) {
+    if (!ourEnabled || mode != NormalizationMode.WHNF && mode != NormalizationMode.NF || ourFallback.get()) {
+      return null;
+    }
+
+    FunctionDefinition definition = expr.getDefinition();
+    if (!isEvaluable(definition)) {
+      return null;
+    }
+
+    Body body = definition.getBody();
+    Environment env = new Environment(null, expr.getLevelSubstitution());
+    List<Thunk> args = makeThunks(expr.getDefCallArguments(), Environment.EMPTY);
+    Expression bodyExpr;
+    if (body instanceof ElimBody) {
+      bodyExpr = match((ElimBody) body, args, env);
+      if (bodyExpr == null) {
+        return null;
+      }
+    } else {
+      bind(env, definition.getParameters(), args);
+      bodyExpr = (Expression) body;
+    }
+
+    Expression result = eval(bodyExpr, env).readBack();
+    return mode == NormalizationMode.NF ? result.accept(NormalizeVisitor.INSTANCE, mode) : result;
+  }
+
+  private static boolean isEvaluable(FunctionDefinition definition) {
+    Body body = definition.getBody();
+    return (body instanceof ElimBody || body instanceof Expression) && !definition.hasStrictParameters() && !NormalizeVisitor.isBlocked(definition) && definition != Prelude.ARRAY_INDEX;
+  }
+
+  private static List<Thunk> makeThunks(List<? extends Expression> exprs, Environment env) {
+    List<Thunk> result = new ArrayList<>(exprs.size());
+    for (Expression expr : exprs) {
+      result.add(new Thunk(expr, env));
+    }
+    return result;
+  }
+
+  private static List<Expression> readBackAll(List<Thunk> thunks) {
+    List<Expression> result = new ArrayList<>(thunks.size());
+    for (Thunk thunk : thunks) {
+      result.add(thunk.readBack());
+    }
+    return result;
+  }
+
+  private static void bind(Environment env, DependentLink link, List<Thunk> args) {
+    for (Thunk arg : args) {
+      env.bind(link, arg);
+      link = link.getNext();
+    }
+  }
+
+  private static boolean isArithmetic(FunctionDefinition definition) {
+    return definition == Prelude.PLUS || definition == Prelude.MUL || definition == Prelude.MINUS || definition == Prelude.DIV || definition == Prelude.MOD || definition == Prelude.DIV_MOD;
+  }
+
+  private static Value eval(Expression expr, Environment env) {
+    while (true) {
+      if (expr instanceof ReferenceExpression refExpr) {
+        Thunk thunk = env.get(refExpr.getBinding());
+        if (thunk != null) {
+          return thunk.force();
+        }
+        return refExpr.getBinding() instanceof EvaluatingBinding ? fallback(expr) : new NeutralValue(expr);
+      }
+
+      if (expr instanceof IntegerExpression) {
+        return new IntValue((IntegerExpression) expr);
+      }
+
+      if (expr instanceof ConCallExpression conCall) {
+        Constructor constructor = conCall.getDefinition();
+        if (constructor == Prelude.ZERO) {
+          return new IntValue(new SmallIntegerExpression(0));
+        }
+        if (constructor.getBody() != null || constructor == Prelude.FIN_ZERO || constructor == Prelude.FIN_SUC) {
+          return fallback(env.readBack(expr));
+        }
+        return new ConValue(constructor, conCall.getLevels().subst(env.myLevelSubstitution), makeThunks(conCall.getDataTypeArguments(), env), makeThunks(conCall.getDefCallArguments(), env));
+      }
+
+      if (expr instanceof FunCallExpression funCall) {
+        FunctionDefinition definition = funCall.getDefinition();
+        Body body = definition.getBody();
+        List<Thunk> args = makeThunks(funCall.getDefCallArguments(), env);
+        if (isArithmetic(definition)) {
+          // Arguments of arithmetic functions are evaluated here, so that recursive calls in them are evaluated in environments
+          for (Thunk arg : args) {
+            arg.force();
+          }
+          return fallback(FunCallExpression.make(definition, funCall.getLevels().subst(env.myLevelSubstitution), readBackAll(args)));
+        }
+        if (!isEvaluable(definition)) {
+          return fallback(env.readBack(expr));
+        }
+
+        ComputationRunner.checkCanceled();
+        Environment newEnv = new Environment(null, funCall.getLevelSubstitution().subst(env.myLevelSubstitution));
+        if (body instanceof ElimBody) {
+          Expression clauseExpr = match((ElimBody) body, args, newEnv);
+          if (clauseExpr == null) {
+            return fallback(FunCallExpression.make(definition, funCall.getLevels().subst(env.myLevelSubstitution), readBackAll(args)));
+          }
+          expr = clauseExpr;
+        } else {
+          bind(newEnv, definition.getParameters(), args);
+          expr = (Expression) body;
+        }
+        env = newEnv;
+        continue;
+      }
+
+      if (expr instanceof CaseExpression caseExpr && !caseExpr.isSCase()) {
+        ComputationRunner.checkCanceled();
+        Environment newEnv = new Environment(env, env.myLevelSubstitution);
+        Expression clauseExpr = match(caseExpr.getElimBody(), makeThunks(caseExpr.getArguments(), env), newEnv);
+        if (clauseExpr == null) {
+          return fallback(env.readBack(expr));
+        }
+        expr = clauseExpr;
+        env = newEnv;
+        continue;
+      }
+
+      if (expr instanceof LetExpression let && !let.isStrict() && !hasMatchingClauses(let)) {
+        // Each clause gets its own environment since its expression can refer only to previous clauses
+        for (HaveClause clause : let.getClauses()) {
+          Environment newEnv = new Environment(env, env.myLevelSubstitution);
+          newEnv.bind(clause, new Thunk(clause.getExpression(), env));
+          env = newEnv;
+        }
+        expr = let.getExpression();
+        continue;
+      }
+
+      return fallback(env.readBack(expr));
+    }
+  }
+
+  private static boolean hasMatchingClauses(LetExpression let) {
+    for (HaveClause clause : let.getClauses()) {
+      if (clause.getPattern().isMatching()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Value fallback(Expression expr) {
+    Expression result;
+    if (ourFallback.get()) {
+      result = expr.normalize(NormalizationMode.WHNF);
+    } else {
+      // The evaluator is not invoked recursively from the fallback; otherwise, stuck calls would be evaluated repeatedly
+      ourFallback.set(true);
+      try {
+        result = expr.normalize(NormalizationMode.WHNF);
+      } finally {
+        ourFallback.set(false);
+      }
+    }
+
+    if (result instanceof IntegerExpression) {
+      return new IntValue((IntegerExpression) result);
+    }
+    if (result instanceof ConCallExpression conCall && conCall.getDefinition().getBody() == null && conCall.getDefinition() != Prelude.FIN_ZERO && conCall.getDefinition() != Prelude.FIN_SUC) {
+      return conCall.getDefinition() == Prelude.ZERO ? new IntValue(new SmallIntegerExpression(0)) : new ConValue(conCall.getDefinition(), conCall.getLevels(), makeThunks(conCall.getDataTypeArguments(), Environment.EMPTY), makeThunks(conCall.getDefCallArguments(), Environment.EMPTY));
+    }
+    return new NeutralValue(result);
+  }
+
+  /**
+   * Matches arguments against an elimination tree.
+   * Parameters of the matched clause are bound in the given environment.
+   *
+   * @return the expression of the matched clause or null if arguments do not match any clause.
+   */
+  private static Expression match(ElimBody elimBody, List<Thunk> arguments, Environment env) {
+    Deque<Thunk> stack = new ArrayDeque<>(arguments);
+    List<Thunk> argList = new ArrayList<>();
+    ElimTree elimTree = elimBody.getElimTree();
+    while (true) {
+      for (int i = 0; i < elimTree.getSkip(); i++) {
+        argList.add(stack.pop());
+      }
+
+      if (elimTree instanceof LeafElimTree leafElimTree) {
+        ElimClause<Pattern> clause = elimBody.getClauses().get(leafElimTree.getClauseIndex());
+        if (clause.getExpression() == null) {
+          return null;
+        }
+        int i = 0;
+        for (DependentLink link = clause.getParameters(); link.hasNext(); link = link.getNext(), i++) {
+          env.bind(link, argList.get(leafElimTree.getArgumentIndex(i)));
+        }
+        return clause.getExpression();
+      }
+
+      BranchElimTree branchElimTree = (BranchElimTree) elimTree;
+      Thunk argument = stack.pop();
+      Value value = argument.force();
+      BranchKey key;
+      List<Thunk> conArgs;
+      if (value instanceof ConValue conValue) {
+        key = conValue.myConstructor;
+        conArgs = conValue.myArguments;
+      } else if (value instanceof IntValue intValue) {
+        if (intValue.myExpression.isZero()) {
+          key = Prelude.ZERO;
+          conArgs = Collections.emptyList();
+        } else {
+          key = Prelude.SUC;
+          conArgs = Collections.singletonList(new Thunk(new IntValue(intValue.myExpression.pred())));
+        }
+      } else {
+        return null;
+      }
+
+      elimTree = branchElimTree.getChild(key);
+      if (elimTree == null) {
+        return null;
+      }
+      if (branchElimTree.keepConCall()) {
+        argList.add(argument);
+      }
+      for (int i = conArgs.size() - 1; i >= 0; i--) {
+        stack.push(conArgs.get(i));
+      }
+    }
+  }
+}
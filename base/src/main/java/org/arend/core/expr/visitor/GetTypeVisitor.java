@@ -232,7 +232,7 @@ public class GetTypeVisitor implements ExpressionVisitor<Void, Expression> {
 
     Levels argLevels = classCall.getLevels(superClass);
     if (argLevels != classCall.getLevels() && classCall.getUniverseKind() == UniverseKind.NO_UNIVERSES) {
-      Map<ClassField, Expression> impls = new LinkedHashMap<>();
+      Map<ClassField, Expression> impls = new ImplementationMap(superClass);
       ClassCallExpression newClassCall = new ClassCallExpression(superClass, argLevels, impls, classCall.getSort(), UniverseKind.NO_UNIVERSES);
       for (Map.Entry<ClassField, AbsExpression> entry : classCall.getDefinition().getImplemented()) {
         if (entry.getKey().getUniverseKind() != UniverseKind.NO_UNIVERSES && superClass.isSubClassOf(entry.getKey().getParentClass())) {
@@ -0,0 +1,192 @@
+package org.arend.core.expr.visitor;
+
+import org.arend.core.context.binding.inference.InferenceLevelVariable;
+import org.arend.core.definition.Definition;
+import org.arend.core.expr.*;
+import org.arend.core.sort.Level;
+import org.arend.core.subst.Levels;
+import org.arend.ext.core.ops.NormalizationMode;
+import org.arend.typechecking.computation.ComputationRunner;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of normal forms of closed function calls.
+ * Only calls whose arguments consist of definition calls and integer literals are cached,
+ * and only if all definitions they refer to are typechecked.
+ * Keys are snapshots of expressions, so later in-place modifications of levels do not affect them.
+ * Since core expressions are modified in place after typechecking (e.g., by {@link org.arend.typechecking.visitor.FixLevelParameters}),
+ * the cache keeps its own copy of each result and returns a fresh copy on each hit.
+ * Least recently used entries are evicted.
+ * Each computation has its own cache, see {@link ComputationRunner#getNormalizationCache()}.
+ */
+public class NormalizationCache {
+  private static final int MAX_KEY_SIZE = 64;
+  private static volatile int ourDefaultCapacity = 4096;
+  private static final AtomicLong ourHits = new AtomicLong();
+  private static final AtomicLong ourMisses = new AtomicLong();
+
+  private final Map<Key, Expression> myCache = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, Expression> eldest) {
+      return size() > myCapacity;
+    }
+  };
+  private int myCapacity = ourDefaultCapacity;
+
+  private static final class Key {
+    private final Object head;
+    private final Levels levels;
+    private final List<Key> arguments;
+    private final NormalizationMode mode;
+    private final int hash;
+
+    private Key(Object head, Levels levels, List<Key> arguments, NormalizationMode mode, int hash) {
+      this.head = head;
+      this.levels = levels;
+      this.arguments = arguments;
+      this.mode = mode;
+      this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key key)) return false;
+      return hash == key.hash && mode == key.mode && (head == key.head || head instanceof BigInteger && head.equals(key.head)) && (levels == key.levels || levels != null && levels.equals(key.levels)) && arguments.equals(key.arguments);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class KeyBuilder {
+    private int size;
+
+    private Key build(Expression expr, NormalizationMode mode) {
+      if (++size > MAX_KEY_SIZE) return null;
+      if (expr instanceof IntegerExpression intExpr) {
+        BigInteger value = intExpr.getBigInteger();
+        return new Key(value, null, List.of(), mode, value.hashCode());
+      }
+      if (!(expr instanceof LeveledDefCallExpression defCall)) return null;
+
+      Definition definition = defCall.getDefinition();
+      if (definition.status().needsTypeChecking()) return null;
+      int hash = 31 * System.identityHashCode(definition) + (mode == null ? 0 : mode.ordinal() + 1);
+
+      Levels levels = defCall.getLevels();
+      for (Level level : levels.toList()) {
+        if (level.getVar() instanceof InferenceLevelVariable) return null;
+        hash = 31 * hash + (level.isInfinity() ? -1 : level.getVar() == null ? 0 : level.getVar().getType().ordinal() + 1);
+        hash = 31 * hash + level.getConstant();
+        hash = 31 * hash + level.getMaxConstant();
+      }
+
+      List<Key> arguments = new ArrayList<>();
+      if (defCall instanceof ConCallExpression conCall) {
+        for (Expression arg : conCall.getDataTypeArguments()) {
+          Key key = build(arg, null);
+          if (key == null) return null;
+          arguments.add(key);
+          hash = 31 * hash + key.hash;
+        }
+      }
+      for (Expression arg : defCall.getDefCallArguments()) {
+        Key key = arg == null ? null : build(arg, null);
+        if (key == null) return null;
+        arguments.add(key);
+        hash = 31 * hash + key.hash;
+      }
+      return new Key(definition, levels, arguments, mode, hash);
+    }
+  }
+
+  private static Key makeKey(FunCallExpression expr, NormalizationMode mode) {
+    return mode == NormalizationMode.WHNF || mode == NormalizationMode.NF ? new KeyBuilder().build(expr, mode) : null;
+  }
+
+  /**
+   * Normalizes a function call using the cache of the current computation if there is one and the call can be cached.
+   */
+  static Expression normalize(FunCallExpression expr, NormalizationMode mode, Function<FunCallExpression, Expression> normalizer) {
+    NormalizationCache cache = ComputationRunner.getNormalizationCache();
+    return cache == null ? normalizer.apply(expr) : cache.normalizeCached(expr, mode, normalizer);
+  }
+
+  private Expression normalizeCached(FunCallExpression expr, NormalizationMode mode, Function<FunCallExpression, Expression> normalizer) {
+    Key key = makeKey(expr, mode);
+    if (key == null) {
+      return normalizer.apply(expr);
+    }
+
+    Expression cached;
+    synchronized (this) {
+      cached = myCache.get(key);
+    }
+    if (cached != null) {
+      ourHits.incrementAndGet();
+      return cached.copyStrict();
+    }
+    ourMisses.incrementAndGet();
+
+    Expression result = normalizer.apply(expr);
+    if (result != null) {
+      Expression copy = result.copyStrict();
+      synchronized (this) {
+        myCache.put(key, copy);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Sets the capacity of caches created after this call.
+   */
+  public static void setDefaultCapacity(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException();
+    }
+    ourDefaultCapacity = capacity;
+  }
+
+  public synchronized void setCapacity(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException();
+    }
+    myCapacity = capacity;
+    while (myCache.size() > capacity) {
+      myCache.remove(myCache.keySet().iterator().next());
+    }
+  }
+
+  public synchronized int size() {
+    return myCache.size();
+  }
+
+  /**
+   * @return the number of hits of all caches.
+   */
+  public static long getTotalHits() {
+    return ourHits.get();
+  }
+
+  /**
+   * @return the number of misses of all caches.
+   */
+  public static long getTotalMisses() {
+    return ourMisses.get();
+  }
+
+  public synchronized void clear() {
+    myCache.clear();
+  }
+}
@@ -498,7 +498,7 @@ public class NormalizeVisitor extends ExpressionTransformer<NormalizationMode>
     }
   }
 
-  private static boolean isBlocked(FunctionDefinition def) {
+  static boolean isBlocked(FunctionDefinition def) {
     return def.isSFunc() || def == Prelude.PLUS || def == Prelude.MUL || def == Prelude.MINUS || def == Prelude.DIV || def == Prelude.MOD || def == Prelude.DIV_MOD || def == Prelude.COERCE || def == Prelude.COERCE2;
   }
 
@@ -786,6 +786,11 @@ public class NormalizeVisitor extends ExpressionTransformer<NormalizationMode>
   public Expression visitDefCall(DefCallExpression expr, NormalizationMode mode) {
     if (expr.getDefinition() instanceof FunctionDefinition && ((FunctionDefinition) expr.getDefinition()).isSFunc() || !(expr.getDefinition() instanceof Function) || ((Function) expr.getDefinition()).getBody() == null && expr.getDefinition() != Prelude.DIV_MOD && expr.getDefinition() != Prelude.ARRAY_INDEX) {
       return applyDefCall(expr, mode);
+    } else if (expr instanceof FunCallExpression funCall) {
+      return NormalizationCache.normalize(funCall, mode, call -> {
+        Expression result = EnvironmentEvaluator.evaluate(call, mode);
+        return result != null ? result : visitFunctionDefCall(call, mode);
+      });
     } else {
       assert expr instanceof LeveledDefCallExpression;
       return visitFunctionDefCall((LeveledDefCallExpression) expr, mode);
@@ -869,7 +874,7 @@ public class NormalizeVisitor extends ExpressionTransformer<NormalizationMode>
   public ClassCallExpression visitClassCall(ClassCallExpression expr, NormalizationMode mode) {
     if (mode == NormalizationMode.WHNF) return expr;
 
-    Map<ClassField, Expression> fieldSet = new LinkedHashMap<>();
+    Map<ClassField, Expression> fieldSet = new ImplementationMap(expr.getDefinition());
     ClassCallExpression result = new ClassCallExpression(expr.getDefinition(), expr.getLevels(), fieldSet, expr.getSort(), expr.getUniverseKind());
     for (Map.Entry<ClassField, Expression> entry : expr.getImplementedHere().entrySet()) {
       fieldSet.put(entry.getKey(), entry.getValue().accept(this, mode).subst(expr.getThisBinding(), new ReferenceExpression(result.getThisBinding())));
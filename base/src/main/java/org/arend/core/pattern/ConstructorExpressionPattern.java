@@ -227,7 +227,7 @@ public class ConstructorExpressionPattern extends ConstructorPattern<Object> imp
     }
 
     ClassCallExpression classCall = (ClassCallExpression) dataExpr;
-    Map<ClassField, Expression> implementations = new LinkedHashMap<>();
+    Map<ClassField, Expression> implementations = new ImplementationMap(classCall.getDefinition());
     ClassCallExpression resultClassCall = new ClassCallExpression(classCall.getDefinition(), classCall.getLevels(), implementations, Sort.PROP, UniverseKind.NO_UNIVERSES);
     resultClassCall.copyImplementationsFrom(classCall);
     int i = 0;
@@ -146,11 +146,11 @@ public class DefinitionDeserialization implements ArendDeserializer {
     for (int classFieldRef : classProto.getFieldRefList()) {
       classDef.addField(myCallTargetProvider.getCallTarget(classFieldRef, ClassField.class));
     }
-    for (Map.Entry<Integer, ExpressionProtos.Expression.Abs> entry : classProto.getImplementationsMap().entrySet()) {
-      classDef.implementField(myCallTargetProvider.getCallTarget(entry.getKey(), ClassField.class), defDeserializer.readAbsExpr(entry.getValue()));
+    for (DefinitionProtos.Definition.ClassData.Implementation implProto : classProto.getImplementationList()) {
+      classDef.implementField(myCallTargetProvider.getCallTarget(implProto.getField(), ClassField.class), defDeserializer.readAbsExpr(implProto.getExpr()));
     }
-    for (Map.Entry<Integer, DefinitionProtos.Definition.DefaultData> entry : classProto.getDefaultsMap().entrySet()) {
-      classDef.addDefault(myCallTargetProvider.getCallTarget(entry.getKey(), ClassField.class), defDeserializer.readAbsExpr(entry.getValue().getExpr()), entry.getValue().getIsFunc());
+    for (DefinitionProtos.Definition.DefaultData defaultProto : classProto.getDefaultDataList()) {
+      classDef.addDefault(myCallTargetProvider.getCallTarget(defaultProto.getField(), ClassField.class), defDeserializer.readAbsExpr(defaultProto.getExpr()), defaultProto.getIsFunc());
     }
     for (Map.Entry<Integer, DefinitionProtos.Definition.RefList> entry : classProto.getDefaultDependenciesMap().entrySet()) {
       classDef.addDefaultDependencies(myCallTargetProvider.getCallTarget(entry.getKey(), ClassField.class), readDefinitions(entry.getValue().getRefList(), ClassField.class));
@@ -158,8 +158,8 @@ public class DefinitionDeserialization implements ArendDeserializer {
     for (Map.Entry<Integer, DefinitionProtos.Definition.RefList> entry : classProto.getDefaultImplDependenciesMap().entrySet()) {
       classDef.addDefaultImplDependencies(myCallTargetProvider.getCallTarget(entry.getKey(), ClassField.class), readDefinitions(entry.getValue().getRefList(), ClassField.class));
     }
-    for (var entry : classProto.getOverriddenFieldMap().entrySet()) {
-      classDef.overrideField(myCallTargetProvider.getCallTarget(entry.getKey(), ClassField.class), checkFieldType(defDeserializer.readPi(entry.getValue().getType()), classDef), myCallTargetProvider.getCallTarget(entry.getValue().getOriginalClass(), ClassDefinition.class));
+    for (DefinitionProtos.Definition.OverriddenData overriddenProto : classProto.getOverriddenFieldList()) {
+      classDef.overrideField(myCallTargetProvider.getCallTarget(overriddenProto.getField(), ClassField.class), checkFieldType(defDeserializer.readPi(overriddenProto.getType()), classDef), myCallTargetProvider.getCallTarget(overriddenProto.getOriginalClass(), ClassDefinition.class));
     }
     for (Integer fieldRef : classProto.getCovariantFieldList()) {
       classDef.addCovariantField(myCallTargetProvider.getCallTarget(fieldRef, ClassField.class));
@@ -378,7 +378,7 @@ public class DefinitionDeserialization implements ArendDeserializer {
     }
   }
 
-  private Body readBody(ExpressionDeserialization defDeserializer, DefinitionProtos.Body proto, int numberOfParameters) throws DeserializationException {
+  static Body readBody(ExpressionDeserialization defDeserializer, DefinitionProtos.Body proto, int numberOfParameters) throws DeserializationException {
     switch (proto.getKindCase()) {
       case ELIM_BODY -> {
         return defDeserializer.readElimBody(proto.getElimBody());
@@ -16,6 +16,7 @@ import org.arend.core.pattern.EmptyPattern;
 import org.arend.core.pattern.ExpressionPattern;
 import org.arend.core.subst.Levels;
 import org.arend.ext.core.definition.CoreDefinition;
+import org.arend.ext.core.definition.CoreFunctionDefinition;
 import org.arend.ext.reference.Precedence;
 import org.arend.ext.serialization.ArendSerializer;
 import org.arend.ext.userData.Key;
@@ -32,10 +33,19 @@ import java.util.*;
 public class DefinitionSerialization implements ArendSerializer {
   private final CallTargetIndexProvider myCallTargetIndexProvider;
   private final DependencyListener myDependencyListener;
+  private final boolean myInterfaceOnly;
 
-  public DefinitionSerialization(CallTargetIndexProvider callTargetIndexProvider, DependencyListener dependencyListener) {
+  /**
+   * @param interfaceOnly if true, bodies of lemmas and really hidden bodies are omitted since other definitions cannot depend on them.
+   */
+  public DefinitionSerialization(CallTargetIndexProvider callTargetIndexProvider, DependencyListener dependencyListener, boolean interfaceOnly) {
     myCallTargetIndexProvider = callTargetIndexProvider;
     myDependencyListener = dependencyListener;
+    myInterfaceOnly = interfaceOnly;
+  }
+
+  public DefinitionSerialization(CallTargetIndexProvider callTargetIndexProvider, DependencyListener dependencyListener) {
+    this(callTargetIndexProvider, dependencyListener, false);
   }
 
   DefinitionProtos.Definition writeDefinition(Definition definition) {
@@ -64,6 +74,7 @@ public class DefinitionSerialization implements ArendSerializer {
       out.addAxiom(myCallTargetIndexProvider.getDefIndex(axiom));
     }
 
+    // Binaries are written with a new DependencyCollector, so they do not depend on the dependencies recorded by the server
     for (TCDefReferable dependency : myDependencyListener.getDependencies(definition.getRef())) {
       if (dependency instanceof MetaReferable) {
         out.addMetaRef(myCallTargetIndexProvider.getDefIndex(dependency));
@@ -153,10 +164,13 @@ public class DefinitionSerialization implements ArendSerializer {
       builder.addFieldRef(myCallTargetIndexProvider.getDefIndex(classField));
     }
     for (Map.Entry<ClassField, AbsExpression> impl : definition.getImplemented()) {
-      builder.putImplementations(myCallTargetIndexProvider.getDefIndex(impl.getKey()), defSerializer.writeAbsExpr(impl.getValue()));
+      builder.addImplementation(DefinitionProtos.Definition.ClassData.Implementation.newBuilder()
+        .setField(myCallTargetIndexProvider.getDefIndex(impl.getKey()))
+        .setExpr(defSerializer.writeAbsExpr(impl.getValue())));
     }
     for (Map.Entry<ClassField, Pair<AbsExpression,Boolean>> defaultImpl : definition.getDefaults()) {
-      builder.putDefaults(myCallTargetIndexProvider.getDefIndex(defaultImpl.getKey()), DefinitionProtos.Definition.DefaultData.newBuilder()
+      builder.addDefaultData(DefinitionProtos.Definition.DefaultData.newBuilder()
+          .setField(myCallTargetIndexProvider.getDefIndex(defaultImpl.getKey()))
           .setExpr(defSerializer.writeAbsExpr(defaultImpl.getValue().proj1))
           .setIsFunc(defaultImpl.getValue().proj2).build());
     }
@@ -167,7 +181,8 @@ public class DefinitionSerialization implements ArendSerializer {
       builder.putDefaultImplDependencies(myCallTargetIndexProvider.getDefIndex(entry.getKey()), writeRefList(entry.getValue()));
     }
     for (var entry : definition.getOverriddenFields()) {
-      builder.putOverriddenField(myCallTargetIndexProvider.getDefIndex(entry.getKey()), DefinitionProtos.Definition.OverriddenData.newBuilder()
+      builder.addOverriddenField(DefinitionProtos.Definition.OverriddenData.newBuilder()
+        .setField(myCallTargetIndexProvider.getDefIndex(entry.getKey()))
         .setType(defSerializer.visitPi(entry.getValue().proj1))
         .setOriginalClass(myCallTargetIndexProvider.getDefIndex(entry.getValue().proj2))
         .build());
@@ -408,8 +423,12 @@ public class DefinitionSerialization implements ArendSerializer {
     builder.setKind(kind);
     builder.setVisibleParameter(definition.getVisibleParameter());
     builder.setImplementedField(definition.getImplementedField() == null ? -1 : myCallTargetIndexProvider.getDefIndex(definition.getImplementedField()));
-    if (definition.getReallyActualBody() != null) {
-      builder.setBody(writeBody(defSerializer, definition.getReallyActualBody()));
+    Body body = definition.getReallyActualBody();
+    if (myInterfaceOnly) {
+      body = definition.getKind() == CoreFunctionDefinition.Kind.LEMMA ? null : definition.getActualBody();
+    }
+    if (body != null) {
+      builder.setBody(writeBody(defSerializer, body));
     }
 
     return builder.build();
@@ -453,7 +472,7 @@ public class DefinitionSerialization implements ArendSerializer {
     return builder.build();
   }
 
-  private DefinitionProtos.Body writeBody(ExpressionSerialization defSerializer, @NotNull Body body) {
+  static DefinitionProtos.Body writeBody(ExpressionSerialization defSerializer, @NotNull Body body) {
     DefinitionProtos.Body.Builder bodyBuilder = DefinitionProtos.Body.newBuilder();
     if (body instanceof IntervalElim intervalElim) {
       DefinitionProtos.Body.IntervalElim.Builder intervalBuilder = DefinitionProtos.Body.IntervalElim.newBuilder();
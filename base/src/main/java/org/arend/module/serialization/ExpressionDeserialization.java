@@ -32,6 +32,7 @@ import java.util.*;
 class ExpressionDeserialization {
   private final CallTargetProvider myCallTargetProvider;
   private final List<Binding> myBindings = new ArrayList<>();
+  private final List<Expression> mySharedExpressions = new ArrayList<>();
 
   private final DependencyListener myDependencyListener;
   private final Definition myDefinition;
@@ -48,6 +49,15 @@ class ExpressionDeserialization {
     myBindings.add(binding);
   }
 
+  /**
+   * Registers bindings that are bound outside of deserialized expressions.
+   */
+  void registerBindings(DependentLink link) {
+    for (; link.hasNext(); link = link.getNext()) {
+      registerBinding(link);
+    }
+  }
+
   private Type readType(ExpressionProtos.Type proto) throws DeserializationException {
     Expression expr = readExpr(proto.getExpr());
     return expr instanceof Type ? (Type) expr : new TypeExpression(expr, readSort(proto.getSort()));
@@ -302,7 +312,15 @@ class ExpressionDeserialization {
   }
 
   Expression readExpr(ExpressionProtos.Expression proto) throws DeserializationException {
-    return switch (proto.getKindCase()) {
+    if (proto.getKindCase() == ExpressionProtos.Expression.KindCase.SHARED) {
+      int index = proto.getShared().getIndex();
+      if (index < 0 || index >= mySharedExpressions.size()) {
+        throw new DeserializationException("Trying to read a reference to an unknown expression");
+      }
+      return mySharedExpressions.get(index);
+    }
+
+    Expression result = switch (proto.getKindCase()) {
       case APP -> readApp(proto.getApp());
       case FUN_CALL -> readFunCall(proto.getFunCall());
       case CON_CALLS -> readConCalls(proto.getConCalls());
@@ -333,6 +351,8 @@ class ExpressionDeserialization {
       case AT -> readAt(proto.getAt());
       default -> throw new DeserializationException("Unknown Expression kind: " + proto.getKindCase());
     };
+    mySharedExpressions.add(result);
+    return result;
   }
 
   private List<Expression> readExprList(List<ExpressionProtos.Expression> protos) throws DeserializationException {
@@ -351,7 +371,7 @@ class ExpressionDeserialization {
   private Expression readFunCall(ExpressionProtos.Expression.FunCall proto) throws DeserializationException {
     FunctionDefinition functionDefinition = myCallTargetProvider.getCallTarget(proto.getFunRef(), FunctionDefinition.class);
     myDependencyListener.dependsOn(myDefinition.getRef(), functionDefinition.getReferable());
-    return FunCallExpression.make(functionDefinition, readLevels(proto.getLevels()), readExprList(proto.getArgumentList()));
+    return ExpressionInterner.intern(FunCallExpression.make(functionDefinition, readLevels(proto.getLevels()), readExprList(proto.getArgumentList())));
   }
 
   private Expression readConCalls(ExpressionProtos.Expression.ConCalls protos) throws DeserializationException {
@@ -369,7 +389,7 @@ class ExpressionDeserialization {
       expr = arg;
     }
 
-    return result;
+    return ExpressionInterner.intern(result);
   }
 
   private ConCallExpression readConCall(ExpressionProtos.Expression.ConCall proto, boolean last) throws DeserializationException {
@@ -405,14 +425,14 @@ class ExpressionDeserialization {
   private DataCallExpression readDataCall(ExpressionProtos.Expression.DataCall proto) throws DeserializationException {
     DataDefinition dataDefinition = myCallTargetProvider.getCallTarget(proto.getDataRef(), DataDefinition.class);
     myDependencyListener.dependsOn(myDefinition.getRef(), dataDefinition.getReferable());
-    return DataCallExpression.make(dataDefinition, readLevels(proto.getLevels()), readExprList(proto.getArgumentList()));
+    return ExpressionInterner.intern(DataCallExpression.make(dataDefinition, readLevels(proto.getLevels()), readExprList(proto.getArgumentList())));
   }
 
   private ClassCallExpression readClassCall(ExpressionProtos.Expression.ClassCall proto) throws DeserializationException {
     ClassDefinition classDefinition = myCallTargetProvider.getCallTarget(proto.getClassRef(), ClassDefinition.class);
     myDependencyListener.dependsOn(myDefinition.getRef(), classDefinition.getReferable());
 
-    Map<ClassField, Expression> fieldSet = new LinkedHashMap<>();
+    Map<ClassField, Expression> fieldSet = new ImplementationMap(classDefinition);
     LevelProtos.Sort sort = proto.getSort();
     ClassCallExpression classCall = new ClassCallExpression(classDefinition, readLevels(proto.getLevels()), fieldSet, new Sort(readLevel(sort.getPLevel(), LevelVariable.PVAR, classDefinition), readLevel(sort.getHLevel(), LevelVariable.HVAR, classDefinition)), readUniverseKind(proto.getUniverseKind()));
     registerBinding(classCall.getThisBinding());
@@ -566,11 +586,11 @@ class ExpressionDeserialization {
   }
 
   private SmallIntegerExpression readSmallInteger(ExpressionProtos.Expression.SmallInteger proto) {
-    return new SmallIntegerExpression(proto.getValue());
+    return ExpressionInterner.intern(new SmallIntegerExpression(proto.getValue()));
   }
 
   private BigIntegerExpression readBigInteger(ExpressionProtos.Expression.BigInteger proto) {
-    return new BigIntegerExpression(new BigInteger(proto.getValue().toByteArray()));
+    return ExpressionInterner.intern(new BigIntegerExpression(new BigInteger(proto.getValue().toByteArray())));
   }
 
   private StringExpression readString(ExpressionProtos.Expression.String proto) {
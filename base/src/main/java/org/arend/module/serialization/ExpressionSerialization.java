@@ -29,6 +29,7 @@ import org.arend.prelude.Prelude;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +37,8 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
   private final CallTargetIndexProvider myCallTargetIndexProvider;
   private final Map<Binding, Integer> myBindingsMap = new HashMap<>();
   private int myIndex;
+  private final Map<Expression, Integer> mySharedExpressions = new IdentityHashMap<>();
+  private int mySharedIndex;
 
   ExpressionSerialization(CallTargetIndexProvider callTargetIndexProvider) {
     myCallTargetIndexProvider = callTargetIndexProvider;
@@ -46,10 +49,22 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
   @SuppressWarnings("UnusedReturnValue")
   private int registerBinding(Binding binding) {
     int index = myIndex++;
-    myBindingsMap.put(binding, index);
+    if (myBindingsMap.put(binding, index) != null) {
+      // Expressions written before refer to the previous index of this binding, so they cannot be shared anymore
+      mySharedExpressions.clear();
+    }
     return index;
   }
 
+  /**
+   * Registers bindings that are bound outside of serialized expressions.
+   */
+  void registerBindings(DependentLink link) {
+    for (; link.hasNext(); link = link.getNext()) {
+      registerBinding(link);
+    }
+  }
+
   private ExpressionProtos.Type writeType(Type type) {
     ExpressionProtos.Type.Builder builder = ExpressionProtos.Type.newBuilder();
     builder.setExpr(writeExpr(type.getExpr()));
@@ -188,8 +203,18 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
     return builder.build();
   }
 
+  /**
+   * Writes an expression or a reference to it if the same object was already written.
+   * Every expression which is written in full gets the next index, so the reader can restore sharing by collecting them in the same order.
+   */
   ExpressionProtos.Expression writeExpr(Expression expr) {
-    return expr.accept(this, null);
+    Integer index = mySharedExpressions.get(expr);
+    if (index != null) {
+      return ExpressionProtos.Expression.newBuilder().setShared(ExpressionProtos.Expression.Shared.newBuilder().setIndex(index)).build();
+    }
+    ExpressionProtos.Expression result = expr.accept(this, null);
+    mySharedExpressions.put(expr, mySharedIndex++);
+    return result;
   }
 
   ExpressionProtos.Pattern writePattern(Pattern pattern) {
@@ -217,14 +242,14 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
         arrayDataBuilder.setLevels(writeLevels(funCall.getLevels(), funCall.getDefinition()));
         if (funCall.getDefinition() == Prelude.ARRAY_CONS) {
           if (!funCall.getDefCallArguments().isEmpty() && funCall.getDefCallArguments().get(0) != null) {
-            arrayDataBuilder.setLength(funCall.getDefCallArguments().getFirst().accept(this, null));
+            arrayDataBuilder.setLength(writeExpr(funCall.getDefCallArguments().getFirst()));
           }
           if (funCall.getDefCallArguments().size() >= 2 && funCall.getDefCallArguments().get(1) != null) {
-            arrayDataBuilder.setElementsType(funCall.getDefCallArguments().get(1).accept(this, null));
+            arrayDataBuilder.setElementsType(writeExpr(funCall.getDefCallArguments().get(1)));
           }
         } else {
           if (!funCall.getDefCallArguments().isEmpty() && funCall.getDefCallArguments().getFirst() != null) {
-            arrayDataBuilder.setElementsType(funCall.getDefCallArguments().getFirst().accept(this, null));
+            arrayDataBuilder.setElementsType(writeExpr(funCall.getDefCallArguments().getFirst()));
           }
         }
         pBuilder.setArrayData(arrayDataBuilder.build());
@@ -347,8 +372,8 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
   @Override
   public ExpressionProtos.Expression visitApp(AppExpression expr, Void params) {
     ExpressionProtos.Expression.App.Builder builder = ExpressionProtos.Expression.App.newBuilder();
-    builder.setFunction(expr.getFunction().accept(this, null));
-    builder.setArgument(expr.getArgument().accept(this, null));
+    builder.setFunction(writeExpr(expr.getFunction()));
+    builder.setArgument(writeExpr(expr.getArgument()));
     builder.setIsExplicit(expr.isExplicit());
     return ExpressionProtos.Expression.newBuilder().setApp(builder).build();
   }
@@ -358,7 +383,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
     builder.setFunRef(myCallTargetIndexProvider.getDefIndex(expr.getDefinition()));
     builder.setLevels(writeLevels(expr.getLevels(), expr.getDefinition()));
     for (Expression arg : expr.getDefCallArguments()) {
-      builder.addArgument(arg.accept(this, null));
+      builder.addArgument(writeExpr(arg));
     }
     return builder.build();
   }
@@ -378,7 +403,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
       builder.setRecursiveParam(expr.getDefinition().getRecursiveParameter());
       builder.setLevels(writeLevels(expr.getLevels(), expr.getDefinition()));
       for (Expression arg : expr.getDataTypeArguments()) {
-        builder.addDatatypeArgument(arg.accept(this, null));
+        builder.addDatatypeArgument(writeExpr(arg));
       }
 
       int recursiveParam = expr.getDefinition().getRecursiveParameter();
@@ -393,7 +418,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
           }
         }
         if (i != recursiveParam) {
-          builder.addArgument(arg.accept(this, null));
+          builder.addArgument(writeExpr(arg));
         }
       }
 
@@ -412,7 +437,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
     builder.setDataRef(myCallTargetIndexProvider.getDefIndex(expr.getDefinition()));
     builder.setLevels(writeLevels(expr.getLevels(), expr.getDefinition()));
     for (Expression arg : expr.getDefCallArguments()) {
-      builder.addArgument(arg.accept(this, null));
+      builder.addArgument(writeExpr(arg));
     }
     return ExpressionProtos.Expression.newBuilder().setDataCall(builder).build();
   }
@@ -453,7 +478,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
       registerBinding(expr.getBinding());
       ExpressionProtos.Expression.EvaluatingReference.Builder builder = ExpressionProtos.Expression.EvaluatingReference.newBuilder();
       builder.setName(expr.getBinding().getName());
-      builder.setExpression(((PersistentEvaluatingBinding) expr.getBinding()).getExpression().accept(this, null));
+      builder.setExpression(writeExpr(((PersistentEvaluatingBinding) expr.getBinding()).getExpression()));
       return ExpressionProtos.Expression.newBuilder().setEvaluatingReference(builder).build();
     }
 
@@ -477,7 +502,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
     ExpressionProtos.Expression.Lam.Builder builder = ExpressionProtos.Expression.Lam.newBuilder();
     builder.setResultSort(writeSort(expr.getResultSort()));
     builder.setParam(writeSingleParameter(expr.getParameters()));
-    builder.setBody(expr.getBody().accept(this, null));
+    builder.setBody(writeExpr(expr.getBody()));
     return ExpressionProtos.Expression.newBuilder().setLam(builder).build();
   }
 
@@ -485,7 +510,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
     ExpressionProtos.Expression.Pi.Builder builder = ExpressionProtos.Expression.Pi.newBuilder();
     builder.setResultSort(LevelProtos.Sort.newBuilder(writeSort(expr.getResultSort())));
     builder.setParam(writeSingleParameter(expr.getParameters()));
-    builder.setCodomain(expr.getCodomain().accept(this, null));
+    builder.setCodomain(writeExpr(expr.getCodomain()));
     return builder.build();
   }
 
@@ -505,7 +530,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
   public ExpressionProtos.Expression visitError(ErrorExpression expr, Void params) {
     ExpressionProtos.Expression.Error.Builder builder = ExpressionProtos.Expression.Error.newBuilder();
     if (expr.getExpression() != null && expr.isGoal()) {
-      builder.setExpression(expr.getExpression().accept(this, null));
+      builder.setExpression(writeExpr(expr.getExpression()));
     }
     builder.setIsGoal(expr.isGoal());
     if (expr.getGoalName() != null) {
@@ -518,7 +543,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
   public ExpressionProtos.Expression visitTuple(TupleExpression expr, Void params) {
     ExpressionProtos.Expression.Tuple.Builder builder = ExpressionProtos.Expression.Tuple.newBuilder();
     for (Expression field : expr.getFields()) {
-      builder.addField(field.accept(this, null));
+      builder.addField(writeExpr(field));
     }
     builder.setType(writeSigma(expr.getSigmaType()));
     return ExpressionProtos.Expression.newBuilder().setTuple(builder).build();
@@ -540,7 +565,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
   @Override
   public ExpressionProtos.Expression visitProj(ProjExpression expr, Void params) {
     ExpressionProtos.Expression.Proj.Builder builder = ExpressionProtos.Expression.Proj.newBuilder();
-    builder.setExpression(expr.getExpression().accept(this, null));
+    builder.setExpression(writeExpr(expr.getExpression()));
     builder.setField(expr.getField());
     builder.setBoxed(expr.isBoxed());
     return ExpressionProtos.Expression.newBuilder().setProj(builder).build();
@@ -559,15 +584,15 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
   @Override
   public ExpressionProtos.Expression visitPEval(PEvalExpression expr, Void params) {
     ExpressionProtos.Expression.PEval.Builder builder = ExpressionProtos.Expression.PEval.newBuilder();
-    builder.setExpression(expr.getExpression().accept(this, null));
+    builder.setExpression(writeExpr(expr.getExpression()));
     return ExpressionProtos.Expression.newBuilder().setPEval(builder).build();
   }
 
   @Override
   public ExpressionProtos.Expression visitBox(BoxExpression expr, Void params) {
     return ExpressionProtos.Expression.newBuilder().setBox(ExpressionProtos.Expression.Box.newBuilder()
-      .setExpression(expr.getExpression().accept(this, null))
-      .setType(expr.getType().accept(this, null))
+      .setExpression(writeExpr(expr.getExpression()))
+      .setType(writeExpr(expr.getType()))
     ).build();
   }
 
@@ -586,7 +611,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
       builder.addClause(letBuilder);
       registerBinding(letClause);
     }
-    builder.setExpression(letExpression.getExpression().accept(this, null));
+    builder.setExpression(writeExpr(letExpression.getExpression()));
     return ExpressionProtos.Expression.newBuilder().setLet(builder).build();
   }
 
@@ -660,9 +685,9 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
     builder.setLevels(writeLevels(expr.getLevels(), expr.getDefinition()));
     builder.setClauseIndex(expr.getClauseIndex());
     for (Expression arg : expr.getClauseArguments()) {
-      builder.addClauseArgument(arg.accept(this, null));
+      builder.addClauseArgument(writeExpr(arg));
     }
-    builder.setArgument(expr.getArgument().accept(this, null));
+    builder.setArgument(writeExpr(expr.getArgument()));
     return ExpressionProtos.Expression.newBuilder().setTypeConstructor(builder.build()).build();
   }
 
@@ -670,7 +695,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
   public ExpressionProtos.Expression visitTypeDestructor(TypeDestructorExpression expr, Void params) {
     ExpressionProtos.Expression.TypeDestructor.Builder builder = ExpressionProtos.Expression.TypeDestructor.newBuilder();
     builder.setFunRef(myCallTargetIndexProvider.getDefIndex(expr.getDefinition()));
-    builder.setArgument(expr.getArgument().accept(this, null));
+    builder.setArgument(writeExpr(expr.getArgument()));
     return ExpressionProtos.Expression.newBuilder().setTypeDestructor(builder.build()).build();
   }
 
@@ -713,7 +738,7 @@ class ExpressionSerialization implements ExpressionVisitor<Void, ExpressionProto
   public ExpressionProtos.Expression visitFieldCall(FieldCallExpression expr, Void params) {
     ExpressionProtos.Expression.FieldCall.Builder builder = ExpressionProtos.Expression.FieldCall.newBuilder();
     builder.setFieldRef(myCallTargetIndexProvider.getDefIndex(expr.getDefinition()));
-    builder.setExpression(expr.getArgument().accept(this, null));
+    builder.setExpression(writeExpr(expr.getArgument()));
     return ExpressionProtos.Expression.newBuilder().setFieldCall(builder).build();
   }
 }
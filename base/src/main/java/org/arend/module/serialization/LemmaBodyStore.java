@@ -0,0 +1,151 @@
+package org.arend.module.serialization;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.arend.core.definition.Definition;
+import org.arend.core.definition.FunctionDefinition;
+import org.arend.core.elimtree.Body;
+import org.arend.core.context.param.DependentLink;
+import org.arend.ext.serialization.DeserializationException;
+import org.arend.naming.reference.*;
+import org.arend.typechecking.order.dependency.DummyDependencyListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps bodies of functions in a file instead of memory.
+ * A stored body is serialized and replaced with a loader that deserializes it from a memory mapped region of the file.
+ * Definitions referred to by stored bodies are recorded as referables and are resolved when a body is loaded.
+ * The file only grows, so the store is intended for a single batch run such as the console frontend.
+ */
+public class LemmaBodyStore implements AutoCloseable {
+  private final FileChannel myChannel;
+  private long mySize;
+  private final List<TCDefReferable> myCallTargets = new ArrayList<>();
+  private final Map<TCDefReferable, Integer> myCallTargetIndices = new HashMap<>();
+
+  private final CallTargetIndexProvider myIndexProvider = new CallTargetIndexProvider() {
+    @Override
+    public int getDefIndex(Definition definition) {
+      return getDefIndex(definition.getRef());
+    }
+
+    @Override
+    public int getDefIndex(LocatedReferable definition) {
+      if (!(definition instanceof TCDefReferable tcRef && tcRef.getTypechecked() != null)) {
+        throw new IllegalArgumentException();
+      }
+      return myCallTargetIndices.computeIfAbsent(tcRef, ref -> {
+        myCallTargets.add(ref);
+        return myCallTargets.size();
+      });
+    }
+  };
+
+  private final CallTargetProvider myCallTargetProvider = new CallTargetProvider() {
+    @Override
+    public LocatedReferable getRef(int index) throws DeserializationException {
+      return getTCRef(index);
+    }
+
+    @Override
+    public TCDefReferable getTCRef(int index) throws DeserializationException {
+      synchronized (LemmaBodyStore.this) {
+        if (index < 1 || index > myCallTargets.size()) {
+          throw new DeserializationException("Wrong index");
+        }
+        return myCallTargets.get(index - 1);
+      }
+    }
+
+    @Override
+    public Definition getCallTarget(int index) throws DeserializationException {
+      TCDefReferable ref = getTCRef(index);
+      Definition definition = ref.getTypechecked();
+      if (definition == null) {
+        throw new DeserializationException("Definition '" + ref.getRefName() + "' is not typechecked");
+      }
+      return definition;
+    }
+
+    @Override
+    public MetaReferable getMetaCallTarget(int index) throws DeserializationException {
+      throw new DeserializationException("Not a meta");
+    }
+  };
+
+  public LemmaBodyStore(Path file) throws IOException {
+    myChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+  }
+
+  /**
+   * Creates a store in a temporary file that is deleted when the store is closed.
+   */
+  public static LemmaBodyStore createTemporary() throws IOException {
+    Path file = Files.createTempFile("arend-lemmas", ".bin");
+    file.toFile().deleteOnExit();
+    return new LemmaBodyStore(file);
+  }
+
+  /**
+   * Moves the body of a function to the store.
+   * If the body cannot be written, it is discarded.
+   */
+  public void store(FunctionDefinition function) {
+    Body body = function.getReallyActualBody();
+    if (body == null || function.hasBodyLoader()) {
+      return;
+    }
+
+    long position;
+    int length;
+    try {
+      ExpressionSerialization serialization = new ExpressionSerialization(myIndexProvider);
+      byte[] bytes;
+      synchronized (this) {
+        serialization.registerBindings(function.getParameters());
+        bytes = DefinitionSerialization.writeBody(serialization, body).toByteArray();
+        position = mySize;
+        length = bytes.length;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+          myChannel.write(buffer, position + buffer.position());
+        }
+        mySize += length;
+      }
+    } catch (IOException | IllegalStateException | IllegalArgumentException e) {
+      function.setBody(null);
+      return;
+    }
+
+    function.setBodyLoader(() -> load(function, position, length));
+  }
+
+  private Body load(FunctionDefinition function, long position, int length) {
+    try {
+      ByteBuffer buffer = myChannel.map(FileChannel.MapMode.READ_ONLY, position, length);
+      ExpressionDeserialization deserialization = new ExpressionDeserialization(myCallTargetProvider, DummyDependencyListener.INSTANCE, function);
+      DependentLink parameters = function.getParameters();
+      deserialization.registerBindings(parameters);
+      return DefinitionDeserialization.readBody(deserialization, DefinitionProtos.Body.parseFrom(buffer), DependentLink.Helper.size(parameters));
+    } catch (InvalidProtocolBufferException | DeserializationException e) {
+      throw new IllegalStateException("Cannot read the body of " + function.getName(), e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    myChannel.close();
+  }
+}
@@ -79,6 +79,11 @@ public class ModuleDeserialization {
               break;
             }
           }
+        } else if (parent != null && parent.getTypechecked() instanceof DataDefinition parentDef) {
+          Constructor constructor = parentDef.getConstructor(callTargetTree.getName());
+          if (constructor != null) {
+            referable1 = constructor.getReferable();
+          }
         }
       }
       referable = referable1 instanceof TCDefReferable ? (TCDefReferable) referable1 : null;
@@ -119,7 +124,9 @@ public class ModuleDeserialization {
         throw new DeserializationException("'" + referable + "' is not a definition");
       }
 
-      Definition def = readDefinition(groupProto.getDefinition(), tcReferable, false);
+      // Constructors of some prelude data types are not present in the source, so we read them from the binary file
+      List<? extends InternalReferable> constructors = group.getConstructors();
+      Definition def = readDefinition(groupProto.getDefinition(), tcReferable, constructors.isEmpty() && groupProto.getDefinition().getDefinitionDataCase() == DefinitionProtos.Definition.DefinitionDataCase.DATA);
       tcReferable.setTypechecked(def);
       myCallTargetProvider.putCallTarget(groupProto.getReferable().getIndex(), def);
       myDefinitions.add(new Pair<>(groupProto.getDefinition(), def));
@@ -148,7 +155,6 @@ public class ModuleDeserialization {
         }
       }
 
-      List<? extends InternalReferable> constructors = group.getConstructors();
       if (!constructors.isEmpty()) {
         Map<String, DefinitionProtos.Definition.DataData.Constructor> constructorMap = new HashMap<>();
         for (DefinitionProtos.Definition.DataData.Constructor constructor : groupProto.getDefinition().getData().getConstructorList()) {
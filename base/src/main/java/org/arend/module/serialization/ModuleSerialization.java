@@ -21,11 +21,19 @@ public class ModuleSerialization {
   private final Set<Integer> myCurrentDefinitions = new HashSet<>();
   private boolean myComplete;
 
-  static final int VERSION = 14;
+  public static final int VERSION = 16;
 
-  public ModuleSerialization(ErrorReporter errorReporter, DependencyListener dependencyListener) {
+  /**
+   * @param interfaceOnly if true, only the part of definitions visible to other modules is written.
+   *                      Such a module cannot be loaded, but it can be used to detect changes that affect dependent modules.
+   */
+  public ModuleSerialization(ErrorReporter errorReporter, DependencyListener dependencyListener, boolean interfaceOnly) {
     myErrorReporter = errorReporter;
-    myDefinitionSerialization = new DefinitionSerialization(myCallTargetIndexProvider, dependencyListener);
+    myDefinitionSerialization = new DefinitionSerialization(myCallTargetIndexProvider, dependencyListener, interfaceOnly);
+  }
+
+  public ModuleSerialization(ErrorReporter errorReporter, DependencyListener dependencyListener) {
+    this(errorReporter, dependencyListener, false);
   }
 
   public ModuleProtos.Module writeModule(ConcreteGroup group, ModulePath modulePath) {
@@ -37,9 +45,11 @@ public class ModuleSerialization {
     out.setGroup(writeGroup(group));
     out.setComplete(myComplete);
 
-    // Now write the call target tree
-    Map<ModulePath, Map<String, CallTargetTree>> moduleCallTargets = new HashMap<>();
-    for (Map.Entry<LocatedReferable, Integer> entry : myCallTargetIndexProvider.getCallTargets()) {
+    // Now write the call target tree; targets are written in the order of their indices, so the result does not depend on hashing
+    List<Map.Entry<LocatedReferable, Integer>> callTargets = new ArrayList<>(myCallTargetIndexProvider.getCallTargets());
+    callTargets.sort(Map.Entry.comparingByValue());
+    Map<ModulePath, Map<String, CallTargetTree>> moduleCallTargets = new LinkedHashMap<>();
+    for (Map.Entry<LocatedReferable, Integer> entry : callTargets) {
       if (myCurrentDefinitions.contains(entry.getValue())) {
         continue;
       }
@@ -52,7 +62,7 @@ public class ModuleSerialization {
         return null;
       }
 
-      Map<String, CallTargetTree> map = moduleCallTargets.computeIfAbsent(targetModuleLocation.getModulePath(), k -> new HashMap<>());
+      Map<String, CallTargetTree> map = moduleCallTargets.computeIfAbsent(targetModuleLocation.getModulePath(), k -> new LinkedHashMap<>());
       CallTargetTree tree = null;
       for (String name : longName) {
         tree = map.computeIfAbsent(name, k -> new CallTargetTree(0));
@@ -118,7 +128,7 @@ public class ModuleSerialization {
   }
 
   private static class CallTargetTree {
-    Map<String, CallTargetTree> subtreeMap = new HashMap<>();
+    Map<String, CallTargetTree> subtreeMap = new LinkedHashMap<>();
     int index;
 
     CallTargetTree(int index) {
@@ -16,7 +16,7 @@ public class LocatedReferableImpl implements TCDefReferable {
   private final String myAliasName;
   private final LocatedReferable myParent;
   private Kind myKind;
-  private Definition myTypechecked;
+  private volatile Definition myTypechecked;
 
   public LocatedReferableImpl(@Nullable Object data, @NotNull AccessModifier accessModifier, @NotNull Precedence precedence, @NotNull String name, @NotNull Precedence aliasPrecedence, @Nullable String aliasName, @Nullable LocatedReferable parent, @NotNull Kind kind) {
     myData = data;
@@ -61,6 +61,13 @@ public class LocatedReferableImpl implements TCDefReferable {
     return myTypechecked;
   }
 
+  @Override
+  public synchronized void setTypecheckedIfAbsent(@NotNull Definition definition) {
+    if (myTypechecked == null) {
+      setTypechecked(definition);
+    }
+  }
+
   @Override
   public void setData(Object data) {
     myData = data;
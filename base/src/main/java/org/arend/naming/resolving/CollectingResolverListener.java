@@ -26,24 +26,48 @@ public class CollectingResolverListener implements ResolverListener {
     }
   }
 
+  /**
+   * The module for which references are cached if the current thread did not call {@link #setModuleLocation}.
+   *
+   * @deprecated this field cannot be used when several threads share the listener; use {@link #setModuleLocation} instead.
+   */
+  @Deprecated
   public ModuleLocation moduleLocation;
   private final ArendServerRequester myRequester;
-  private final Map<ModuleLocation, ModuleCacheStructure> myModuleCache = new HashMap<>();
+  private final Map<ModuleLocation, ModuleCacheStructure> myModuleCache = Collections.synchronizedMap(new HashMap<>());
+  private final ThreadLocal<ModuleCacheStructure> myCurrentCache = new ThreadLocal<>();
   private final boolean myCacheReferences;
 
+  /**
+   * The listener can be shared by threads that resolve different modules.
+   * Each thread should set the module it resolves with {@link #setModuleLocation}.
+   * If it is not set, references are cached for module {@link #moduleLocation}.
+   */
   public CollectingResolverListener(ArendServerRequester requester, boolean cacheReferences) {
     myRequester = requester;
     myCacheReferences = cacheReferences;
   }
 
+  public void setModuleLocation(ModuleLocation module) {
+    myCurrentCache.set(getOrCreateCacheStructure(module));
+  }
+
+  private ModuleCacheStructure getOrCreateCacheStructure(ModuleLocation module) {
+    return myModuleCache.computeIfAbsent(module, k -> new ModuleCacheStructure(new ArrayList<>(), new ArrayList<>()));
+  }
+
   public ModuleCacheStructure getCacheStructure(ModuleLocation module) {
     return myModuleCache.get(module);
   }
 
+  private ModuleCacheStructure getCurrentCache() {
+    ModuleCacheStructure cache = myCurrentCache.get();
+    return cache != null ? cache : getOrCreateCacheStructure(moduleLocation);
+  }
+
   private void cacheReference(Object data, Referable referable) {
     if (data instanceof AbstractReference) {
-      myModuleCache.computeIfAbsent(moduleLocation, k -> new ModuleCacheStructure(new ArrayList<>(), new ArrayList<>()))
-        .addReference((AbstractReference) data, referable instanceof ErrorReference ? TCDefReferable.NULL_REFERABLE : referable);
+      getCurrentCache().addReference((AbstractReference) data, referable instanceof ErrorReference ? TCDefReferable.NULL_REFERABLE : referable);
     }
   }
 
@@ -55,14 +79,12 @@ public class CollectingResolverListener implements ResolverListener {
         if (referenceList.get(i) != null) {
           Referable abstractRef = resolvedRefs.get(i);
           if (abstractRef != null) {
-            myModuleCache.computeIfAbsent(moduleLocation, k -> new ModuleCacheStructure(new ArrayList<>(), new ArrayList<>()))
-              .addReference(referenceList.get(i), abstractRef instanceof ErrorReference ? TCDefReferable.NULL_REFERABLE : abstractRef);
+            getCurrentCache().addReference(referenceList.get(i), abstractRef instanceof ErrorReference ? TCDefReferable.NULL_REFERABLE : abstractRef);
           }
         }
       }
       for (int i = resolvedRefs.size(); i < referenceList.size(); i++) {
-        myModuleCache.computeIfAbsent(moduleLocation, k -> new ModuleCacheStructure(new ArrayList<>(), new ArrayList<>()))
-          .addReference(referenceList.get(i), TCDefReferable.NULL_REFERABLE);
+        getCurrentCache().addReference(referenceList.get(i), TCDefReferable.NULL_REFERABLE);
       }
     } else {
       cacheReference(reference.getData(), referable);
@@ -124,8 +146,7 @@ public class CollectingResolverListener implements ResolverListener {
     }
     cacheReference(namespaceCommand.module(), null, resolvedRefs);
     if (namespaceCommand.isImport() && resolvedRefs != null && !resolvedRefs.isEmpty() && resolvedRefs.getLast() instanceof ModuleReferable moduleRef) {
-      myModuleCache.computeIfAbsent(moduleLocation, k -> new ModuleCacheStructure(new ArrayList<>(), new ArrayList<>()))
-        .addImportedModule(moduleRef.path);
+      getCurrentCache().addImportedModule(moduleRef.path);
     }
   }
 
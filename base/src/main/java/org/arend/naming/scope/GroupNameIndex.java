@@ -0,0 +1,221 @@
+package org.arend.naming.scope;
+
+import org.arend.naming.reference.*;
+import org.arend.term.concrete.Concrete;
+import org.arend.term.group.AccessModifier;
+import org.arend.term.group.ConcreteGroup;
+import org.arend.term.group.ConcreteStatement;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * An index of names defined directly in a group, that is, names of its subgroups, their constructors and fields, and level parameters.
+ * It gives the same results as the traversal of the group in {@link LexicalScope}.
+ * Indices are built on first use and cached until the group is collected or {@link #invalidate} is invoked.
+ */
+final class GroupNameIndex {
+  /**
+   * An element found among statements of the group.
+   * Elements are ordered by their positions; the position of an element from the i-th statement is {@code 4 * i + k},
+   * where k is the ordinal of the context in which it was found.
+   */
+  private record Found(int position, Object result) {}
+
+  private final List<Map<String, Found>> myStatementRefs = new ArrayList<>(4);
+  private final Map<String, Found> myStatementScopes = new HashMap<>();
+  private final Map<String, Referable> myDynamicRefs = new HashMap<>();
+  private final Map<String, ConcreteGroup> myDynamicScopes = new HashMap<>();
+  private final Map<String, Referable> myInternalRefs = new HashMap<>();
+
+  private GroupNameIndex(ConcreteGroup group) {
+    for (int k = 0; k < 4; k++) {
+      myStatementRefs.add(new HashMap<>());
+    }
+
+    List<ConcreteStatement> statements = group.statements();
+    for (int i = 0; i < statements.size(); i++) {
+      ConcreteStatement statement = statements.get(i);
+      ConcreteGroup subgroup = statement.group();
+      if (subgroup != null) {
+        Map<String, Referable> staticRefs = new LinkedHashMap<>();
+        addSubgroup(subgroup, staticRefs);
+        addAll(staticRefs, i, Scope.ScopeContext.STATIC);
+        addScope(subgroup, 4 * i, myStatementScopes);
+
+        Map<String, Referable> dynamicRefs = new LinkedHashMap<>();
+        for (ConcreteGroup dynamicGroup : subgroup.dynamicGroups()) {
+          if (dynamicGroup.referable().getAccessModifier() == AccessModifier.PUBLIC) {
+            addSubgroup(dynamicGroup, dynamicRefs);
+          }
+        }
+        // Only the first visible internal referable is considered, and only if it is public
+        Map<String, Referable> internalRefs = new HashMap<>();
+        addInternal(subgroup, true, internalRefs);
+        for (Map.Entry<String, Referable> entry : internalRefs.entrySet()) {
+          if (entry.getValue() instanceof GlobalReferable global && global.getAccessModifier() == AccessModifier.PUBLIC) {
+            dynamicRefs.putIfAbsent(entry.getKey(), entry.getValue());
+          }
+        }
+        addAll(dynamicRefs, i, Scope.ScopeContext.DYNAMIC);
+      }
+
+      addLevels(statement.pLevelsDefinition(), i, Scope.ScopeContext.PLEVEL);
+      addLevels(statement.hLevelsDefinition(), i, Scope.ScopeContext.HLEVEL);
+    }
+
+    for (ConcreteGroup subgroup : group.dynamicGroups()) {
+      addSubgroup(subgroup, myDynamicRefs);
+      GlobalReferable ref = subgroup.referable();
+      myDynamicScopes.putIfAbsent(ref.textRepresentation(), subgroup);
+      String alias = ref.getAliasName();
+      if (alias != null) myDynamicScopes.putIfAbsent(alias, subgroup);
+    }
+
+    addInternal(group, false, myInternalRefs);
+  }
+
+  private void addAll(Map<String, Referable> refs, int statement, Scope.ScopeContext context) {
+    Map<String, Found> map = myStatementRefs.get(context.ordinal());
+    for (Map.Entry<String, Referable> entry : refs.entrySet()) {
+      map.putIfAbsent(entry.getKey(), new Found(4 * statement + context.ordinal(), entry.getValue()));
+    }
+  }
+
+  private void addLevels(Concrete.LevelsDefinition levelsDefinition, int statement, Scope.ScopeContext context) {
+    if (levelsDefinition == null) return;
+    Map<String, Referable> refs = new LinkedHashMap<>();
+    for (Referable ref : levelsDefinition.getReferables()) {
+      refs.putIfAbsent(ref.getRefName(), ref);
+    }
+    addAll(refs, statement, context);
+  }
+
+  private static void addScope(ConcreteGroup subgroup, int position, Map<String, Found> map) {
+    GlobalReferable ref = subgroup.referable();
+    map.putIfAbsent(ref.textRepresentation(), new Found(position, subgroup));
+    String alias = ref.getAliasName();
+    if (alias != null) map.putIfAbsent(alias, new Found(position, subgroup));
+  }
+
+  /**
+   * Adds the referable of a subgroup, its alias, and its visible internal referables.
+   */
+  private static void addSubgroup(ConcreteGroup subgroup, Map<String, Referable> refs) {
+    GlobalReferable ref = subgroup.referable();
+    refs.putIfAbsent(ref.textRepresentation(), ref);
+    String alias = ref.getAliasName();
+    if (alias != null) refs.putIfAbsent(alias, new AliasReferable(ref));
+    addInternal(subgroup, true, refs);
+  }
+
+  private static void addInternal(ConcreteGroup group, boolean onlyVisible, Map<String, Referable> refs) {
+    for (InternalReferable internalReferable : group.getInternalReferables()) {
+      if (!onlyVisible || internalReferable.isVisible()) {
+        refs.putIfAbsent(internalReferable.getRefName(), internalReferable);
+        String alias = internalReferable.getAliasName();
+        if (alias != null) refs.putIfAbsent(alias, new AliasReferable(internalReferable));
+      }
+    }
+  }
+
+  /**
+   * Finds the first referable with the given name among statements.
+   */
+  Referable resolveInStatements(String name, Scope.ScopeContext context) {
+    Found best = null;
+    for (Scope.ScopeContext ctx : Scope.ScopeContext.values()) {
+      if (context == null || context == ctx) {
+        Found found = myStatementRefs.get(ctx.ordinal()).get(name);
+        if (found != null && (best == null || found.position < best.position)) {
+          best = found;
+        }
+      }
+    }
+    return best == null ? null : (Referable) best.result;
+  }
+
+  /**
+   * Finds the first subgroup with the given name among statements.
+   * Level parameters with the same name shadow subgroups, so the result is either a subgroup, a level parameter, or null.
+   */
+  Object resolveNamespaceInStatements(String name) {
+    Found best = myStatementScopes.get(name);
+    for (Scope.ScopeContext ctx : new Scope.ScopeContext[] { Scope.ScopeContext.PLEVEL, Scope.ScopeContext.HLEVEL }) {
+      Found found = myStatementRefs.get(ctx.ordinal()).get(name);
+      if (found != null && (best == null || found.position < best.position)) {
+        best = found;
+      }
+    }
+    return best == null ? null : best.result;
+  }
+
+  Referable resolveInDynamicGroups(String name) {
+    return myDynamicRefs.get(name);
+  }
+
+  ConcreteGroup resolveNamespaceInDynamicGroups(String name) {
+    return myDynamicScopes.get(name);
+  }
+
+  Referable resolveInternal(String name) {
+    return myInternalRefs.get(name);
+  }
+
+  private static final class Key extends WeakReference<ConcreteGroup> {
+    private final int myHash;
+
+    private Key(ConcreteGroup group, ReferenceQueue<ConcreteGroup> queue) {
+      super(group, queue);
+      myHash = System.identityHashCode(group);
+    }
+
+    @Override
+    public int hashCode() {
+      return myHash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof Key key)) return false;
+      ConcreteGroup group = get();
+      return group != null && group == key.get();
+    }
+  }
+
+  // Groups are records, so they are compared by identity explicitly
+  private static final Map<Key, GroupNameIndex> ourIndices = new HashMap<>();
+  private static final ReferenceQueue<ConcreteGroup> ourQueue = new ReferenceQueue<>();
+
+  private static void expungeStaleEntries() {
+    for (Object key; (key = ourQueue.poll()) != null; ) {
+      ourIndices.remove(key);
+    }
+  }
+
+  static GroupNameIndex get(ConcreteGroup group) {
+    synchronized (ourIndices) {
+      expungeStaleEntries();
+      GroupNameIndex index = ourIndices.get(new Key(group, null));
+      if (index != null) return index;
+    }
+
+    GroupNameIndex index = new GroupNameIndex(group);
+    synchronized (ourIndices) {
+      GroupNameIndex prev = ourIndices.putIfAbsent(new Key(group, ourQueue), index);
+      return prev != null ? prev : index;
+    }
+  }
+
+  /**
+   * Removes cached indices of a group and all its subgroups.
+   * This should be invoked when the group is replaced or modified.
+   */
+  static void invalidate(ConcreteGroup group) {
+    synchronized (ourIndices) {
+      group.traverseGroup(subgroup -> ourIndices.remove(new Key(subgroup, null)));
+    }
+  }
+}
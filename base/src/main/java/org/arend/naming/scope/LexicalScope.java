@@ -18,6 +18,8 @@ public class LexicalScope implements Scope {
   private final ModulePath myModule;
   private final boolean myDynamicContext;
   private final boolean myWithAdditionalContent; // with external parameters and content of \open
+  private Scope myOpenedScope;
+  private Scope[] myNamespaceCommandScopes; // resolved namespace commands indexed by statements
 
   public LexicalScope(Scope parent, ConcreteGroup group, ModulePath module, boolean isDynamicContext, boolean withAdditionalContent) {
     myParent = parent;
@@ -150,135 +152,87 @@ public class LexicalScope implements Scope {
     return myParent.find(pred, context);
   }
 
-  private static GlobalReferable resolveInternal(ConcreteGroup group, String name, boolean onlyInternal) {
-    for (InternalReferable internalReferable : group.getInternalReferables()) {
-      if (!onlyInternal || internalReferable.isVisible()) {
-        if (internalReferable.getRefName().equals(name)) {
-          return internalReferable;
-        }
-        String alias = internalReferable.getAliasName();
-        if (alias != null && alias.equals(name)) {
-          return new AliasReferable(internalReferable);
-        }
-      }
-    }
-
-    return null;
-  }
+  private enum ResolveType { REF, SCOPE }
 
-  private static Object resolveSubgroup(ConcreteGroup group, String name, ResolveType resolveType) {
-    GlobalReferable ref = group.referable();
-    boolean match = ref.textRepresentation().equals(name);
-    if (!match) {
-      String alias = ref.getAliasName();
-      if (alias != null && alias.equals(name)) {
-        if (resolveType == ResolveType.REF) {
-          return new AliasReferable(ref);
-        }
-        match = true;
-      }
+  private Scope getNamespaceCommandScope(int index, ConcreteNamespaceCommand cmd) {
+    Scope[] scopes = myNamespaceCommandScopes;
+    if (scopes == null) {
+      scopes = new Scope[myGroup.statements().size()];
+      myNamespaceCommandScopes = scopes;
     }
-    if (match) {
-      return resolveType == ResolveType.REF ? ref : LexicalScope.opened(group);
+    if (index < scopes.length && scopes[index] != null) {
+      return scopes[index];
     }
 
-    if (resolveType == ResolveType.REF) {
-      return resolveInternal(group, name, true);
+    Scope scope;
+    if (cmd.isImport()) {
+      scope = getImportedSubscope();
+    } else {
+      Scope cachingScope = myOpenedScope;
+      if (cachingScope == null) {
+        cachingScope = myDynamicContext && !myWithAdditionalContent ? this : CachingScope.make(new LexicalScope(myParent, myGroup, null, true, false));
+        myOpenedScope = cachingScope;
+      }
+      scope = cachingScope;
     }
 
-    return null;
+    scope = NamespaceCommandNamespace.resolveNamespace(scope, cmd);
+    if (index < scopes.length) {
+      scopes[index] = scope;
+    }
+    return scope;
   }
 
-  private enum ResolveType { REF, SCOPE }
-
   private Object resolve(String name, ResolveType resolveType, ScopeContext context) {
     if (name.isEmpty() || "_".equals(name)) {
       return null;
     }
 
-    for (ConcreteStatement statement : myGroup.statements()) {
-      ConcreteGroup subgroup = statement.group();
-      if (subgroup != null) {
-        if (resolveType != ResolveType.REF || context == null || context == ScopeContext.STATIC) {
-          Object result = resolveSubgroup(subgroup, name, resolveType);
-          if (result != null) {
-            return result;
-          }
-        }
-        if (resolveType == ResolveType.REF && (context == null || context == ScopeContext.DYNAMIC)) {
-          for (ConcreteGroup dynamicGroup : subgroup.dynamicGroups()) {
-            if (dynamicGroup.referable().getAccessModifier() == AccessModifier.PUBLIC) {
-              Object result = resolveSubgroup(dynamicGroup, name, resolveType);
-              if (result != null) {
-                return result;
-              }
-            }
-          }
-          GlobalReferable result = resolveInternal(subgroup, name, true);
-          if (result != null && result.getAccessModifier() == AccessModifier.PUBLIC) {
-            return result;
-          }
-        }
-      }
-      if (context == null || context == ScopeContext.PLEVEL) {
-        Concrete.LevelsDefinition levelParams = statement.pLevelsDefinition();
-        if (levelParams != null) {
-          for (Referable ref : levelParams.getReferables()) {
-            if (name.equals(ref.getRefName())) {
-              return ref;
-            }
-          }
-        }
+    GroupNameIndex index = GroupNameIndex.get(myGroup);
+    if (resolveType == ResolveType.REF) {
+      Referable result = index.resolveInStatements(name, context);
+      if (result != null) {
+        return result;
       }
-      if (context == null || context == ScopeContext.HLEVEL) {
-        Concrete.LevelsDefinition levelParams = statement.hLevelsDefinition();
-        if (levelParams != null) {
-          for (Referable ref : levelParams.getReferables()) {
-            if (name.equals(ref.getRefName())) {
-              return ref;
-            }
-          }
-        }
+    } else {
+      Object result = index.resolveNamespaceInStatements(name);
+      if (result != null) {
+        return result instanceof ConcreteGroup subgroup ? LexicalScope.opened(subgroup) : result;
       }
     }
 
     if (context == ScopeContext.DYNAMIC || myDynamicContext && (context == null || context == ScopeContext.STATIC)) {
-      for (ConcreteGroup subgroup : myGroup.dynamicGroups()) {
-        Object result = resolveSubgroup(subgroup, name, resolveType);
+      if (resolveType == ResolveType.REF) {
+        Referable result = index.resolveInDynamicGroups(name);
         if (result != null) {
           return result;
         }
+      } else {
+        ConcreteGroup result = index.resolveNamespaceInDynamicGroups(name);
+        if (result != null) {
+          return LexicalScope.opened(result);
+        }
       }
     }
 
     if (resolveType == ResolveType.REF && (context == null || context == ScopeContext.STATIC)) {
-      GlobalReferable result = resolveInternal(myGroup, name, false);
+      Referable result = index.resolveInternal(name);
       if (result != null) {
         return result;
       }
     }
 
-    Scope cachingScope = null;
-    for (ConcreteStatement statement : myGroup.statements()) {
-      ConcreteNamespaceCommand cmd = statement.command();
+    List<ConcreteStatement> statements = myGroup.statements();
+    for (int i = 0; i < statements.size(); i++) {
+      ConcreteNamespaceCommand cmd = statements.get(i).command();
       if (cmd == null || !(myWithAdditionalContent || cmd.isImport())) {
         continue;
       }
-
-      Scope scope;
-      if (cmd.isImport()) {
-        if (myModule != null && cmd.module().getPath().equals(myModule.toList())) {
-          continue;
-        }
-        scope = getImportedSubscope();
-      } else {
-        if (cachingScope == null) {
-          cachingScope = myDynamicContext && !myWithAdditionalContent ? this : CachingScope.make(new LexicalScope(myParent, myGroup, null, true, false));
-        }
-        scope = cachingScope;
+      if (cmd.isImport() && myModule != null && cmd.module().getPath().equals(myModule.toList())) {
+        continue;
       }
 
-      scope = NamespaceCommandNamespace.resolveNamespace(scope, cmd);
+      Scope scope = getNamespaceCommandScope(i, cmd);
       Object result = resolveType == ResolveType.REF ? scope.resolveName(name, context) : scope.resolveNamespace(name);
       if (result != null) {
         return result;
@@ -323,6 +277,14 @@ public class LexicalScope implements Scope {
     return myParent.getImportedSubscope();
   }
 
+  /**
+   * Invalidates cached names of the group and its subgroups.
+   * This should be invoked when the group is replaced or its statements are modified.
+   */
+  public static void invalidateIndex(ConcreteGroup group) {
+    GroupNameIndex.invalidate(group);
+  }
+
   public ConcreteGroup getGroup() {
     return myGroup;
   }
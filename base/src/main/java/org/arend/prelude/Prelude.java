@@ -295,9 +295,21 @@ public class Prelude implements ArendPrelude {
     IS_INITIALIZED = true;
   }
 
+  /**
+   * Initializes prelude from a group whose definitions are already typechecked, for example, loaded from a binary file.
+   */
+  public static void initializeTypechecked(ConcreteGroup group) {
+    group.traverseGroup(subgroup -> {
+      if (subgroup.definition() != null && subgroup.referable() instanceof TCDefReferable referable && referable.getTypechecked() != null) {
+        update(referable.getTypechecked());
+      }
+    });
+    initialize(group);
+  }
+
   public static class PreludeTypechecking extends TypecheckingOrderingListener {
     public PreludeTypechecking(ConcreteProvider concreteProvider) {
-      super(ArendCheckerFactory.DEFAULT, InstanceScopeProvider.EMPTY, Collections.emptyMap(), concreteProvider, DummyErrorReporter.INSTANCE, DummyDependencyListener.INSTANCE, PartialComparator.getTrivial(), new ArendExtensionProvider() {}, ArendServerResolveListener.EMPTY, false);
+      super(ArendCheckerFactory.DEFAULT, InstanceScopeProvider.EMPTY, Collections.emptyMap(), concreteProvider, DummyErrorReporter.INSTANCE, DummyDependencyListener.INSTANCE, PartialComparator.getTrivial(), new ArendExtensionProvider() {}, ArendServerResolveListener.EMPTY, false, null);
     }
 
     @Override
@@ -19,6 +19,7 @@ import org.arend.naming.resolving.CollectingResolverListener;
 import org.arend.naming.resolving.typing.TypingInfo;
 import org.arend.naming.resolving.visitor.DefinitionResolveNameVisitor;
 import org.arend.naming.resolving.visitor.ExpressionResolveNameVisitor;
+import org.arend.naming.scope.LexicalScope;
 import org.arend.naming.scope.MergeScope;
 import org.arend.naming.scope.Scope;
 import org.arend.naming.scope.ScopeFactory;
@@ -215,6 +216,7 @@ public abstract class Repl {
     ConcreteGroup replGroup = myServer.getRawGroup(replModuleLocation);
     if (replGroup != null && !newGroup) {
       replGroup.statements().addAll(group.statements());
+      LexicalScope.invalidateIndex(replGroup);
     } else {
       replGroup = group;
     }
@@ -242,7 +244,9 @@ public abstract class Repl {
         }
       }
     }
-    group.statements().removeAll(notLoadedStatements);
+    if (group.statements().removeAll(notLoadedStatements)) {
+      LexicalScope.invalidateIndex(group);
+    }
   }
 
   public void typecheckStatements(@NotNull ConcreteGroup group) {
@@ -31,6 +31,7 @@ import org.arend.typechecking.instance.ArendInstances;
 import org.arend.typechecking.order.Ordering;
 import org.arend.typechecking.order.dependency.DependencyCollector;
 import org.arend.typechecking.order.listener.CollectingOrderingListener;
+import org.arend.typechecking.order.listener.ParallelTypechecking;
 import org.arend.typechecking.order.listener.TypecheckingOrderingListener;
 import org.arend.typechecking.provider.ConcreteProvider;
 import org.arend.typechecking.provider.SimpleConcreteProvider;
@@ -41,6 +42,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
@@ -52,7 +54,6 @@ public class ArendCheckerImpl implements ArendChecker {
   private boolean myInterrupted;
   private Map<ModuleLocation, GroupData> myDependencies;
   private ConcreteProvider myConcreteProvider;
-  private final ReentrantLock myTCDefLock = new ReentrantLock();
 
   public ArendCheckerImpl(ArendServerImpl server, List<? extends ModuleLocation> modules) {
     myServer = server;
@@ -64,11 +65,12 @@ public class ArendCheckerImpl implements ArendChecker {
   }
 
   private void withTCDefLock(Runnable runnable) {
-    myTCDefLock.lock();
+    ReentrantLock lock = myServer.getTCDefLock();
+    lock.lock();
     try {
       runnable.run();
     } finally {
-      myTCDefLock.unlock();
+      lock.unlock();
     }
   }
 
@@ -151,7 +153,7 @@ public class ArendCheckerImpl implements ArendChecker {
     try {
       myLogger.info(() -> "Begin resolving modules " + modules);
 
-      Map<GlobalReferable, Concrete.GeneralDefinition> defMap = new HashMap<>();
+      Map<GlobalReferable, Concrete.GeneralDefinition> defMap = new ConcurrentHashMap<>();
       ConcreteProvider concreteProvider = new SimpleConcreteProvider(defMap);
       Collection<? extends ModuleLocation> currentModules = resolveDependencies ? dependencies.keySet() : modules;
       List<Pair<ModuleLocation,ConcreteGroup>> toResolve = new ArrayList<>();
@@ -176,14 +178,16 @@ public class ArendCheckerImpl implements ArendChecker {
       }
 
       CollectingResolverListener resolverListener = new CollectingResolverListener(myServer.getRequester(), myServer.doCacheReferences());
-      Map<ModuleLocation, ListErrorReporter> errorReporterMap = new HashMap<>();
-      Map<ModuleLocation, Map<LongName, DefinitionData>> resolverResult = new HashMap<>();
+      Map<ModuleLocation, ListErrorReporter> errorReporterMap = new ConcurrentHashMap<>();
+      Map<ModuleLocation, Map<LongName, DefinitionData>> resolverResult = new ConcurrentHashMap<>();
       progressReporter.beginProcessing(toResolve.size());
-      for (Pair<ModuleLocation, ConcreteGroup> pair : toResolve) {
+      Consumer<Pair<ModuleLocation, ConcreteGroup>> resolver = pair -> {
         ModuleLocation module = pair.proj1;
         indicator.checkCanceled();
-        progressReporter.beginItem(module);
-        resolverListener.moduleLocation = module;
+        synchronized (progressReporter) {
+          progressReporter.beginItem(module);
+        }
+        resolverListener.setModuleLocation(module);
         ListErrorReporter listErrorReporter = new ListErrorReporter();
         errorReporterMap.put(module, listErrorReporter);
         Map<LongName, DefinitionData> definitionData = new LinkedHashMap<>();
@@ -192,7 +196,16 @@ public class ArendCheckerImpl implements ArendChecker {
         resolverResult.put(module, definitionData);
 
         myLogger.info(() -> "Module '" + module + "' is resolved");
-        progressReporter.endItem(pair.proj1);
+        synchronized (progressReporter) {
+          progressReporter.endItem(module);
+        }
+      };
+
+      int parallelism = myServer.getResolvingParallelism();
+      if (parallelism > 1 && toResolve.size() > 1) {
+        resolveInParallel(toResolve, parallelism, resolver);
+      } else {
+        toResolve.forEach(resolver);
       }
 
       boolean ok = myServer.getRequester().runUnderReadLock(() -> {
@@ -244,7 +257,7 @@ public class ArendCheckerImpl implements ArendChecker {
                     withTCDefLock(() -> {
                       Set<? extends TCDefReferable> updatedSet = myServer.getDependencyCollector().update(entry.getValue().definition().getData());
                       myLogger.info(() -> "Updated definitions " + updatedSet);
-                      ComputationRunner.getCancellationIndicator().cancel(updatedSet);
+                      ComputationRunner.cancelComputations(updatedSet);
                       for (TCDefReferable updated : updatedSet) {
                         myServer.getErrorService().resetDefinition(updated);
                       }
@@ -271,6 +284,106 @@ public class ArendCheckerImpl implements ArendChecker {
     }
   }
 
+  /**
+   * Resolves modules on a pool of workers.
+   * A module is started when all modules that it imports among {@code toResolve} are resolved.
+   * If modules import each other, the first module that is not started yet is started when no module is running.
+   */
+  private static void resolveInParallel(List<Pair<ModuleLocation, ConcreteGroup>> toResolve, int parallelism, Consumer<Pair<ModuleLocation, ConcreteGroup>> resolver) {
+    Map<ModulePath, List<Integer>> indices = new HashMap<>();
+    for (int i = 0; i < toResolve.size(); i++) {
+      indices.computeIfAbsent(toResolve.get(i).proj1.getModulePath(), k -> new ArrayList<>()).add(i);
+    }
+
+    // Imports are matched by module paths only, so a module may wait for a module with the same path from another library
+    int[] pending = new int[toResolve.size()];
+    List<List<Integer>> dependents = new ArrayList<>(toResolve.size());
+    for (int i = 0; i < toResolve.size(); i++) {
+      dependents.add(new ArrayList<>());
+    }
+    for (int i = 0; i < toResolve.size(); i++) {
+      Set<Integer> dependencies = new HashSet<>();
+      for (ConcreteStatement statement : toResolve.get(i).proj2.statements()) {
+        if (statement.command() != null && statement.command().isImport()) {
+          List<Integer> modules = indices.get(new ModulePath(statement.command().module().getPath()));
+          if (modules != null) dependencies.addAll(modules);
+        }
+      }
+      dependencies.remove(i);
+      for (Integer dependency : dependencies) {
+        dependents.get(dependency).add(i);
+        pending[i]++;
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, toResolve.size()), runnable -> {
+      Thread thread = new Thread(runnable, "Arend resolving worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    CompletionService<Integer> completionService = new ExecutorCompletionService<>(executor);
+    boolean[] started = new boolean[toResolve.size()];
+    Throwable failure = null;
+
+    try {
+      int running = 0;
+      int next = 0;
+      for (int i = 0; i < toResolve.size(); i++) {
+        if (pending[i] == 0) {
+          Pair<ModuleLocation, ConcreteGroup> pair = toResolve.get(i);
+          started[i] = true;
+          completionService.submit(() -> resolver.accept(pair), i);
+          running++;
+        }
+      }
+
+      while (true) {
+        if (running == 0) {
+          while (next < started.length && started[next]) next++;
+          if (failure != null || next == started.length) break;
+          Pair<ModuleLocation, ConcreteGroup> pair = toResolve.get(next);
+          started[next] = true;
+          completionService.submit(() -> resolver.accept(pair), next);
+          running++;
+        }
+
+        int finished;
+        try {
+          finished = completionService.take().get();
+        } catch (ExecutionException e) {
+          running--;
+          if (failure == null) failure = e.getCause();
+          continue;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          if (failure == null) failure = e;
+          break;
+        }
+        running--;
+
+        // If some module failed, we only wait for the running modules to finish
+        if (failure != null) continue;
+        for (int dependent : dependents.get(finished)) {
+          if (--pending[dependent] == 0 && !started[dependent]) {
+            Pair<ModuleLocation, ConcreteGroup> pair = toResolve.get(dependent);
+            started[dependent] = true;
+            completionService.submit(() -> resolver.accept(pair), dependent);
+            running++;
+          }
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    if (failure != null) {
+      if (failure instanceof InterruptedException) throw new ComputationInterruptedException();
+      if (failure instanceof RuntimeException) throw (RuntimeException) failure;
+      if (failure instanceof Error) throw (Error) failure;
+      throw new IllegalStateException(failure);
+    }
+  }
+
   @Override
   public void resolveModules(@NotNull CancellationIndicator indicator, @NotNull ProgressReporter<ModuleLocation> progressReporter) {
     resolveModules(myModules, indicator, progressReporter, getDependencies(indicator), false);
@@ -344,15 +457,19 @@ public class ArendCheckerImpl implements ArendChecker {
         }
       }
 
-      if (!Prelude.isInitialized()) {
-        GroupData prelude = myDependencies.get(Prelude.MODULE_LOCATION);
-        new Prelude.PreludeTypechecking(concreteProvider).typecheckDefinitions(prelude.getResolvedDefinitions().stream().map(DefinitionData::definition).toList(), UnstoppableCancellationIndicator.INSTANCE);
-        Prelude.initialize(prelude.getRawGroup());
+      synchronized (Prelude.class) {
+        if (!Prelude.isInitialized()) {
+          GroupData prelude = myDependencies.get(Prelude.MODULE_LOCATION);
+          new Prelude.PreludeTypechecking(concreteProvider).typecheckDefinitions(prelude.getResolvedDefinitions().stream().map(DefinitionData::definition).toList(), UnstoppableCancellationIndicator.INSTANCE);
+          Prelude.initialize(prelude.getRawGroup());
+        }
       }
 
       DependencyCollector dependencyCollector = new DependencyCollector(myServer);
       CollectingOrderingListener collector = new CollectingOrderingListener();
-      Ordering ordering = new Ordering(myServer.getInstanceScopeProvider(), concreteProvider, collector, dependencyCollector, new GroupComparator(myDependencies));
+      int parallelism = checkerFactory == null ? myServer.getTypecheckingParallelism() : 1;
+      ParallelTypechecking.RecordingDependencyListener dependencyRecorder = parallelism > 1 ? new ParallelTypechecking.RecordingDependencyListener(dependencyCollector) : null;
+      Ordering ordering = new Ordering(myServer.getInstanceScopeProvider(), concreteProvider, collector, dependencyRecorder != null ? dependencyRecorder : dependencyCollector, new GroupComparator(myDependencies));
 
       TypecheckingCancellationIndicator typecheckingIndicator = new TypecheckingCancellationIndicator(indicator);
       new BooleanComputationRunner().run(typecheckingIndicator, () -> {
@@ -378,40 +495,46 @@ public class ArendCheckerImpl implements ArendChecker {
           myLogger.info(() -> "Collected definitions (" + collector.getElements().size() + ") for " + (definitions == null ? myModules : definitions));
 
           ListErrorReporter listErrorReporter = new ListErrorReporter();
-          TypecheckingOrderingListener dependencyTypechecker = new TypecheckingOrderingListener(ArendCheckerFactory.DEFAULT, myServer.getInstanceScopeProvider(), ordering.getInstanceDependencies(), concreteProvider, listErrorReporter, dependencyCollector, new GroupComparator(myDependencies), myServer.getExtensionProvider(), myServer.getRequester(), myServer.doClearLemmas());
-          TypecheckingOrderingListener typechecker = checkerFactory == null ? dependencyTypechecker : new TypecheckingOrderingListener(checkerFactory, myServer.getInstanceScopeProvider(), ordering.getInstanceDependencies(), concreteProvider, listErrorReporter, dependencyCollector, new GroupComparator(myDependencies), myServer.getExtensionProvider(), myServer.getRequester(), myServer.doClearLemmas());
+          TypecheckingOrderingListener dependencyTypechecker = new TypecheckingOrderingListener(ArendCheckerFactory.DEFAULT, myServer.getInstanceScopeProvider(), ordering.getInstanceDependencies(), concreteProvider, listErrorReporter, dependencyCollector, new GroupComparator(myDependencies), myServer.getExtensionProvider(), myServer.getRequester(), myServer.doClearLemmas(), myServer.getLemmaBodyStore());
+          TypecheckingOrderingListener typechecker = checkerFactory == null ? dependencyTypechecker : new TypecheckingOrderingListener(checkerFactory, myServer.getInstanceScopeProvider(), ordering.getInstanceDependencies(), concreteProvider, listErrorReporter, dependencyCollector, new GroupComparator(myDependencies), myServer.getExtensionProvider(), myServer.getRequester(), myServer.doClearLemmas(), myServer.getLemmaBodyStore());
 
           try {
             progressReporter.beginProcessing(collector.getElements().size());
-            for (CollectingOrderingListener.Element element : collector.getElements()) {
-              typecheckingIndicator.checkCanceled();
-              progressReporter.beginItem(element.getAllDefinitions());
-
-              if (checkerFactory == null) {
-                element.feedTo(typechecker);
-              } else {
-                boolean found = false;
-                List<? extends Concrete.ResolvableDefinition> allDefinitions = element.getAllDefinitions();
-                for (Concrete.ResolvableDefinition definition : allDefinitions) {
-                  if (concreteReferences.contains(definition.getData())) {
-                    found = true;
-                    break;
-                  }
-                }
+            if (dependencyRecorder != null && collector.getElements().size() > 1) {
+              new ParallelTypechecking(collector.getElements(), dependencyRecorder.getRecordedDependencies(), ordering.getInstanceDependencies()).typecheck(parallelism, typecheckingIndicator, taskErrorReporter ->
+                new TypecheckingOrderingListener(ArendCheckerFactory.DEFAULT, myServer.getInstanceScopeProvider(), ordering.getInstanceDependencies(), concreteProvider, taskErrorReporter, dependencyCollector, new GroupComparator(myDependencies), myServer.getExtensionProvider(), myServer.getRequester(), myServer.doClearLemmas(), myServer.getLemmaBodyStore()),
+                listErrorReporter, progressReporter);
+            } else {
+              for (CollectingOrderingListener.Element element : collector.getElements()) {
+                typecheckingIndicator.checkCanceled();
+                progressReporter.beginItem(element.getAllDefinitions());
 
-                if (found) {
-                  List<Concrete.ResolvableDefinition> newDefinitions = new ArrayList<>(allDefinitions.size());
+                if (checkerFactory == null) {
+                  element.feedTo(typechecker);
+                } else {
+                  boolean found = false;
+                  List<? extends Concrete.ResolvableDefinition> allDefinitions = element.getAllDefinitions();
                   for (Concrete.ResolvableDefinition definition : allDefinitions) {
-                    newDefinitions.add(concreteReferences.contains(definition.getData()) ? definition : copyDefinition(definition, renamed));
+                    if (concreteReferences.contains(definition.getData())) {
+                      found = true;
+                      break;
+                    }
+                  }
+
+                  if (found) {
+                    List<Concrete.ResolvableDefinition> newDefinitions = new ArrayList<>(allDefinitions.size());
+                    for (Concrete.ResolvableDefinition definition : allDefinitions) {
+                      newDefinitions.add(concreteReferences.contains(definition.getData()) ? definition : copyDefinition(definition, renamed));
+                    }
+                    element.replace(newDefinitions).feedTo(typechecker);
+                    break;
+                  } else {
+                    element.feedTo(dependencyTypechecker);
                   }
-                  element.replace(newDefinitions).feedTo(typechecker);
-                  break;
-                } else {
-                  element.feedTo(dependencyTypechecker);
                 }
-              }
 
-              progressReporter.endItem(element.getAllDefinitions());
+                progressReporter.endItem(element.getAllDefinitions());
+              }
             }
 
             withTCDefLock(() -> {
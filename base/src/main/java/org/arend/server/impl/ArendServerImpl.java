@@ -11,6 +11,7 @@ import org.arend.ext.util.Pair;
 import org.arend.ext.module.FullName;
 import org.arend.ext.module.ModuleLocation;
 import org.arend.module.scopeprovider.ModuleScopeProvider;
+import org.arend.module.serialization.LemmaBodyStore;
 import org.arend.module.scopeprovider.SimpleModuleScopeProvider;
 import org.arend.naming.reference.*;
 import org.arend.naming.resolving.ResolverListener;
@@ -35,6 +36,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 import java.util.logging.*;
 
@@ -48,9 +50,13 @@ public class ArendServerImpl implements ArendServer {
   private final LibraryService myLibraryService;
   private final ErrorService myErrorService = new ErrorService();
   private final DependencyCollector myDependencyCollector = new DependencyCollector(null);
+  private final ReentrantLock myTCDefLock = new ReentrantLock();
   private final boolean myCacheReferences;
   private final InstanceCacheImpl myInstanceCache = new InstanceCacheImpl();
   private final boolean myClearLemmas;
+  private LemmaBodyStore myLemmaBodyStore;
+  private int myTypecheckingParallelism = 1;
+  private int myResolvingParallelism = 1;
 
   private final TypingInfo myTypingInfo = new TypingInfo() {
     @Override
@@ -132,6 +138,48 @@ public class ArendServerImpl implements ArendServer {
     return myClearLemmas;
   }
 
+  LemmaBodyStore getLemmaBodyStore() {
+    return myLemmaBodyStore;
+  }
+
+  /**
+   * Sets the store for bodies of lemmas.
+   * If lemmas are cleared and the store is not null, their bodies are moved to the store instead of being discarded.
+   */
+  public void setLemmaBodyStore(@Nullable LemmaBodyStore store) {
+    myLemmaBodyStore = store;
+  }
+
+  int getTypecheckingParallelism() {
+    return myTypecheckingParallelism;
+  }
+
+  /**
+   * Sets the number of workers used to typecheck independent definitions.
+   * If it is 1, definitions are typechecked sequentially.
+   */
+  public void setTypecheckingParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException();
+    }
+    myTypecheckingParallelism = parallelism;
+  }
+
+  int getResolvingParallelism() {
+    return myResolvingParallelism;
+  }
+
+  /**
+   * Sets the number of workers used to resolve modules.
+   * If it is 1, modules are resolved sequentially.
+   */
+  public void setResolvingParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException();
+    }
+    myResolvingParallelism = parallelism;
+  }
+
   public ArendServerRequester getRequester() {
     return myRequester;
   }
@@ -148,6 +196,10 @@ public class ArendServerImpl implements ArendServer {
     return myDependencyCollector;
   }
 
+  ReentrantLock getTCDefLock() {
+    return myTCDefLock;
+  }
+
   void clearReverseDependencies(String libraryName) {
     for (Iterator<Map.Entry<ModuleLocation, GroupData>> iterator = myGroups.entrySet().iterator(); iterator.hasNext(); ) {
       Map.Entry<ModuleLocation, GroupData> entry = iterator.next();
@@ -341,6 +393,7 @@ public class ArendServerImpl implements ArendServer {
 
         if (prevData != null) {
           clearReverseDependencies(module, prevData.getRawGroup());
+          LexicalScope.invalidateIndex(prevData.getRawGroup());
         }
         resetReverseDependencies(module.getModulePath(), new HashSet<>());
 
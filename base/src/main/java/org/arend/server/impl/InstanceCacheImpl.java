@@ -14,6 +14,7 @@ import org.arend.server.InstanceCache;
 import org.arend.term.concrete.Concrete;
 import org.arend.term.group.ConcreteGroup;
 import org.arend.typechecking.instance.pool.GlobalInstancePool;
+import org.arend.typechecking.instance.pool.InstanceIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -22,10 +23,12 @@ import java.util.*;
 public class InstanceCacheImpl implements InstanceCache {
   private final Map<TCDefReferable, Set<TCDefReferable>> myCache = new HashMap<>();
   private final Map<TCDefReferable, TCDefReferable> myInstances = new HashMap<>();
+  private final Map<TCDefReferable, InstanceIndex> myIndices = new HashMap<>();
 
   private void addInstance(TCDefReferable classRef, TCDefReferable instanceRef) {
     myInstances.put(instanceRef, classRef);
-    myCache.computeIfAbsent(classRef, k -> new HashSet<>()).add(instanceRef);
+    myCache.computeIfAbsent(classRef, k -> new LinkedHashSet<>()).add(instanceRef);
+    myIndices.remove(classRef);
   }
 
   public synchronized void addInstances(GroupData groupData, TypingInfo typingInfo) {
@@ -52,6 +55,7 @@ public class InstanceCacheImpl implements InstanceCache {
   private void removeInstance(TCDefReferable instanceRef) {
     TCDefReferable classRef = myInstances.remove(instanceRef);
     if (classRef != null) {
+      myIndices.remove(classRef);
       Set<TCDefReferable> instances = myCache.get(classRef);
       if (instances != null) {
         instances.remove(instanceRef);
@@ -71,7 +75,7 @@ public class InstanceCacheImpl implements InstanceCache {
   }
 
   @Override
-  public boolean hasInstances(@NotNull TCDefReferable classRef) {
+  public synchronized boolean hasInstances(@NotNull TCDefReferable classRef) {
     return myCache.containsKey(classRef);
   }
 
@@ -84,7 +88,7 @@ public class InstanceCacheImpl implements InstanceCache {
    */
   @Override
   @NotNull
-  public List<List<TCDefReferable>> getAvailableInstances(@NotNull TCDefReferable classRef, @Nullable Expression classifyingExpression) {
+  public synchronized List<List<TCDefReferable>> getAvailableInstances(@NotNull TCDefReferable classRef, @Nullable Expression classifyingExpression) {
     Set<TCDefReferable> instances = myCache.get(classRef);
     if (instances == null) return Collections.emptyList();
 
@@ -101,7 +105,12 @@ public class InstanceCacheImpl implements InstanceCache {
 
     List<List<TCDefReferable>> typecheckedResult = new ArrayList<>();
     if (!typecheckedInstances.isEmpty()) {
-      Concrete.Expression expr = new GlobalInstancePool(typecheckedInstances, null).findInstance(classifyingExpression, new SubclassSearchParameters(classDef), null, null, null);
+      InstanceIndex index = myIndices.get(classRef);
+      if (index == null || !index.getInstances().equals(typecheckedInstances)) {
+        index = new InstanceIndex(typecheckedInstances);
+        myIndices.put(classRef, index);
+      }
+      Concrete.Expression expr = new GlobalInstancePool(index, null).findInstance(classifyingExpression, new SubclassSearchParameters(classDef), null, null, null);
       List<TCDefReferable> instanceRefs = new ArrayList<>();
       while (expr instanceof Concrete.AppExpression appExpr) {
         if (appExpr.getArguments().getFirst().expression instanceof Concrete.ReferenceExpression refExpr && refExpr.getReferent() instanceof TCDefReferable instanceRef) {
@@ -0,0 +1,191 @@
+package org.arend.source;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import org.arend.ext.error.ErrorReporter;
+import org.arend.ext.module.ModuleLocation;
+import org.arend.ext.module.ModulePath;
+import org.arend.module.error.ExceptionError;
+import org.arend.module.serialization.ModuleProtos;
+import org.arend.module.serialization.ModuleSerialization;
+import org.arend.prelude.Prelude;
+import org.arend.server.ArendServer;
+import org.arend.term.group.ConcreteGroup;
+import org.arend.term.group.ConcreteStatement;
+import org.arend.typechecking.order.dependency.DependencyCollector;
+import org.arend.typechecking.order.dependency.DependencyListener;
+import org.arend.util.FileUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A cache of typechecked modules used for incremental builds.
+ * Each entry stores the hash of the source of a module and the interface hashes of the modules it depends on.
+ * An entry is loaded only if both are unchanged; otherwise, the module is typechecked from the source.
+ * The interface hash of a module is computed from the part of its definitions that other modules can depend on,
+ * so changes in bodies of lemmas do not invalidate dependent modules.
+ * Since entries refer to definitions of other modules by names, dependencies of a module are the modules it imports
+ * together with all modules its entry refers to.
+ */
+public class BuildCache {
+  private final Path myCacheDir;
+  private final Function<ModuleLocation, byte[]> mySourceHashProvider;
+  private final Map<ModuleLocation, ByteString> myInterfaceHashes = new ConcurrentHashMap<>();
+  private final Set<ModuleLocation> myVisited = ConcurrentHashMap.newKeySet();
+
+  /**
+   * @param cacheDir            the directory in which entries are stored.
+   * @param sourceHashProvider  computes hashes of sources of modules; returns null if the source is not available.
+   */
+  public BuildCache(@NotNull Path cacheDir, @NotNull Function<ModuleLocation, byte[]> sourceHashProvider) {
+    myCacheDir = cacheDir;
+    mySourceHashProvider = sourceHashProvider;
+  }
+
+  private Path getLibraryDir(ModuleLocation module) {
+    return myCacheDir.resolve(module.getLibraryName());
+  }
+
+  private static ByteString computeHash(ModuleProtos.Module module) {
+    try {
+      byte[] bytes = new byte[module.getSerializedSize()];
+      CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+      // Map fields are written in an unspecified order by default
+      output.useDeterministicSerialization();
+      module.writeTo(output);
+      output.checkNoSpaceLeft();
+      return ByteString.copyFrom(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException | IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Set<ModulePath> getDependencies(ConcreteGroup group, ModuleProtos.Module module) {
+    Set<ModulePath> result = new LinkedHashSet<>();
+    for (ConcreteStatement statement : group.statements()) {
+      if (statement.command() != null && statement.command().isImport()) {
+        result.add(new ModulePath(statement.command().module().getPath()));
+      }
+    }
+    for (ModuleProtos.ModuleCallTargets moduleCallTargets : module.getModuleCallTargetsList()) {
+      result.add(new ModulePath(moduleCallTargets.getNameList()));
+    }
+    result.remove(Prelude.MODULE_PATH);
+    return result;
+  }
+
+  private boolean isUpToDate(ArendServer server, ModuleLocation module, ModuleProtos.Module moduleProto) {
+    byte[] sourceHash = mySourceHashProvider.apply(module);
+    if (sourceHash == null || !moduleProto.getSourceHash().equals(ByteString.copyFrom(sourceHash))) {
+      return false;
+    }
+
+    for (ModuleProtos.ModuleHash dependency : moduleProto.getDependencyList()) {
+      // Dependencies are loaded from the cache (if possible) when they are found
+      ModuleLocation location = server.findModule(new ModulePath(dependency.getNameList()), module.getLibraryName(), false, true);
+      if (location == null || !location.getLibraryName().equals(dependency.getLibrary()) || !dependency.getHash().equals(myInterfaceHashes.get(location))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Loads typechecked definitions of a module from its entry if it is up to date.
+   *
+   * @return true if the module was loaded, false otherwise.
+   */
+  public boolean load(@NotNull ArendServer server, @NotNull ModuleLocation module, @NotNull DependencyListener dependencyListener, @NotNull ErrorReporter errorReporter) {
+    ConcreteGroup group = server.getRawGroup(module);
+    if (group == null || module.getLocationKind() != ModuleLocation.LocationKind.SOURCE || !Files.isRegularFile(FileUtils.binaryFile(getLibraryDir(module), module.getModulePath()))) {
+      return false;
+    }
+
+    ByteString[] interfaceHash = new ByteString[1];
+    if (!new GZIPStreamBinarySource(new FileBinarySource(getLibraryDir(module), module)).loadDefinitions(group, server.getModuleScopeProvider(module.getLibraryName(), false), dependencyListener, errorReporter, moduleProto -> {
+      if (!isUpToDate(server, module, moduleProto)) return false;
+      interfaceHash[0] = moduleProto.getInterfaceHash();
+      return true;
+    }, null)) {
+      return false;
+    }
+
+    myInterfaceHashes.put(module, interfaceHash[0]);
+    myVisited.add(module);
+    return true;
+  }
+
+  /**
+   * Registers a module that was loaded from a binary of its library instead of the cache.
+   * The module is not stored in the cache, and modules that depend on it are up to date as long as the binary is the same.
+   */
+  public void addLibraryBinary(@NotNull ModuleLocation module, @NotNull ModuleProtos.Module moduleProto) {
+    myInterfaceHashes.put(module, computeHash(moduleProto));
+    myVisited.add(module);
+  }
+
+  /**
+   * Stores entries for all complete modules that were not loaded from the cache.
+   */
+  public void persist(@NotNull ArendServer server, @NotNull ErrorReporter errorReporter) {
+    for (ModuleLocation module : server.getModules()) {
+      persist(server, module, errorReporter);
+    }
+  }
+
+  private @Nullable ByteString persist(ArendServer server, ModuleLocation module, ErrorReporter errorReporter) {
+    if (!myVisited.add(module)) {
+      return myInterfaceHashes.get(module);
+    }
+
+    ConcreteGroup group = server.getRawGroup(module);
+    if (group == null || module.getLocationKind() != ModuleLocation.LocationKind.SOURCE) {
+      return null;
+    }
+
+    byte[] sourceHash = mySourceHashProvider.apply(module);
+    if (sourceHash == null) {
+      return null;
+    }
+
+    ModuleProtos.Module moduleProto;
+    ModuleProtos.Module interfaceProto;
+    try {
+      moduleProto = new ModuleSerialization(errorReporter, new DependencyCollector(null)).writeModule(group, module.getModulePath());
+      interfaceProto = moduleProto == null || !moduleProto.getComplete() ? null : new ModuleSerialization(errorReporter, new DependencyCollector(null), true).writeModule(group, module.getModulePath());
+    } catch (Exception e) {
+      errorReporter.report(new ExceptionError(e, "persisting", module.getModulePath()));
+      return null;
+    }
+    if (interfaceProto == null) {
+      return null;
+    }
+
+    List<ModuleProtos.ModuleHash> dependencies = new ArrayList<>();
+    for (ModulePath modulePath : getDependencies(group, moduleProto)) {
+      ModuleLocation location = server.findModule(modulePath, module.getLibraryName(), false, true);
+      ByteString hash = location == null ? null : persist(server, location, errorReporter);
+      if (hash == null) {
+        return null;
+      }
+      dependencies.add(ModuleProtos.ModuleHash.newBuilder().setLibrary(location.getLibraryName()).addAllName(modulePath.toList()).setHash(hash).build());
+    }
+
+    ByteString interfaceHash = computeHash(interfaceProto);
+    if (!new GZIPStreamBinarySource(new FileBinarySource(getLibraryDir(module), module)).persist(moduleProto.toBuilder().setSourceHash(ByteString.copyFrom(sourceHash)).addAllDependency(dependencies).setInterfaceHash(interfaceHash).build(), errorReporter)) {
+      return null;
+    }
+
+    myInterfaceHashes.put(module, interfaceHash);
+    return interfaceHash;
+  }
+}
@@ -43,7 +43,7 @@ public class FileBinarySource extends StreamBinarySource {
   @Override
   protected OutputStream getOutputStream() throws IOException {
     Files.createDirectories(myFile.getParent());
-    return Files.newOutputStream(myFile, StandardOpenOption.CREATE);
+    return Files.newOutputStream(myFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
   }
 
   @Override
@@ -1,19 +1,24 @@
 package org.arend.source;
 
+import com.google.protobuf.CodedInputStream;
 import org.arend.ext.error.ErrorReporter;
 import org.arend.ext.module.ModulePath;
 import org.arend.ext.typechecking.DefinitionListener;
 import org.arend.extImpl.SerializableKeyRegistryImpl;
 import org.arend.ext.module.ModuleLocation;
 import org.arend.module.error.ExceptionError;
+import org.arend.module.scopeprovider.ModuleScopeProvider;
 import org.arend.module.serialization.ModuleDeserialization;
 import org.arend.module.serialization.ModuleProtos;
 import org.arend.module.serialization.ModuleSerialization;
+import org.arend.naming.reference.InternalReferable;
+import org.arend.naming.reference.TCDefReferable;
 import org.arend.server.ArendServer;
 import org.arend.source.error.LocationError;
 import org.arend.source.error.PersistingError;
 import org.arend.term.group.ConcreteGroup;
 import org.arend.typechecking.order.dependency.DependencyCollector;
+import org.arend.typechecking.order.dependency.DependencyListener;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -22,15 +27,15 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Represents a source that loads a binary module from an {@link InputStream} and persists it to an {@link OutputStream}.
  */
 public abstract class StreamBinarySource implements PersistableBinarySource {
-  private ModuleDeserialization myModuleDeserialization;
   private SerializableKeyRegistryImpl myKeyRegistry;
   private DefinitionListener myDefinitionListener;
-  private int myPass = 0;
   private final List<ModulePath> myDependencies = new ArrayList<>();
 
   @Override
@@ -63,6 +68,76 @@ public abstract class StreamBinarySource implements PersistableBinarySource {
     return myDependencies;
   }
 
+  protected static ModuleProtos.Module readModuleProto(InputStream inputStream) throws IOException {
+    CodedInputStream codedInputStream = CodedInputStream.newInstance(inputStream);
+    codedInputStream.setRecursionLimit(Integer.MAX_VALUE);
+    return ModuleProtos.Module.parseFrom(codedInputStream);
+  }
+
+  private static void clearDefinitions(ConcreteGroup group) {
+    group.traverseGroup(subgroup -> {
+      if (subgroup.referable() instanceof TCDefReferable referable) {
+        referable.setTypechecked(null);
+      }
+      for (InternalReferable internalReferable : subgroup.getInternalReferables()) {
+        internalReferable.setTypechecked(null);
+      }
+    });
+  }
+
+  /**
+   * Loads typechecked definitions of a module from this source.
+   * Definitions are attached to the referables of {@code group} which should be the group of the corresponding raw source.
+   * If loading fails, typechecked definitions of the group are cleared.
+   *
+   * @param group               the group of the module.
+   * @param moduleScopeProvider a provider of scopes of modules on which the loaded module depends.
+   * @param dependencyListener  a listener for dependencies between loaded definitions.
+   * @param errorReporter       a reporter for all errors that occur during loading process.
+   * @param validator           invoked before definitions are created; the module is not loaded if it returns false.
+   * @param headersLoaded       invoked after definitions are created and before their bodies are read.
+   *
+   * @return true if the module is complete and loaded successfully, false otherwise.
+   */
+  public boolean loadDefinitions(@NotNull ConcreteGroup group, @NotNull ModuleScopeProvider moduleScopeProvider, @NotNull DependencyListener dependencyListener, @NotNull ErrorReporter errorReporter, @Nullable Predicate<ModuleProtos.Module> validator, @Nullable Consumer<ConcreteGroup> headersLoaded) {
+    ModulePath modulePath = getModule().getModulePath();
+    try (InputStream inputStream = getInputStream()) {
+      if (inputStream == null) {
+        return false;
+      }
+
+      ModuleProtos.Module moduleProto = readModuleProto(inputStream);
+      if (moduleProto.getVersion() != ModuleSerialization.VERSION || !moduleProto.getComplete() || validator != null && !validator.test(moduleProto)) {
+        return false;
+      }
+
+      myDependencies.clear();
+      for (ModuleProtos.ModuleCallTargets moduleCallTargets : moduleProto.getModuleCallTargetsList()) {
+        myDependencies.add(new ModulePath(moduleCallTargets.getNameList()));
+      }
+
+      ModuleDeserialization moduleDeserialization = new ModuleDeserialization(moduleProto, myKeyRegistry, myDefinitionListener);
+      moduleDeserialization.readDefinitions(group);
+      if (headersLoaded != null) {
+        headersLoaded.accept(group);
+      }
+      moduleDeserialization.readModule(moduleScopeProvider, dependencyListener);
+      return true;
+    } catch (Exception e) {
+      clearDefinitions(group);
+      errorReporter.report(new ExceptionError(e, "loading", modulePath));
+      return false;
+    }
+  }
+
+  public boolean loadDefinitions(@NotNull ConcreteGroup group, @NotNull ModuleScopeProvider moduleScopeProvider, @NotNull DependencyListener dependencyListener, @NotNull ErrorReporter errorReporter, @Nullable Consumer<ConcreteGroup> headersLoaded) {
+    return loadDefinitions(group, moduleScopeProvider, dependencyListener, errorReporter, null, headersLoaded);
+  }
+
+  public boolean loadDefinitions(@NotNull ConcreteGroup group, @NotNull ModuleScopeProvider moduleScopeProvider, @NotNull DependencyListener dependencyListener, @NotNull ErrorReporter errorReporter) {
+    return loadDefinitions(group, moduleScopeProvider, dependencyListener, errorReporter, null, null);
+  }
+
   /* TODO[server2]:
   public static ConcreteGroup getGroup(InputStream inputStream, OldLibraryManager libraryManager, SourceLibrary library) throws IOException, DeserializationException {
     CodedInputStream codedInputStream = CodedInputStream.newInstance(inputStream);
@@ -78,60 +153,6 @@ public abstract class StreamBinarySource implements PersistableBinarySource {
 
     return group;
   }
-
-  public @NotNull LoadResult load(SourceLoader sourceLoader) {
-    SourceLibrary library = sourceLoader.getLibrary();
-    ModulePath modulePath = getModulePath();
-
-    if (myPass == 0) {
-      try (InputStream inputStream = getInputStream()) {
-        if (inputStream == null) {
-          sourceLoader.getLibraryErrorReporter().report(LibraryError.moduleLoading(modulePath, library.getName()));
-          return LoadResult.FAIL;
-        }
-
-        CodedInputStream codedInputStream = CodedInputStream.newInstance(inputStream);
-        codedInputStream.setRecursionLimit(Integer.MAX_VALUE);
-        ModuleProtos.Module moduleProto = ModuleProtos.Module.parseFrom(codedInputStream);
-
-        for (ModuleProtos.ModuleCallTargets moduleCallTargets : moduleProto.getModuleCallTargetsList()) {
-          myDependencies.add(new ModulePath(moduleCallTargets.getNameList()));
-        }
-
-        boolean isComplete = moduleProto.getComplete();
-        if (!isComplete && !library.hasRawSources()) {
-          sourceLoader.getLibraryErrorReporter().report(new PartialModuleError(modulePath));
-          return LoadResult.FAIL;
-        }
-
-        myModuleDeserialization = new ModuleDeserialization(moduleProto, myKeyRegistry, myDefinitionListener);
-
-        ConcreteGroup group = library.getModuleGroup(modulePath, false);
-        if (group == null) {
-          sourceLoader.getLibraryErrorReporter().report(LibraryError.moduleNotFound(modulePath, library.getName()));
-          library.groupLoaded(modulePath, null, false, false);
-          return LoadResult.FAIL;
-        }
-        myModuleDeserialization.readDefinitions(group);
-
-        myPass = 1;
-        return LoadResult.CONTINUE;
-      } catch (IOException | DeserializationException e) {
-        loadingFailed(sourceLoader, modulePath, e);
-        return LoadResult.FAIL;
-      }
-    }
-
-    try {
-      myModuleDeserialization.readModule(sourceLoader.getModuleScopeProvider(false), library.getDependencyListener());
-      library.binaryLoaded(modulePath, myModuleDeserialization.getModuleProto().getComplete());
-      myModuleDeserialization = null;
-      return LoadResult.SUCCESS;
-    } catch (DeserializationException e) {
-      loadingFailed(sourceLoader, modulePath, e);
-      return LoadResult.FAIL;
-    }
-  }
   */
 
   @Override
@@ -143,21 +164,33 @@ public abstract class StreamBinarySource implements PersistableBinarySource {
       return false;
     }
 
+    ModuleProtos.Module module;
+    try {
+      module = new ModuleSerialization(errorReporter, new DependencyCollector(null)).writeModule(group, currentModule.getModulePath());
+    } catch (Exception e) {
+      errorReporter.report(new ExceptionError(e, "persisting", currentModule.getModulePath()));
+      return false;
+    }
+    return module != null && persist(module, errorReporter);
+  }
+
+  /**
+   * Persists an already serialized module.
+   *
+   * @return true if the module was persisted successfully, false otherwise.
+   */
+  public boolean persist(@NotNull ModuleProtos.Module module, @NotNull ErrorReporter errorReporter) {
+    ModulePath modulePath = getModule().getModulePath();
     try (OutputStream outputStream = getOutputStream()) {
       if (outputStream == null) {
-        errorReporter.report(new PersistingError(currentModule.getModulePath()));
-        return false;
-      }
-
-      ModuleProtos.Module module = new ModuleSerialization(errorReporter, new DependencyCollector(null)).writeModule(group, currentModule.getModulePath());
-      if (module == null) {
+        errorReporter.report(new PersistingError(modulePath));
         return false;
       }
 
       module.writeTo(outputStream);
       return true;
     } catch (Exception e) {
-      errorReporter.report(new ExceptionError(e, "persisting", currentModule.getModulePath()));
+      errorReporter.report(new ExceptionError(e, "persisting", modulePath));
       return false;
     }
   }
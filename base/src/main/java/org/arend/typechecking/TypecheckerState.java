@@ -3,12 +3,10 @@ package org.arend.typechecking;
 import org.arend.core.context.binding.inference.InferenceVariable;
 import org.arend.ext.error.ListErrorReporter;
 import org.arend.extImpl.userData.UserDataHolderImpl;
-import org.arend.typechecking.implicitargs.equations.Equation;
 import org.arend.typechecking.visitor.CheckTypeVisitor;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 public class TypecheckerState {
   public final CheckTypeVisitor.MyErrorReporter errorReporter;
@@ -16,13 +14,11 @@ public class TypecheckerState {
   public final int numberOfDeferredMetasAfterLevels;
   public final TypecheckerState previousState;
   public final List<InferenceVariable> solvedVariables = new ArrayList<>();
-  public List<Equation> equations;
+  public int equationsTrailPosition;
   public int numberOfLevelVariables;
   public int numberOfLevelEquations;
-  public Set<InferenceVariable> propVars;
   public int numberOfBoundVars;
   public final ListErrorReporter listErrorReporter;
-  public Set<InferenceVariable> notSolvableFromEquationsVars;
   public UserDataHolderImpl userDataHolder;
   public final boolean allowDeferredMetas;
 
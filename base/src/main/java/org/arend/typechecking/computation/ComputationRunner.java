@@ -1,29 +1,67 @@
 package org.arend.typechecking.computation;
 
+import org.arend.core.expr.visitor.NormalizationCache;
+import org.arend.naming.reference.TCDefReferable;
 import org.arend.util.ComputationInterruptedException;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
+/**
+ * Runs computations that can be canceled.
+ * The cancellation indicator is scoped to the thread that runs a computation and to threads started by it,
+ * so computations in different threads do not block each other.
+ * Each computation also has a {@link NormalizationCache} which is shared with the threads started by it.
+ */
 public class ComputationRunner<T> {
-  private static CancellationIndicator CANCELLATION_INDICATOR = UnstoppableCancellationIndicator.INSTANCE;
-  private static final Lock lock = new ReentrantLock();
+  private static final InheritableThreadLocal<CancellationIndicator> CANCELLATION_INDICATOR = new InheritableThreadLocal<>() {
+    @Override
+    protected CancellationIndicator initialValue() {
+      return UnstoppableCancellationIndicator.INSTANCE;
+    }
+  };
+  private static final InheritableThreadLocal<NormalizationCache> NORMALIZATION_CACHE = new InheritableThreadLocal<>();
+  private static final ThreadLocal<Deque<SavedIndicator>> SAVED_INDICATORS = ThreadLocal.withInitial(ArrayDeque::new);
+  // Indicators of running computations with the number of computations that use each of them
+  private static final Map<CancellationIndicator, Integer> RUNNING_INDICATORS = new ConcurrentHashMap<>();
+
+  private record SavedIndicator(CancellationIndicator previous, CancellationIndicator current, NormalizationCache previousCache) {}
 
   public static void checkCanceled() throws ComputationInterruptedException {
-    CANCELLATION_INDICATOR.checkCanceled();
+    CANCELLATION_INDICATOR.get().checkCanceled();
   }
 
   public static CancellationIndicator getCancellationIndicator() {
-    return CANCELLATION_INDICATOR;
+    return CANCELLATION_INDICATOR.get();
   }
 
   public static void resetCancellationIndicator() {
-    CANCELLATION_INDICATOR = UnstoppableCancellationIndicator.INSTANCE;
+    CANCELLATION_INDICATOR.set(UnstoppableCancellationIndicator.INSTANCE);
   }
 
   public static boolean isCancellationIndicatorSet() {
-    return CANCELLATION_INDICATOR != UnstoppableCancellationIndicator.INSTANCE;
+    return CANCELLATION_INDICATOR.get() != UnstoppableCancellationIndicator.INSTANCE;
+  }
+
+  /**
+   * @return the cache of the current computation or null if no computation is running in the current thread.
+   */
+  public static @Nullable NormalizationCache getNormalizationCache() {
+    return NORMALIZATION_CACHE.get();
+  }
+
+  /**
+   * Cancels every running computation that depends on the given definitions.
+   */
+  public static void cancelComputations(Set<? extends TCDefReferable> definitions) {
+    for (CancellationIndicator indicator : RUNNING_INDICATORS.keySet()) {
+      indicator.cancel(definitions);
+    }
   }
 
   protected T computationInterrupted() {
@@ -31,15 +69,33 @@ public class ComputationRunner<T> {
   }
 
   public static void lock(CancellationIndicator cancellationIndicator) {
-    lock.lock();
+    NormalizationCache cache = NORMALIZATION_CACHE.get();
+    SAVED_INDICATORS.get().push(new SavedIndicator(CANCELLATION_INDICATOR.get(), cancellationIndicator, cache));
+    if (cache == null) {
+      NORMALIZATION_CACHE.set(new NormalizationCache());
+    }
     if (cancellationIndicator != null) {
-      CANCELLATION_INDICATOR = cancellationIndicator;
+      RUNNING_INDICATORS.merge(cancellationIndicator, 1, Integer::sum);
+      CANCELLATION_INDICATOR.set(cancellationIndicator);
     }
   }
 
   public static void unlock() {
-    CANCELLATION_INDICATOR = UnstoppableCancellationIndicator.INSTANCE;
-    lock.unlock();
+    Deque<SavedIndicator> savedIndicators = SAVED_INDICATORS.get();
+    SavedIndicator saved = savedIndicators.poll();
+    if (saved == null) {
+      throw new IllegalStateException("Computation is not running in the current thread");
+    }
+    if (saved.current != null) {
+      RUNNING_INDICATORS.computeIfPresent(saved.current, (indicator, count) -> count == 1 ? null : count - 1);
+    }
+    CANCELLATION_INDICATOR.set(saved.previous);
+    if (saved.previousCache == null) {
+      NORMALIZATION_CACHE.remove();
+    }
+    if (savedIndicators.isEmpty()) {
+      SAVED_INDICATORS.remove();
+    }
   }
 
   public T run(CancellationIndicator cancellationIndicator, Supplier<T> runnable) {
@@ -31,4 +31,5 @@ public interface Equations {
   boolean supportsExpressions();
   void saveState(TypecheckerState state);
   void loadState(TypecheckerState state);
+  void releaseState(TypecheckerState state);
 }
@@ -1,9 +1,6 @@
 package org.arend.typechecking.implicitargs.equations;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public class LevelEquations<Var> {
   private final List<Var> myVariables = new ArrayList<>();
@@ -40,50 +37,145 @@ public class LevelEquations<Var> {
     return myVariables.isEmpty() && myEquations.isEmpty();
   }
 
-  public List<LevelEquation<Var>> solve(Map<Var, Integer> solution) {
-    Map<Var, List<LevelEquation<Var>>> paths = new HashMap<>();
+  private static int getIndex(Map<Object, Integer> indices, List<Object> nodes, Object var) {
+    Integer index = indices.get(var);
+    if (index == null) {
+      index = nodes.size();
+      indices.put(var, index);
+      nodes.add(var);
+    }
+    return index;
+  }
 
-    solution.put(null, 0);
-    paths.put(null, new ArrayList<>());
+  /**
+   * Finds the least solution of equations using a queue-based version of the Bellman-Ford algorithm.
+   * Variables (and null, which represents constant levels) are nodes of a graph and equations are its edges.
+   *
+   * @param solution a map to which the solution is written; values are negated levels.
+   * @return null if equations are solvable, and a list of contradicting equations otherwise.
+   */
+  public List<LevelEquation<Var>> solve(Map<Var, Integer> solution) {
+    Map<Object, Integer> indices = new HashMap<>();
+    List<Object> nodes = new ArrayList<>();
+    getIndex(indices, nodes, null);
     for (Var var : myVariables) {
-      solution.put(var, 0);
-      paths.put(var, new ArrayList<>());
+      getIndex(indices, nodes, var);
+    }
+
+    // Edges are stored in arrays; outgoing edges of a node form a linked list starting at head[node]
+    int numberOfEquations = myEquations.size();
+    int[] source = new int[numberOfEquations];
+    int[] target = new int[numberOfEquations];
+    int[] next = new int[numberOfEquations];
+    List<Integer> infinite = new ArrayList<>();
+    for (int i = 0; i < numberOfEquations; i++) {
+      LevelEquation<Var> equation = myEquations.get(i);
+      if (equation.isInfinity()) {
+        source[i] = -1;
+        infinite.add(getIndex(indices, nodes, equation.getVariable()));
+      } else {
+        source[i] = getIndex(indices, nodes, equation.getVariable1());
+        target[i] = getIndex(indices, nodes, equation.getVariable2());
+      }
     }
 
-    for (int i = myVariables.size(); i >= 0; i--) {
-      boolean updated = false;
-      for (LevelEquation<Var> equation : myEquations) {
-        if (equation.isInfinity()) {
-          Integer prev = solution.put(equation.getVariable(), INFINITY);
-          if (prev == null || prev != INFINITY) {
-            updated = true;
+    int numberOfNodes = nodes.size();
+    int[] head = new int[numberOfNodes];
+    Arrays.fill(head, -1);
+    for (int i = numberOfEquations - 1; i >= 0; i--) {
+      if (source[i] >= 0) {
+        next[i] = head[source[i]];
+        head[source[i]] = i;
+      }
+    }
+
+    int[] distance = new int[numberOfNodes];
+    int[] predecessor = new int[numberOfNodes];
+    // The number of equations on the path that gives the current distance of a node
+    int[] pathLength = new int[numberOfNodes];
+    Arrays.fill(predecessor, -1);
+    int[] queue = new int[numberOfNodes];
+
+    // Infinity propagates along every equation, so infinite nodes are found before finite distances are computed
+    int queueStart = 0, queueSize = 0;
+    for (int node : infinite) {
+      if (distance[node] != INFINITY) {
+        distance[node] = INFINITY;
+        queue[queueSize++] = node;
+      }
+    }
+    while (queueStart < queueSize) {
+      int node = queue[queueStart++];
+      for (int i = head[node]; i >= 0; i = next[i]) {
+        if (distance[target[i]] != INFINITY) {
+          distance[target[i]] = INFINITY;
+          queue[queueSize++] = target[i];
+        }
+      }
+    }
+
+    boolean[] inQueue = new boolean[numberOfNodes];
+    queueStart = 0;
+    queueSize = 0;
+    for (int i = 0; i < numberOfNodes; i++) {
+      if (distance[i] != INFINITY) {
+        queue[queueSize++] = i;
+        inQueue[i] = true;
+      }
+    }
+
+    List<LevelEquation<Var>> result = null;
+    loop:
+    while (queueSize > 0) {
+      int node = queue[queueStart];
+      queueStart = (queueStart + 1) % numberOfNodes;
+      queueSize--;
+      inQueue[node] = false;
+
+      int a = distance[node];
+      for (int i = head[node]; i >= 0; i = next[i]) {
+        LevelEquation<Var> equation = myEquations.get(i);
+        int var2 = target[i];
+        Integer m = equation.getMaxConstant();
+        if (distance[var2] != INFINITY && (m == null || a + m < 0) && distance[var2] > a + equation.getConstant()) {
+          predecessor[var2] = i;
+          pathLength[var2] = pathLength[node] + 1;
+          // A path with at least as many equations as there are nodes goes through a cycle, which must be negative
+          if (var2 == 0 || pathLength[var2] >= numberOfNodes) {
+            result = getPath(var2, predecessor, source);
+            break loop;
           }
-        } else {
-          int a = solution.get(equation.getVariable1());
-          int b = solution.get(equation.getVariable2());
-          Integer m = equation.getMaxConstant();
-          if (b != INFINITY && (a == INFINITY || (m == null || a + m < 0) && b > a + equation.getConstant())) {
-            if (a != INFINITY) {
-              List<LevelEquation<Var>> newPath = new ArrayList<>(paths.get(equation.getVariable1()));
-              newPath.add(equation);
-              paths.put(equation.getVariable2(), newPath);
-            }
-            if (i == 0 || equation.getVariable2() == null && a != INFINITY) {
-              solution.remove(null);
-              return paths.get(equation.getVariable2());
-            }
-
-            solution.put(equation.getVariable2(), a == INFINITY ? INFINITY : a + equation.getConstant());
-            updated = true;
+
+          distance[var2] = a + equation.getConstant();
+          if (!inQueue[var2]) {
+            inQueue[var2] = true;
+            queue[(queueStart + queueSize) % numberOfNodes] = var2;
+            queueSize++;
           }
         }
       }
-      if (!updated) {
-        break;
-      }
     }
 
-    solution.remove(null);
-    return null;
+    for (int i = 1; i < numberOfNodes; i++) {
+      @SuppressWarnings("unchecked") Var var = (Var) nodes.get(i);
+      solution.put(var, distance[i]);
+    }
+    return result;
+  }
+
+  /**
+   * @return equations on the path to the given node that consists of its predecessors.
+   *         If this path goes through a cycle, the cycle is included once.
+   */
+  private List<LevelEquation<Var>> getPath(int node, int[] predecessor, int[] source) {
+    List<LevelEquation<Var>> path = new ArrayList<>();
+    Set<Integer> visited = new HashSet<>();
+    while (predecessor[node] >= 0 && visited.add(node)) {
+      int equation = predecessor[node];
+      path.add(myEquations.get(equation));
+      node = source[equation];
+    }
+    Collections.reverse(path);
+    return path;
   }
 }
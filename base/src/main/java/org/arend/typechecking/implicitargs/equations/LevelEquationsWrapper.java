@@ -97,4 +97,9 @@ public class LevelEquationsWrapper implements Equations {
   public void loadState(TypecheckerState state) {
     myEquations.loadState(state);
   }
+
+  @Override
+  public void releaseState(TypecheckerState state) {
+    myEquations.releaseState(state);
+  }
 }
@@ -34,19 +34,23 @@ import org.arend.typechecking.error.local.SolveEquationsError;
 import org.arend.typechecking.error.local.SolveLevelEquationsError;
 import org.arend.typechecking.visitor.CheckTypeVisitor;
 import org.arend.ext.util.Pair;
+import org.arend.util.UndoTrail;
+import org.arend.util.list.UndoableList;
 
 import java.util.*;
 
 import static org.arend.core.expr.ExpressionFactory.Nat;
 
 public class TwoStageEquations implements Equations {
-  private List<Equation> myEquations = new ArrayList<>();
+  private final UndoTrail myTrail = new UndoTrail();
+  private final List<Equation> myEquations = new UndoableList<>(myTrail);
   private final List<LevelEquation<LevelVariable>> myLevelEquations = new ArrayList<>();
   private final List<InferenceLevelVariable> myLevelVariables = new ArrayList<>();
   private final CheckTypeVisitor myVisitor;
-  private Set<InferenceVariable> myProps = new LinkedHashSet<>();
+  private final Set<InferenceVariable> myProps = new LinkedHashSet<>();
   private final List<Pair<InferenceLevelVariable, InferenceLevelVariable>> myBoundVariables = new ArrayList<>();
   private final Map<InferenceVariable, Expression> myNotSolvableFromEquationsVars = new HashMap<>();
+  private List<Equation> myNewEquations; // equations added during the current pass of solveEquations
 
   public TwoStageEquations(CheckTypeVisitor visitor) {
     myVisitor = visitor;
@@ -157,7 +161,9 @@ public class TwoStageEquations implements Equations {
 
       if (cType instanceof UniverseExpression && ((UniverseExpression) cType).getSort().isProp()) {
         if (cmp == CMP.LE) {
-          myProps.add(cInf);
+          if (myProps.add(cInf)) {
+            myTrail.record(() -> myProps.remove(cInf));
+          }
           return true;
         } else {
           cmp = CMP.EQ;
@@ -240,11 +246,14 @@ public class TwoStageEquations implements Equations {
     }
 
     if (cmp == CMP.EQ && (inf1 != null && inf2 == null && expr2.getInferenceVariable(true) == null || inf2 != null && inf1 == null && expr1.getInferenceVariable(true) == null)) {
-      Expression prev = myNotSolvableFromEquationsVars.putIfAbsent(inf1 != null ? inf1 : inf2, inf1 != null ? expr2 : expr1);
-      if (prev != null) {
+      InferenceVariable var = inf1 != null ? inf1 : inf2;
+      Expression prev = myNotSolvableFromEquationsVars.putIfAbsent(var, inf1 != null ? expr2 : expr1);
+      if (prev == null) {
+        myTrail.record(() -> myNotSolvableFromEquationsVars.remove(var));
+      } else {
         Expression normalizedPrev = prev.normalize(NormalizationMode.WHNF);
-        if (normalizedPrev instanceof InferenceReferenceExpression infRefExpr && infRefExpr.getInferenceVariable().equals(inf1 != null ? inf1 : inf2)) {
-          myNotSolvableFromEquationsVars.put(inf1 != null ? inf1 : inf2, inf1 != null ? expr2 : expr1);
+        if (normalizedPrev instanceof InferenceReferenceExpression infRefExpr && infRefExpr.getInferenceVariable().equals(var)) {
+          myNotSolvableFromEquationsVars.put(var, inf1 != null ? expr2 : expr1);
         } else {
           return CompareVisitor.compare(this, CMP.EQ, prev, inf1 != null ? expr2 : expr1, type, sourceNode);
         }
@@ -252,7 +261,7 @@ public class TwoStageEquations implements Equations {
     }
 
     Equation equation = new Equation(expr1, expr2, type, origCmp, sourceNode);
-    myEquations.add(equation);
+    addEquation(equation);
     if (inf1 != null && inf2 != null) {
       inf1.addListener(equation);
       inf2.addListener(equation);
@@ -268,6 +277,13 @@ public class TwoStageEquations implements Equations {
     return true;
   }
 
+  private void addEquation(Equation equation) {
+    myEquations.add(equation);
+    if (myNewEquations != null) {
+      myNewEquations.add(equation);
+    }
+  }
+
   @Override
   public void bindVariables(InferenceLevelVariable pVar, InferenceLevelVariable hVar) {
     assert pVar.getType() == LevelVariable.LvlType.PLVL;
@@ -421,10 +437,20 @@ public class TwoStageEquations implements Equations {
       }
     }
 
-    while (!myEquations.isEmpty()) {
-      if (!solveClassCallsEq()) {
-        break;
+    // Equations can become solvable only if they are added by the previous pass.
+    // Other equations are woken up by their listeners when variables are solved, and they are added again.
+    List<Equation> equations = myEquations;
+    while (!equations.isEmpty()) {
+      List<Equation> newEquations = new ArrayList<>();
+      myNewEquations = newEquations;
+      try {
+        if (!solveClassCallsEq(equations)) {
+          break;
+        }
+      } finally {
+        myNewEquations = null;
       }
+      equations = newEquations;
     }
 
     while (!myEquations.isEmpty()) {
@@ -446,41 +472,55 @@ public class TwoStageEquations implements Equations {
 
   @Override
   public void saveState(TypecheckerState state) {
-    state.equations = new ArrayList<>(myEquations);
+    state.equationsTrailPosition = myTrail.mark();
     state.numberOfLevelVariables = myLevelVariables.size();
     state.numberOfLevelEquations = myLevelEquations.size();
-    state.propVars = new LinkedHashSet<>(myProps);
     state.numberOfBoundVars = myBoundVariables.size();
-    state.notSolvableFromEquationsVars = new HashSet<>(myNotSolvableFromEquationsVars.keySet());
   }
 
   @Override
   public void loadState(TypecheckerState state) {
-    myEquations = new ArrayList<>(state.equations);
+    myTrail.undo(state.equationsTrailPosition);
     if (myLevelVariables.size() > state.numberOfLevelVariables) {
       myLevelVariables.subList(state.numberOfLevelVariables, myLevelVariables.size()).clear();
     }
     if (myLevelEquations.size() > state.numberOfLevelEquations) {
       myLevelEquations.subList(state.numberOfLevelEquations, myLevelEquations.size()).clear();
     }
-    if (myProps.size() > state.propVars.size()) {
-      myProps = new LinkedHashSet<>(state.propVars);
-    }
     if (myBoundVariables.size() > state.numberOfBoundVars) {
       myBoundVariables.subList(state.numberOfBoundVars, myBoundVariables.size()).clear();
     }
-    myNotSolvableFromEquationsVars.keySet().retainAll(state.notSolvableFromEquationsVars);
   }
 
-  private boolean solveClassCallsEq() {
+  @Override
+  public void releaseState(TypecheckerState state) {
+    myTrail.release();
+  }
+
+  /**
+   * Solves equations of the form {@code ?x = e}, where {@code e} is not a variable.
+   *
+   * @param equations either {@link #myEquations} or equations that were added to it after the previous pass.
+   */
+  private boolean solveClassCallsEq(List<Equation> equations) {
+    boolean allEquations = equations == myEquations;
     List<Pair<InferenceVariable, Expression>> solved = null;
-    for (Iterator<Equation> iterator = myEquations.iterator(); iterator.hasNext(); ) {
+    for (Iterator<Equation> iterator = equations.iterator(); iterator.hasNext(); ) {
       Equation equation = iterator.next();
       if (equation.cmp == CMP.EQ) {
         InferenceVariable var1 = equation.expr1.getInferenceVariable();
         InferenceVariable var2 = equation.expr2.getInferenceVariable();
         if (var1 == null && var2 != null && var2.isSolvableFromEquations() || var2 == null && var1 != null && var1.isSolvableFromEquations()) {
-          iterator.remove();
+          if (allEquations) {
+            iterator.remove();
+          } else {
+            // New equations are at the end of the list; an equation might be already removed if it was woken up by a listener
+            int index = myEquations.lastIndexOf(equation);
+            if (index < 0) {
+              continue;
+            }
+            myEquations.remove(index);
+          }
           if (solved == null) {
             solved = new ArrayList<>();
           }
@@ -660,7 +700,9 @@ public class TwoStageEquations implements Equations {
             equation.expr2 = other;
           }
         } else {
-          myEquations.addAll(equations);
+          for (Equation removed : equations) {
+            addEquation(removed);
+          }
           return;
         }
         equations.add(equation);
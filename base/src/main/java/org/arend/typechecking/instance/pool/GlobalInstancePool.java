@@ -25,6 +25,7 @@ public class GlobalInstancePool implements InstancePool {
   private final List<FunctionDefinition> myInstances;
   private final CheckTypeVisitor myCheckTypeVisitor;
   private LocalInstancePool myInstancePool;
+  private InstanceIndex myIndex;
 
   public GlobalInstancePool(List<FunctionDefinition> instances, CheckTypeVisitor checkTypeVisitor) {
     myInstances = instances;
@@ -37,6 +38,26 @@ public class GlobalInstancePool implements InstancePool {
     myInstancePool = instancePool;
   }
 
+  public GlobalInstancePool(InstanceIndex index, CheckTypeVisitor checkTypeVisitor) {
+    myInstances = index.getInstances();
+    myCheckTypeVisitor = checkTypeVisitor;
+    myIndex = index;
+  }
+
+  private GlobalInstancePool(List<FunctionDefinition> instances, InstanceIndex index, CheckTypeVisitor checkTypeVisitor, LocalInstancePool instancePool) {
+    myInstances = instances;
+    myCheckTypeVisitor = checkTypeVisitor;
+    myInstancePool = instancePool;
+    myIndex = index;
+  }
+
+  private InstanceIndex getIndex() {
+    if (myIndex == null) {
+      myIndex = new InstanceIndex(myInstances);
+    }
+    return myIndex;
+  }
+
   public void setInstancePool(LocalInstancePool instancePool) {
     myInstancePool = instancePool;
   }
@@ -58,7 +79,7 @@ public class GlobalInstancePool implements InstancePool {
 
   @Override
   public GlobalInstancePool copy(CheckTypeVisitor typechecker) {
-    return new GlobalInstancePool(myInstances, typechecker, myInstancePool == null ? null : myInstancePool.copy(typechecker));
+    return new GlobalInstancePool(myInstances, myIndex, typechecker, myInstancePool == null ? null : myInstancePool.copy(typechecker));
   }
 
   @Override
@@ -194,14 +215,7 @@ public class GlobalInstancePool implements InstancePool {
       }
     }
 
-    MyPredicate predicate = new MyPredicate();
-    FunctionDefinition instance = null;
-    for (FunctionDefinition function : myInstances) {
-      if (predicate.test(function)) {
-        instance = function;
-        break;
-      }
-    }
+    FunctionDefinition instance = getIndex().find(finalClassifyingExpression, new MyPredicate());
     if (instance == null) {
       return null;
     }
@@ -229,6 +243,6 @@ public class GlobalInstancePool implements InstancePool {
 
   @Override
   public GlobalInstancePool subst(ExprSubstitution substitution) {
-    return myInstancePool != null ? new GlobalInstancePool(myInstances, myCheckTypeVisitor, myInstancePool.subst(substitution)) : this;
+    return myInstancePool != null ? new GlobalInstancePool(myInstances, myIndex, myCheckTypeVisitor, myInstancePool.subst(substitution)) : this;
   }
 }
@@ -0,0 +1,143 @@
+package org.arend.typechecking.instance.pool;
+
+import org.arend.core.definition.ClassField;
+import org.arend.core.definition.FunctionDefinition;
+import org.arend.core.expr.*;
+import org.arend.ext.core.ops.NormalizationMode;
+import org.arend.prelude.Prelude;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * An index of global instances by the head symbol of their classifying expressions.
+ * The head symbol is the definition of a definition call or the kind of an expression (a universe, a sigma type, a pi type, or an integer).
+ * Instances are found in the order of the list from which the index was built.
+ */
+public class InstanceIndex {
+  private enum Kind { UNIVERSE, SIGMA, PI, INTEGER }
+
+  private static final int[] EMPTY = new int[0];
+  private static final Map<FunctionDefinition, CachedHead> ourHeads = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final List<FunctionDefinition> myInstances;
+  private final Map<Object, int[]> myBuckets = new HashMap<>();
+  private final int[] myWildcards;
+
+  /**
+   * The head of an instance is cached together with its result type since headers may be typechecked again in place.
+   */
+  private record CachedHead(Expression resultType, Object head) {}
+
+  /**
+   * A marker for instances that match every classifying expression.
+   */
+  private static final Object WILDCARD = new Object();
+
+  /**
+   * A marker for instances that do not match any classifying expression.
+   */
+  private static final Object NONE = new Object();
+
+  public InstanceIndex(List<FunctionDefinition> instances) {
+    myInstances = instances;
+
+    Map<Object, List<Integer>> buckets = new HashMap<>();
+    for (int i = 0; i < instances.size(); i++) {
+      Object head = getInstanceHead(instances.get(i));
+      if (head != NONE) {
+        buckets.computeIfAbsent(head, k -> new ArrayList<>()).add(i);
+      }
+    }
+    for (Map.Entry<Object, List<Integer>> entry : buckets.entrySet()) {
+      int[] positions = new int[entry.getValue().size()];
+      for (int i = 0; i < positions.length; i++) {
+        positions[i] = entry.getValue().get(i);
+      }
+      myBuckets.put(entry.getKey(), positions);
+    }
+    int[] wildcards = myBuckets.remove(WILDCARD);
+    myWildcards = wildcards == null ? EMPTY : wildcards;
+  }
+
+  public List<FunctionDefinition> getInstances() {
+    return myInstances;
+  }
+
+  private static @Nullable Object getHead(Expression expr) {
+    if (expr instanceof UniverseExpression) return Kind.UNIVERSE;
+    if (expr instanceof SigmaExpression) return Kind.SIGMA;
+    if (expr instanceof PiExpression) return Kind.PI;
+    if (expr instanceof IntegerExpression) return Kind.INTEGER;
+    if (expr instanceof DefCallExpression defCall && !(expr instanceof FieldCallExpression)) return defCall.getDefinition();
+    return null;
+  }
+
+  private static Object getInstanceHead(FunctionDefinition instance) {
+    Expression resultType = instance.getResultType();
+    CachedHead cached = ourHeads.get(instance);
+    if (cached != null && cached.resultType == resultType) {
+      return cached.head;
+    }
+
+    Object head;
+    if (!(resultType instanceof ClassCallExpression classCall) || !instance.status().headerIsOK()) {
+      head = WILDCARD;
+    } else {
+      ClassField classifyingField = classCall.getDefinition().getClassifyingField();
+      if (classifyingField == null) {
+        head = WILDCARD;
+      } else {
+        Expression classifyingExpr = classCall.getAbsImplementationHere(classifyingField);
+        if (classifyingExpr != null) {
+          classifyingExpr = classifyingExpr.normalize(NormalizationMode.WHNF);
+        }
+        while (classifyingExpr instanceof LamExpression) {
+          classifyingExpr = ((LamExpression) classifyingExpr).getBody();
+        }
+        head = getHead(classifyingExpr);
+        if (head == null) {
+          head = NONE;
+        }
+      }
+    }
+
+    ourHeads.put(instance, new CachedHead(resultType, head));
+    return head;
+  }
+
+  /**
+   * Finds the first instance that satisfies the predicate among instances that might match the classifying expression.
+   *
+   * @param classifyingExpression   a normalized classifying expression or null if instances of classes without classifying fields are searched.
+   */
+  public @Nullable FunctionDefinition find(@Nullable Expression classifyingExpression, Predicate<FunctionDefinition> predicate) {
+    if (classifyingExpression == null) {
+      for (FunctionDefinition instance : myInstances) {
+        if (predicate.test(instance)) {
+          return instance;
+        }
+      }
+      return null;
+    }
+
+    Object head = getHead(classifyingExpression);
+    int[] bucket = head == null ? EMPTY : myBuckets.getOrDefault(head, EMPTY);
+    // Integer literals in instances match zero and suc
+    int[] intBucket = classifyingExpression instanceof ConCallExpression conCall && (conCall.getDefinition() == Prelude.ZERO || conCall.getDefinition() == Prelude.SUC) ? myBuckets.getOrDefault(Kind.INTEGER, EMPTY) : EMPTY;
+
+    int i = 0, j = 0, k = 0;
+    while (i < bucket.length || j < intBucket.length || k < myWildcards.length) {
+      int index = Math.min(i < bucket.length ? bucket[i] : Integer.MAX_VALUE, Math.min(j < intBucket.length ? intBucket[j] : Integer.MAX_VALUE, k < myWildcards.length ? myWildcards[k] : Integer.MAX_VALUE));
+      if (i < bucket.length && bucket[i] == index) i++;
+      if (j < intBucket.length && intBucket[j] == index) j++;
+      if (k < myWildcards.length && myWildcards[k] == index) k++;
+      FunctionDefinition instance = myInstances.get(index);
+      if (predicate.test(instance)) {
+        return instance;
+      }
+    }
+    return null;
+  }
+}
@@ -3,6 +3,10 @@ package org.arend.typechecking.order;
 import java.util.*;
 import java.util.function.Consumer;
 
+/**
+ * Tarjan's algorithm for strongly connected components.
+ * The search is iterative, so long chains of dependencies do not overflow the call stack.
+ */
 public abstract class TarjanSCC<T> {
   private static class DefState {
     int index, lowLink;
@@ -15,47 +19,81 @@ public abstract class TarjanSCC<T> {
     }
   }
 
+  private static class Frame<T> {
+    final T unit;
+    final DefState state;
+    final Iterator<T> dependencies;
+    final boolean withLoops;
+
+    Frame(T unit, DefState state, Iterator<T> dependencies, boolean withLoops) {
+      this.unit = unit;
+      this.state = state;
+      this.dependencies = dependencies;
+      this.withLoops = withLoops;
+    }
+  }
+
   private int myIndex = 0;
-  private final Stack<T> myStack = new Stack<>();
+  private final Deque<T> myStack = new ArrayDeque<>();
   private final Map<T, DefState> myVertices = new HashMap<>();
 
   public void order(T unit) {
-    if (!myVertices.containsKey(unit)) {
-      doOrderRecursively(unit);
+    if (myVertices.containsKey(unit)) {
+      return;
+    }
+
+    Deque<Frame<T>> frames = new ArrayDeque<>();
+    frames.push(visit(unit));
+    while (!frames.isEmpty()) {
+      Frame<T> frame = frames.peek();
+      if (frame.dependencies.hasNext()) {
+        T dependency = frame.dependencies.next();
+        DefState state = myVertices.get(dependency);
+        if (state == null) {
+          frames.push(visit(dependency));
+        } else if (state.onStack) {
+          frame.state.lowLink = Math.min(frame.state.lowLink, state.index);
+        }
+      } else {
+        frames.pop();
+        Frame<T> parent = frames.peek();
+        if (parent != null) {
+          parent.state.lowLink = Math.min(parent.state.lowLink, frame.state.lowLink);
+        }
+        finish(frame);
+      }
     }
   }
 
-  private void doOrderRecursively(T unit) {
-    DefState currentState = new DefState(myIndex);
-    myVertices.put(unit, currentState);
+  private Frame<T> visit(T unit) {
+    DefState state = new DefState(myIndex);
+    myVertices.put(unit, state);
     myIndex++;
     myStack.push(unit);
 
-    boolean withLoops = forDependencies(unit, dependency -> {
-      DefState state = myVertices.get(dependency);
-      if (state == null) {
-        doOrderRecursively(dependency);
-        currentState.lowLink = Math.min(currentState.lowLink, myVertices.get(dependency).lowLink);
-      } else if (state.onStack) {
-        currentState.lowLink = Math.min(currentState.lowLink, state.index);
-      }
-    });
-
-    if (currentState.lowLink == currentState.index) {
-      T originalUnit = unit;
-      List<T> scc = new ArrayList<>();
-      do {
-        unit = myStack.pop();
-        myVertices.get(unit).onStack = false;
-        scc.add(unit);
-      } while (!unit.equals(originalUnit));
-
-      if (scc.size() == 1) {
-        unitFound(unit, withLoops);
-      } else {
-        Collections.reverse(scc);
-        sccFound(scc);
-      }
+    List<T> dependencies = new ArrayList<>();
+    boolean withLoops = forDependencies(unit, dependencies::add);
+    return new Frame<>(unit, state, dependencies.iterator(), withLoops);
+  }
+
+  private void finish(Frame<T> frame) {
+    if (frame.state.lowLink != frame.state.index) {
+      return;
+    }
+
+    T unit;
+    List<T> scc = new ArrayList<>();
+    do {
+      unit = myStack.pop();
+      myVertices.get(unit).onStack = false;
+      scc.add(unit);
+    } while (!unit.equals(frame.unit));
+
+    if (scc.size() == 1) {
+      unitFound(unit, frame.withLoops);
+    } else {
+      Collections.reverse(scc);
+      sccFound(scc);
     }
   }
 
@@ -20,6 +20,7 @@ public class DependencyCollector implements DependencyListener {
 
   @Override
   public void dependsOn(TCDefReferable def1, TCDefReferable def2) {
+    myDependencies.computeIfAbsent(def1, k -> ConcurrentHashMap.newKeySet()).add(def2);
     ModuleLocation location = def2.getLocation();
     ArendLibrary library = location == null || myServer == null ? null : myServer.getLibrary(location.getLibraryName());
     if (library == null || !library.isExternalLibrary()) {
@@ -30,7 +31,7 @@ public class DependencyCollector implements DependencyListener {
   @Override
   public Set<? extends TCDefReferable> update(TCDefReferable definition) {
     Set<TCDefReferable> updated = new HashSet<>();
-    Stack<TCDefReferable> stack = new Stack<>();
+    Deque<TCDefReferable> stack = new ArrayDeque<>();
     stack.push(definition);
 
     while (!stack.isEmpty()) {
@@ -44,7 +45,7 @@ public class DependencyCollector implements DependencyListener {
         for (TCDefReferable dependency : dependencies) {
           Set<TCDefReferable> definitions = myReverseDependencies.get(dependency);
           if (definitions != null) {
-            definitions.remove(definition);
+            definitions.remove(toUpdate);
           }
         }
       }
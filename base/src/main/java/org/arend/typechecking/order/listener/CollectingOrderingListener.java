@@ -11,6 +11,20 @@ public class CollectingOrderingListener implements OrderingListener {
     void feedTo(OrderingListener listener);
     List<? extends Concrete.ResolvableDefinition> getAllDefinitions();
     Element replace(List<? extends Concrete.ResolvableDefinition> definitions);
+
+    /**
+     * @return true if this element begins a block of elements that must be fed to the same listener.
+     */
+    default boolean isBlockStart() {
+      return false;
+    }
+
+    /**
+     * @return true if this element ends a block of elements that must be fed to the same listener.
+     */
+    default boolean isBlockEnd() {
+      return false;
+    }
   }
 
   private record MyHeader(Concrete.ResolvableDefinition definition) implements Element {
@@ -75,6 +89,16 @@ public class CollectingOrderingListener implements OrderingListener {
     public Element replace(List<? extends Concrete.ResolvableDefinition> definitions) {
       return new MyDefinitions(definitions, kind);
     }
+
+    @Override
+    public boolean isBlockStart() {
+      return kind == Kind.PRE_BODIES;
+    }
+
+    @Override
+    public boolean isBlockEnd() {
+      return kind == Kind.BODIES;
+    }
   }
 
   private final List<Element> myElements = new ArrayList<>();
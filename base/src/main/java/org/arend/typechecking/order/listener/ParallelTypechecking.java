@@ -0,0 +1,219 @@
+package org.arend.typechecking.order.listener;
+
+import org.arend.ext.error.ErrorReporter;
+import org.arend.ext.error.ListErrorReporter;
+import org.arend.naming.reference.TCDefReferable;
+import org.arend.server.ProgressReporter;
+import org.arend.term.concrete.Concrete;
+import org.arend.typechecking.computation.CancellationIndicator;
+import org.arend.typechecking.order.dependency.DependencyListener;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Typechecks elements collected by {@link CollectingOrderingListener} on a pool of workers.
+ * Elements are grouped into tasks: a block of elements between {@code preBodiesFound} and {@code bodiesFound} is a single task
+ * since it must be fed to the same listener, every other element is a task by itself.
+ * A task is started when all tasks it depends on are finished.
+ * A task also waits for previous tasks that contain instances it uses since instances are searched in typechecked definitions.
+ * Errors are reported in the order of the collected elements regardless of the order in which tasks are finished.
+ */
+public class ParallelTypechecking {
+  private final List<Task> myTasks = new ArrayList<>();
+
+  private static class Task {
+    private final List<CollectingOrderingListener.Element> elements = new ArrayList<>();
+    private final List<Task> dependents = new ArrayList<>();
+    private final ListErrorReporter errorReporter = new ListErrorReporter();
+    private final int index;
+    private int pending;
+    private TypecheckingOrderingListener listener;
+
+    private Task(int index) {
+      this.index = index;
+    }
+  }
+
+  /**
+   * Records dependencies reported during ordering so that they can be used to build the dependency graph between tasks.
+   */
+  public static class RecordingDependencyListener implements DependencyListener {
+    private final DependencyListener myDelegate;
+    private final Map<TCDefReferable, Set<TCDefReferable>> myDependencies = new HashMap<>();
+
+    public RecordingDependencyListener(DependencyListener delegate) {
+      myDelegate = delegate;
+    }
+
+    public Map<TCDefReferable, Set<TCDefReferable>> getRecordedDependencies() {
+      return myDependencies;
+    }
+
+    @Override
+    public void dependsOn(TCDefReferable def1, TCDefReferable def2) {
+      myDependencies.computeIfAbsent(def1, k -> new LinkedHashSet<>()).add(def2);
+      myDelegate.dependsOn(def1, def2);
+    }
+
+    @Override
+    public Set<? extends TCDefReferable> update(TCDefReferable definition) {
+      return myDelegate.update(definition);
+    }
+
+    @Override
+    public Set<? extends TCDefReferable> getDependencies(TCDefReferable definition) {
+      return myDelegate.getDependencies(definition);
+    }
+  }
+
+  /**
+   * @param dependencies          dependencies recorded by {@link RecordingDependencyListener}.
+   * @param instanceDependencies  instances used by definitions, see {@link org.arend.typechecking.order.Ordering#getInstanceDependencies}.
+   */
+  public ParallelTypechecking(List<CollectingOrderingListener.Element> elements, Map<TCDefReferable, ? extends Set<? extends TCDefReferable>> dependencies, Map<TCDefReferable, ? extends List<? extends TCDefReferable>> instanceDependencies) {
+    Map<TCDefReferable, Task> taskMap = new HashMap<>();
+    Task block = null;
+    for (CollectingOrderingListener.Element element : elements) {
+      Task task;
+      if (block != null) {
+        task = block;
+      } else {
+        task = new Task(myTasks.size());
+        myTasks.add(task);
+        if (element.isBlockStart()) {
+          block = task;
+        }
+      }
+      if (element.isBlockEnd()) {
+        block = null;
+      }
+      task.elements.add(element);
+      for (Concrete.ResolvableDefinition definition : element.getAllDefinitions()) {
+        taskMap.putIfAbsent(definition.getData(), task);
+      }
+    }
+
+    for (Task task : myTasks) {
+      Set<Task> dependencyTasks = new HashSet<>();
+      for (CollectingOrderingListener.Element element : task.elements) {
+        for (Concrete.ResolvableDefinition definition : element.getAllDefinitions()) {
+          addDependencies(task, dependencies.get(definition.getData()), taskMap, dependencyTasks);
+          // Instances that are typechecked after the definition are not available to it in the sequential order either
+          addDependencies(task, instanceDependencies.get(definition.getData()), taskMap, dependencyTasks);
+        }
+      }
+    }
+  }
+
+  private static void addDependencies(Task task, Collection<? extends TCDefReferable> dependencies, Map<TCDefReferable, Task> taskMap, Set<Task> dependencyTasks) {
+    if (dependencies == null) return;
+    for (TCDefReferable dependency : dependencies) {
+      Task dependencyTask = taskMap.get(dependency);
+      // Elements are sorted topologically, so a task can depend only on previous tasks
+      if (dependencyTask != null && dependencyTask.index < task.index && dependencyTasks.add(dependencyTask)) {
+        dependencyTask.dependents.add(task);
+        task.pending++;
+      }
+    }
+  }
+
+  public int getNumberOfTasks() {
+    return myTasks.size();
+  }
+
+  private static void runTask(Task task, CancellationIndicator indicator, ProgressReporter<List<? extends Concrete.ResolvableDefinition>> progressReporter) {
+    for (CollectingOrderingListener.Element element : task.elements) {
+      indicator.checkCanceled();
+      synchronized (progressReporter) {
+        progressReporter.beginItem(element.getAllDefinitions());
+      }
+      element.feedTo(task.listener);
+      synchronized (progressReporter) {
+        progressReporter.endItem(element.getAllDefinitions());
+      }
+    }
+  }
+
+  /**
+   * Typechecks collected elements.
+   *
+   * @param parallelism       the number of workers.
+   * @param indicator         is checked before each element; if it is canceled, running tasks are stopped and no new tasks are started.
+   * @param listenerFactory   creates a listener for each task; the listener should report errors to the given error reporter.
+   * @param errorReporter     errors of all tasks are reported to this error reporter after all tasks are finished.
+   */
+  public void typecheck(int parallelism, CancellationIndicator indicator, Function<ErrorReporter, TypecheckingOrderingListener> listenerFactory, ErrorReporter errorReporter, ProgressReporter<List<? extends Concrete.ResolvableDefinition>> progressReporter) {
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, myTasks.size())), runnable -> {
+      Thread thread = new Thread(runnable, "Arend typechecking worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    CompletionService<Task> completionService = new ExecutorCompletionService<>(executor);
+    List<Task> started = new ArrayList<>();
+    Throwable failure = null;
+
+    try {
+      int running = 0;
+      for (Task task : myTasks) {
+        if (task.pending == 0) {
+          task.listener = listenerFactory.apply(task.errorReporter);
+          started.add(task);
+          completionService.submit(() -> runTask(task, indicator, progressReporter), task);
+          running++;
+        }
+      }
+
+      while (running > 0) {
+        Future<Task> future;
+        try {
+          future = completionService.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          if (failure == null) failure = e;
+          break;
+        }
+        running--;
+
+        Task finished;
+        try {
+          finished = future.get();
+        } catch (ExecutionException e) {
+          if (failure == null) failure = e.getCause();
+          continue;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          if (failure == null) failure = e;
+          break;
+        }
+
+        // If some task failed, we only wait for the running tasks to finish
+        if (failure != null) continue;
+        for (Task dependent : finished.dependents) {
+          if (--dependent.pending == 0) {
+            dependent.listener = listenerFactory.apply(dependent.errorReporter);
+            started.add(dependent);
+            completionService.submit(() -> runTask(dependent, indicator, progressReporter), dependent);
+            running++;
+          }
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    if (failure != null) {
+      for (Task task : started) {
+        task.listener.computationInterrupted();
+      }
+      if (failure instanceof RuntimeException) throw (RuntimeException) failure;
+      if (failure instanceof Error) throw (Error) failure;
+      throw new IllegalStateException(failure);
+    }
+
+    for (Task task : myTasks) {
+      task.errorReporter.reportTo(errorReporter);
+    }
+  }
+}
@@ -18,6 +18,7 @@ import org.arend.ext.core.ops.CMP;
 import org.arend.ext.error.ErrorReporter;
 import org.arend.ext.error.TypecheckingError;
 import org.arend.ext.typechecking.DefinitionListener;
+import org.arend.module.serialization.LemmaBodyStore;
 import org.arend.naming.reference.GlobalReferable;
 import org.arend.naming.reference.TCDefReferable;
 import org.arend.ext.concrete.definition.FunctionKind;
@@ -60,12 +61,13 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
   private final Map<TCDefReferable, Concrete.ResolvableDefinition> myDesugaredDefinitions = new HashMap<>();
   private final ArendServerResolveListener myResolveListener;
   private final boolean myClearLemmas;
+  private final LemmaBodyStore myLemmaBodyStore;
   private List<TCDefReferable> myCurrentDefinitions = new ArrayList<>();
   private boolean myHeadersAreOK = true;
 
-  private record Suspension(CheckTypeVisitor typechecker, UniverseKind universeKind) {}
+  private record Suspension(CheckTypeVisitor typechecker, UniverseKind universeKind, Definition definition) {}
 
-  public TypecheckingOrderingListener(ArendCheckerFactory factory, InstanceScopeProvider instanceScopeProvider, Map<TCDefReferable, List<TCDefReferable>> instanceDependencies, ConcreteProvider concreteProvider, ErrorReporter errorReporter, DependencyListener dependencyListener, PartialComparator<TCDefReferable> comparator, ArendExtensionProvider extensionProvider, ArendServerResolveListener resolveListener, boolean clearLemmas) {
+  public TypecheckingOrderingListener(ArendCheckerFactory factory, InstanceScopeProvider instanceScopeProvider, Map<TCDefReferable, List<TCDefReferable>> instanceDependencies, ConcreteProvider concreteProvider, ErrorReporter errorReporter, DependencyListener dependencyListener, PartialComparator<TCDefReferable> comparator, ArendExtensionProvider extensionProvider, ArendServerResolveListener resolveListener, boolean clearLemmas, LemmaBodyStore lemmaBodyStore) {
     myCheckerFactory = factory;
     myErrorReporter = errorReporter;
     myDependencyListener = dependencyListener;
@@ -76,6 +78,7 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
     myExtensionProvider = extensionProvider;
     myResolveListener = resolveListener;
     myClearLemmas = clearLemmas;
+    myLemmaBodyStore = lemmaBodyStore;
   }
 
   public ConcreteProvider getConcreteProvider() {
@@ -210,9 +213,17 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
     return result;
   }
 
+  /**
+   * Removes the body of a lemma from memory.
+   * It is called after every check that uses the body.
+   */
   private void clearLemma(Definition definition) {
     if (myClearLemmas && definition instanceof FunctionDefinition function && function.getKind() == CoreFunctionDefinition.Kind.LEMMA) {
-      function.setBody(null);
+      if (myLemmaBodyStore != null) {
+        myLemmaBodyStore.store(function);
+      } else {
+        function.setBody(null);
+      }
     }
   }
 
@@ -251,11 +262,14 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
       DesugarVisitor.desugar(definition, myConcreteProvider, checkTypeVisitor.getErrorReporter());
       DefinitionTypechecker typechecker = new DefinitionTypechecker(checkTypeVisitor, recursive ? Collections.singleton(definition.getData()) : Collections.emptySet());
       List<ExtElimClause> clauses = definition.accept(typechecker, null);
-      Definition typechecked = definition.getData().getTypechecked();
+      // If another session has typechecked the same definition, the referable points to its result, so we continue with ours
+      Definition typechecked = checkTypeVisitor.getDefinition();
+      if (typechecked == null || typechecked.getRef() != definition.getData()) {
+        typechecked = definition.getData().getTypechecked();
+      }
       if (typechecked == null) {
         typechecked = newDefinition(definition);
       }
-      clearLemma(typechecked);
       if (!(typechecked instanceof TopLevelDefinition || typechecked instanceof MetaTopDefinition)) {
         throw new IllegalStateException();
       }
@@ -270,12 +284,13 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
       if (recursive && typechecked instanceof DataDefinition) {
         ((DataDefinition) typechecked).setRecursiveDefinitions(Collections.singleton((DataDefinition) typechecked));
       }
-      findAxiomsAndGoals(Collections.singletonList(definition), Collections.singleton(typechecked));
+      findAxiomsAndGoals(Collections.singletonList(definition), Collections.singletonMap(definition.getData(), typechecked), Collections.singleton(typechecked));
       if (definition instanceof Concrete.Definition def && def.isRecursive() && typechecked instanceof FunctionDefinition) {
         checkRecursiveFunctions(Collections.singletonMap((FunctionDefinition) typechecked, def), clauses == null ? Collections.emptyMap() : Collections.singletonMap((FunctionDefinition) typechecked, clauses));
       }
 
       typecheckingUnitFinished(definition.getData(), typechecked);
+      clearLemma(typechecked);
       typecheckedList.add(typechecked);
     }
 
@@ -353,12 +368,12 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
       }
 
       if (definition instanceof Concrete.Definition def) {
-        Definition typechecked = def.getData().getTypechecked();
+        Suspension suspension = mySuspensions.remove(def.getData());
+        Definition typechecked = suspension != null ? suspension.definition : def.getData().getTypechecked();
         if (typechecked == null) {
           typechecked = newDefinition(def);
         }
         typechecked.addStatus(Definition.TypeCheckingStatus.HAS_ERRORS);
-        mySuspensions.remove(def.getData());
         typecheckingUnitFinished(def.getData(), typechecked);
       }
     }
@@ -408,7 +423,7 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
       ((TopLevelDefinition) typechecked).setUniverseKind(UniverseKind.WITH_UNIVERSES);
     }
     if (typechecked.status() == Definition.TypeCheckingStatus.TYPE_CHECKING) {
-      mySuspensions.put(definition.getData(), new Suspension(visitor, universeKind));
+      mySuspensions.put(definition.getData(), new Suspension(visitor, universeKind, typechecked));
     }
 
     if (!typechecked.status().headerIsOK()) {
@@ -424,10 +439,16 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
     List<Concrete.ResolvableDefinition> orderedDefinitions = new ArrayList<>(definitions.size());
     List<Concrete.ResolvableDefinition> otherDefs = new ArrayList<>();
     Set<TCDefReferable> refs = new HashSet<>();
+    // Headers typechecked by this listener are used even if the referables point to definitions of another session
+    Map<TCDefReferable, Definition> typecheckedMap = new HashMap<>();
     for (Concrete.ResolvableDefinition definition : definitions) {
       Concrete.ResolvableDefinition newDef = myDesugaredDefinitions.get(definition.getData());
       if (newDef == null) newDef = definition;
-      Definition typechecked = newDef.getData().getTypechecked();
+      Suspension suspension = mySuspensions.get(newDef.getData());
+      Definition typechecked = suspension != null ? suspension.definition : newDef.getData().getTypechecked();
+      if (typechecked != null) {
+        typecheckedMap.put(newDef.getData(), typechecked);
+      }
       if (typechecked instanceof DataDefinition) {
         dataDefinitions.add((DataDefinition) typechecked);
         orderedDefinitions.add(newDef);
@@ -447,7 +468,7 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
     Set<Definition> newDefs = new HashSet<>();
     List<Pair<Definition, DefinitionListener>> listeners = new ArrayList<>();
     for (Concrete.ResolvableDefinition definition : orderedDefinitions) {
-      Definition def = definition.getData().getTypechecked();
+      Definition def = typecheckedMap.get(definition.getData());
       if (def instanceof TopLevelDefinition) {
         Suspension suspension = mySuspensions.get(definition.getData());
         if (suspension != null) {
@@ -457,7 +478,7 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
     }
 
     for (Concrete.ResolvableDefinition definition : orderedDefinitions) {
-      Definition def = definition.getData().getTypechecked();
+      Definition def = typecheckedMap.get(definition.getData());
       Suspension suspension = mySuspensions.remove(definition.getData());
       if (suspension != null) {
         newDefs.add(def);
@@ -471,7 +492,6 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
             clausesMap.put((FunctionDefinition) def, clauses);
           }
         }
-        clearLemma(def);
 
         ArendExtension extension = suspension.typechecker.getExtension();
         if (extension != null) {
@@ -487,7 +507,7 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
     boolean fixLevels = true;
     Set<TopLevelDefinition> allDefinitions = new LinkedHashSet<>();
     for (Concrete.ResolvableDefinition definition : orderedDefinitions) {
-      Definition typechecked = definition.getData().getTypechecked();
+      Definition typechecked = typecheckedMap.get(definition.getData());
       if (!newDefs.contains(typechecked)) continue;
       if (typechecked instanceof FunctionDefinition) {
         ((FunctionDefinition) typechecked).setRecursiveDefinitions(allDefinitions);
@@ -527,7 +547,8 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
     }
 
     for (Concrete.ResolvableDefinition definition : orderedDefinitions) {
-      if (definition.getData().getTypechecked() != null && definition.getData().getTypechecked().accept(new SearchVisitor<Void>() {
+      Definition typechecked = typecheckedMap.get(definition.getData());
+      if (typechecked != null && typechecked.accept(new SearchVisitor<Void>() {
         @Override
         protected CoreExpression.FindAction processDefCall(DefCallExpression expr, Void param) {
           return expr instanceof LeveledDefCallExpression && expr.getDefinition() instanceof TopLevelDefinition && allDefinitions.contains((TopLevelDefinition) expr.getDefinition()) && !((LeveledDefCallExpression) expr).getLevels().compare(expr.getDefinition().makeIdLevels(), CMP.EQ, DummyEquations.getInstance(), null) ? CoreExpression.FindAction.STOP : CoreExpression.FindAction.CONTINUE;
@@ -541,14 +562,18 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
       setParametersOriginalDefinitionsDependency(definition);
     }
 
-    findAxiomsAndGoals(orderedDefinitions, newDefs);
+    findAxiomsAndGoals(orderedDefinitions, typecheckedMap, newDefs);
+
+    for (Definition def : newDefs) {
+      clearLemma(def);
+    }
 
     for (Pair<Definition, DefinitionListener> pair : listeners) {
       pair.proj2.typechecked(pair.proj1);
     }
   }
 
-  private void findAxiomsAndGoals(List<? extends Concrete.ResolvableDefinition> definitions, Set<Definition> newDefs) {
+  private void findAxiomsAndGoals(List<? extends Concrete.ResolvableDefinition> definitions, Map<TCDefReferable, Definition> typecheckedMap, Set<Definition> newDefs) {
     Set<FunctionDefinition> axioms = new HashSet<>();
     Set<Definition> goals = new HashSet<>();
     VoidExpressionVisitor<Void> visitor = new VoidExpressionVisitor<>() {
@@ -577,7 +602,7 @@ public class TypecheckingOrderingListener extends BooleanComputationRunner imple
     };
 
     for (Concrete.ResolvableDefinition definition : definitions) {
-      Definition def = definition.getData().getTypechecked();
+      Definition def = typecheckedMap.get(definition.getData());
       if (def == null) continue;
       def.accept(visitor, null);
       if (def instanceof TopLevelDefinition topDef && newDefs.contains(def)) {
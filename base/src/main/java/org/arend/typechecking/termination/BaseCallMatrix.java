@@ -5,8 +5,8 @@ import org.arend.ext.prettyprinting.doc.Doc;
 import org.arend.ext.prettyprinting.doc.DocFactory;
 import org.arend.ext.prettyprinting.doc.DocStringBuilder;
 import org.arend.util.StringFormat;
-import java.util.HashMap;
-import java.util.Map;
+
+import java.util.Arrays;
 
 public class BaseCallMatrix<T> {
   enum R {
@@ -44,7 +44,16 @@ public class BaseCallMatrix<T> {
     };
   }
 
-  private final HashMap<Integer, HashMap<Integer, BaseCallMatrix.R>> matrixMap = new HashMap<>();
+  /*
+   * Cells are packed row by row, two bits per cell: 00 is Unknown, 01 is Equal, and 11 is LessThan.
+   * With this encoding, radd is bitwise or and rleq is bitwise inclusion.
+   */
+  private static final int CELLS_PER_WORD = 32;
+  private static final long LOW_BITS = 0x5555555555555555L;
+  private static final long HIGH_BITS = 0xAAAAAAAAAAAAAAAAL;
+
+  private final long[] myCells;
+  private final int myRowWords;
 
   private final int myWidth;
   private final int myHeight;
@@ -56,6 +65,8 @@ public class BaseCallMatrix<T> {
     myHeight = height;
     myDomain = domain;
     myCodomain = codomain;
+    myRowWords = (width + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+    myCells = new long[myRowWords * height];
   }
 
   BaseCallMatrix(BaseCallMatrix<T> m1, BaseCallMatrix<T> m2) {
@@ -67,24 +78,36 @@ public class BaseCallMatrix<T> {
     myWidth = m2.myWidth;
     myDomain = m1.myDomain;
     myCodomain = m2.myCodomain;
+    myRowWords = m2.myRowWords;
+    myCells = new long[myRowWords * myHeight];
 
-    for (Integer i : m1.matrixMap.keySet()) {
-      HashMap<Integer, BaseCallMatrix.R> m1map = m1.matrixMap.get(i);
-      for (Integer j : m1map.keySet()) {
-        HashMap<Integer, BaseCallMatrix.R> m2map = m2.matrixMap.get(j);
-        if (m2map != null) for (Map.Entry<Integer, R> e : m2map.entrySet()) {
-          int k = e.getKey();
-          BaseCallMatrix.R ik_value = getValue(i, k);
-          if (ik_value != R.LessThan) {
-            BaseCallMatrix.R ik_summand = rmul(m1map.get(j), e.getValue());
-            BaseCallMatrix.R new_ik_value = radd(ik_value, ik_summand);
-            if (new_ik_value != ik_value) set(i, k, new_ik_value);
-          }
+    for (int i = 0; i < myHeight; i++) {
+      int row = i * myRowWords;
+      for (int j = 0; j < m1.myWidth; j++) {
+        long r = m1.getBits(i, j);
+        if (r == 0) continue;
+        int row2 = j * m2.myRowWords;
+        for (int w = 0; w < myRowWords; w++) {
+          long word = m2.myCells[row2 + w];
+          // rmul(LessThan, x) turns every known cell of x into LessThan
+          myCells[row + w] |= r == 1 ? word : word | (word & LOW_BITS) << 1;
         }
       }
     }
   }
 
+  private long getBits(int i, int j) {
+    return myCells[i * myRowWords + j / CELLS_PER_WORD] >>> (j % CELLS_PER_WORD * 2) & 3;
+  }
+
+  private static long toBits(BaseCallMatrix.R r) {
+    return switch (r) {
+      case Equal -> 1;
+      case LessThan -> 3;
+      default -> 0;
+    };
+  }
+
   int getHeight() {
     return myHeight;
   }
@@ -106,30 +129,21 @@ public class BaseCallMatrix<T> {
   }
 
   void set(int i, int j, BaseCallMatrix.R v) {
-    if (v != R.Unknown) {
-      HashMap<Integer, BaseCallMatrix.R> map = matrixMap.computeIfAbsent(i, k -> new HashMap<>());
-      map.put(j, v);
-    } else {
-      HashMap<Integer, BaseCallMatrix.R> map = matrixMap.get(i);
-      if (map != null) {
-        map.remove(j);
-      }
-    }
+    int index = i * myRowWords + j / CELLS_PER_WORD;
+    int shift = j % CELLS_PER_WORD * 2;
+    myCells[index] = myCells[index] & ~(3L << shift) | toBits(v) << shift;
   }
 
   BaseCallMatrix.R getValue(int i, int j) {
-    HashMap<Integer, BaseCallMatrix.R> result = matrixMap.get(i);
-    if (result == null) return R.Unknown; else {
-      BaseCallMatrix.R result2 = result.get(j);
-      if (result2 == null) return R.Unknown; else return result2;
-    }
+    long bits = getBits(i, j);
+    return bits == 0 ? R.Unknown : bits == 1 ? R.Equal : R.LessThan;
   }
 
   @Override
   public final boolean equals(Object object) {
     if (object instanceof BaseCallMatrix<?> cm) {
       if (getCodomain() != cm.getCodomain() || getDomain() != cm.getDomain()) return false;
-      return cm.matrixMap.equals(this.matrixMap);
+      return myWidth == cm.myWidth && myHeight == cm.myHeight && Arrays.equals(myCells, cm.myCells);
     }
     return false;
   }
@@ -137,14 +151,9 @@ public class BaseCallMatrix<T> {
   BaseCallMatrix.R compare(Object object) {
     if (object instanceof BaseCallMatrix<?> cm) {
       if (this.equals(cm)) return R.Equal;
-      if (this.getDomain() != cm.getDomain() || this.getCodomain() != cm.getCodomain()) throw new IllegalArgumentException();
-      for (Integer i : matrixMap.keySet()) {
-        HashMap<Integer, R> map = matrixMap.get(i);
-        for (Integer j : map.keySet()) {
-          R my = map.get(j);
-          R theirs = cm.getValue(i, j);
-          if (!rleq(my, theirs)) return R.Unknown;
-        }
+      if (this.getDomain() != cm.getDomain() || this.getCodomain() != cm.getCodomain() || myCells.length != cm.myCells.length) throw new IllegalArgumentException();
+      for (int w = 0; w < myCells.length; w++) {
+        if ((myCells[w] & ~cm.myCells[w]) != 0) return R.Unknown;
       }
       return R.LessThan;
     }
@@ -154,7 +163,7 @@ public class BaseCallMatrix<T> {
   @Override
   public final int hashCode() {
     int result = getCodomain().hashCode() * 31 + getDomain().hashCode();
-    return result * 31 + matrixMap.hashCode();
+    return result * 31 + Arrays.hashCode(myCells);
   }
 
   protected String[] getColumnLabels() {
@@ -245,10 +254,8 @@ public class BaseCallMatrix<T> {
   }
 
   public boolean hasLessThanSomewhere() {
-    for (HashMap<Integer, BaseCallMatrix.R> map : matrixMap.values()) {
-      for (BaseCallMatrix.R r : map.values()) {
-        if (r == R.LessThan) return true;
-      }
+    for (long word : myCells) {
+      if ((word & HIGH_BITS) != 0) return true;
     }
     return false;
   }
@@ -3731,6 +3731,7 @@ public class CheckTypeVisitor extends UserDataHolderImpl implements ConcreteExpr
   }
 
   private void restoreState() {
+    myEquations.releaseState(mySavedState);
     mySavedState.listErrorReporter.reportTo(mySavedState.errorReporter);
     errorReporter = mySavedState.errorReporter;
     if (mySavedState.previousState != null) {
@@ -3762,6 +3763,7 @@ public class CheckTypeVisitor extends UserDataHolderImpl implements ConcreteExpr
     }
     TypecheckerState state = new TypecheckerState(mySavedState.errorReporter, myDeferredMetasBeforeSolver.size(), myDeferredMetasAfterLevels.size(), copyUserData(), mySavedState.previousState, mySavedState.listErrorReporter, mySavedState.allowDeferredMetas);
     myEquations.saveState(state);
+    myEquations.releaseState(mySavedState);
     mySavedState = state;
   }
 
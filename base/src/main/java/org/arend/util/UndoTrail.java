@@ -0,0 +1,56 @@
+package org.arend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A log of actions that undo changes of some data.
+ * A state of the data is represented by a position in the log, so it can be saved in constant time.
+ * Restoring a state takes time proportional to the number of changes made since.
+ * Every position returned by {@link #mark} should be released by {@link #release} when it is no longer needed.
+ * Changes are recorded only while some position is not released since other changes can never be undone.
+ */
+public class UndoTrail {
+  private final List<Runnable> myUndoActions = new ArrayList<>();
+  private int myActiveMarks;
+
+  /**
+   * @return the current position in the log.
+   */
+  public int mark() {
+    myActiveMarks++;
+    return myUndoActions.size();
+  }
+
+  /**
+   * Releases a position returned by {@link #mark}.
+   * When all positions are released, the log is cleared.
+   */
+  public void release() {
+    if (myActiveMarks == 0) {
+      throw new IllegalStateException();
+    }
+    if (--myActiveMarks == 0) {
+      myUndoActions.clear();
+    }
+  }
+
+  public void record(Runnable undoAction) {
+    if (myActiveMarks > 0) {
+      myUndoActions.add(undoAction);
+    }
+  }
+
+  public int size() {
+    return myUndoActions.size();
+  }
+
+  /**
+   * Undoes all changes recorded after the given position.
+   */
+  public void undo(int mark) {
+    for (int i = myUndoActions.size() - 1; i >= mark; i--) {
+      myUndoActions.remove(i).run();
+    }
+  }
+}
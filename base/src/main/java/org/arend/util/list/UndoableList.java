@@ -0,0 +1,66 @@
+package org.arend.util.list;
+
+import org.arend.util.UndoTrail;
+
+import java.util.*;
+
+/**
+ * An array list that records its changes in {@link UndoTrail}.
+ */
+public class UndoableList<E> extends AbstractList<E> implements RandomAccess {
+  private final List<E> myList = new ArrayList<>();
+  private final UndoTrail myTrail;
+
+  public UndoableList(UndoTrail trail) {
+    myTrail = trail;
+  }
+
+  @Override
+  public E get(int index) {
+    return myList.get(index);
+  }
+
+  @Override
+  public int size() {
+    return myList.size();
+  }
+
+  @Override
+  public E set(int index, E element) {
+    E prev = myList.set(index, element);
+    myTrail.record(() -> myList.set(index, prev));
+    return prev;
+  }
+
+  @Override
+  public void add(int index, E element) {
+    myList.add(index, element);
+    modCount++;
+    myTrail.record(() -> myList.remove(index));
+  }
+
+  @Override
+  public E remove(int index) {
+    E prev = myList.remove(index);
+    modCount++;
+    myTrail.record(() -> myList.add(index, prev));
+    return prev;
+  }
+
+  @Override
+  protected void removeRange(int fromIndex, int toIndex) {
+    if (fromIndex >= toIndex) {
+      return;
+    }
+    List<E> subList = myList.subList(fromIndex, toIndex);
+    List<E> removed = new ArrayList<>(subList);
+    subList.clear();
+    modCount++;
+    myTrail.record(() -> myList.addAll(fromIndex, removed));
+  }
+
+  @Override
+  public void clear() {
+    removeRange(0, myList.size());
+  }
+}
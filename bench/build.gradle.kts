@@ -0,0 +1,27 @@
+dependencies {
+    val jmhVersion = "1.37"
+    implementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+
+    val antlrVersion: String by rootProject.ext
+    val protobufVersion: String by rootProject.ext
+    implementation("org.antlr:antlr4-runtime:$antlrVersion")
+    implementation("com.google.protobuf:protobuf-java:$protobufVersion")
+    implementation(project(":base"))
+    implementation(project(":parser"))
+    implementation(project(":proto"))
+    implementation(project(":cli"))
+    implementation(project(":arend-lib:meta"))
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs JMH benchmarks. A regular expression selecting benchmarks can be passed with -Pjmh.includes=<regexp>."
+    dependsOn(tasks.named("classes"))
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    // Benchmarks read lib/Prelude.ard
+    workingDir(rootProject.rootDir)
+    project.findProperty("jmh.includes")?.let { args(it.toString()) }
+    args("-rf", "json", "-rff", buildDir.resolve("jmh-result.json").absolutePath)
+}
@@ -0,0 +1,95 @@
+package org.arend.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The fixed corpus of benchmarks.
+ * It consists of the prelude and of generated modules that contain copies of the same block of definitions.
+ */
+public final class BenchCorpus {
+  private BenchCorpus() {}
+
+  /**
+   * The name of the system property that contains the root directory of the project.
+   * If it is not set, the working directory is used.
+   */
+  public static final String ROOT_PROPERTY = "arend.root";
+
+  public static String readPrelude() {
+    Path path = Paths.get(System.getProperty(ROOT_PROPERTY, "."), "lib", "Prelude.ard");
+    try {
+      return Files.readString(path);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Generates a module that consists of {@code copies} copies of a block of definitions.
+   * The block contains functions defined by pattern matching, case expressions, data types, classes with instances,
+   * and functions whose types require normalization to be checked.
+   * Definitions in the i-th copy have suffix i.
+   */
+  public static String generate(int copies) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < copies; i++) {
+      builder.append(BLOCK.replace("#", String.valueOf(i)));
+    }
+    return builder.toString();
+  }
+
+  private static final String BLOCK =
+    "\\func plus# (x y : Nat) : Nat \\elim x\n" +
+    "  | 0 => y\n" +
+    "  | suc x => suc (plus# x y)\n" +
+    "\n" +
+    "\\lemma plusZero# (x : Nat) : plus# x 0 = x \\elim x\n" +
+    "  | 0 => idp\n" +
+    "  | suc x => path (\\lam i => suc (plusZero# x @ i))\n" +
+    "\n" +
+    "\\func fib# (n : Nat) : Nat\n" +
+    "  | 0 => 0\n" +
+    "  | 1 => 1\n" +
+    "  | suc (suc n) => plus# (fib# n) (fib# (suc n))\n" +
+    "\n" +
+    "\\func fibTest# : fib# 12 = 144 => idp\n" +
+    "\n" +
+    "\\data Tree# | leaf# | node# (l : Tree#) (n : Nat) (r : Tree#)\n" +
+    "\n" +
+    "\\func mkTree# (x n : Nat) : Tree# \\elim n\n" +
+    "  | 0 => leaf#\n" +
+    "  | suc n => node# (mkTree# x n) x (mkTree# x n)\n" +
+    "\n" +
+    "\\func size# (t : Tree#) : Nat \\elim t\n" +
+    "  | leaf# => 0\n" +
+    "  | node# l _ r => suc (plus# (size# l) (size# r))\n" +
+    "\n" +
+    "\\func sizeTest# : size# (mkTree# 0 8) = 255 => idp\n" +
+    "\n" +
+    "\\func caseChain# (n : Nat) : Nat => \\case n \\with {\n" +
+    "  | 0 => 3\n" +
+    "  | 1 => plus# n 3\n" +
+    "  | suc (suc m) => \\case m \\with {\n" +
+    "    | 0 => 2\n" +
+    "    | suc k => \\let t => leaf# \\in plus# k (size# t)\n" +
+    "  }\n" +
+    "}\n" +
+    "\n" +
+    "\\func caseTest# : caseChain# 10 = 7 => idp\n" +
+    "\n" +
+    "\\class Monoid# (E : \\Set) {\n" +
+    "  | unit# : E\n" +
+    "  | op# : E -> E -> E\n" +
+    "}\n" +
+    "\n" +
+    "\\instance NatMonoid# : Monoid# Nat\n" +
+    "  | unit# => 0\n" +
+    "  | op# => plus#\n" +
+    "\n" +
+    "\\func useMonoid# (x : Nat) : Nat => op# x unit#\n" +
+    "\n";
+}
@@ -0,0 +1,91 @@
+package org.arend.bench;
+
+import org.arend.core.definition.Definition;
+import org.arend.error.DummyErrorReporter;
+import org.arend.ext.error.GeneralError;
+import org.arend.ext.error.ListErrorReporter;
+import org.arend.ext.module.ModuleLocation;
+import org.arend.ext.module.ModulePath;
+import org.arend.frontend.parser.BuildVisitor;
+import org.arend.frontend.repl.CommonCliRepl;
+import org.arend.frontend.source.PreludeResourceSource;
+import org.arend.frontend.source.PreludeSources;
+import org.arend.naming.reference.TCDefReferable;
+import org.arend.prelude.Prelude;
+import org.arend.server.ArendServer;
+import org.arend.server.ArendServerRequester;
+import org.arend.server.ProgressReporter;
+import org.arend.server.impl.ArendServerImpl;
+import org.arend.server.impl.DefinitionData;
+import org.arend.term.group.ConcreteGroup;
+import org.arend.typechecking.computation.UnstoppableCancellationIndicator;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A server with the prelude and a single module.
+ * Benchmarks create a new instance whenever they need a module that has not been resolved or typechecked yet.
+ */
+public class BenchModule {
+  public static final ModuleLocation MODULE = new ModuleLocation("bench", ModuleLocation.LocationKind.SOURCE, new ModulePath("Bench"));
+
+  private final ArendServer myServer;
+  private long myModificationStamp;
+
+  public BenchModule() {
+    myServer = new ArendServerImpl(ArendServerRequester.TRIVIAL, false, false, false);
+    myServer.addReadOnlyModule(Prelude.MODULE_LOCATION, () -> new PreludeResourceSource().loadGroup(DummyErrorReporter.INSTANCE));
+    PreludeSources.loadBinaryPrelude(myServer, DummyErrorReporter.INSTANCE);
+  }
+
+  public ArendServer getServer() {
+    return myServer;
+  }
+
+  public static ConcreteGroup parse(String text, ModuleLocation module) {
+    ListErrorReporter errorReporter = new ListErrorReporter();
+    ConcreteGroup group = new BuildVisitor(module, errorReporter).visitStatements(CommonCliRepl.createParser(text, module, errorReporter).statements());
+    checkErrors(errorReporter.getErrorList());
+    return group;
+  }
+
+  private static void checkErrors(List<? extends GeneralError> errors) {
+    if (errors != null && !errors.isEmpty()) {
+      throw new IllegalStateException("The corpus contains errors: " + errors);
+    }
+  }
+
+  public ConcreteGroup getGroup() {
+    return myServer.getRawGroup(MODULE);
+  }
+
+  public void update(ConcreteGroup group) {
+    myServer.updateModule(++myModificationStamp, MODULE, () -> group);
+  }
+
+  public void resolve() {
+    myServer.getCheckerFor(Collections.singletonList(MODULE)).resolveAll(UnstoppableCancellationIndicator.INSTANCE, ProgressReporter.empty());
+  }
+
+  public void typecheck() {
+    myServer.getCheckerFor(Collections.singletonList(MODULE)).typecheck(UnstoppableCancellationIndicator.INSTANCE, ProgressReporter.empty());
+  }
+
+  /**
+   * Verifies that the module was processed without errors.
+   */
+  public void checkErrors() {
+    checkErrors(myServer.getErrorMap().get(MODULE));
+  }
+
+  public Definition getDefinition(String name) {
+    for (DefinitionData defData : myServer.getResolvedDefinitions(MODULE)) {
+      TCDefReferable referable = defData.definition().getData();
+      if (referable.getRefName().equals(name)) {
+        return referable.getTypechecked();
+      }
+    }
+    throw new IllegalArgumentException("Cannot find definition " + name);
+  }
+}
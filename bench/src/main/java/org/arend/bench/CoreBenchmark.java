@@ -0,0 +1,102 @@
+package org.arend.bench;
+
+import org.arend.core.context.binding.Binding;
+import org.arend.core.context.binding.TypedBinding;
+import org.arend.core.definition.FunctionDefinition;
+import org.arend.core.expr.Expression;
+import org.arend.core.expr.FunCallExpression;
+import org.arend.core.expr.ReferenceExpression;
+import org.arend.core.expr.SmallIntegerExpression;
+import org.arend.core.expr.visitor.CompareVisitor;
+import org.arend.core.expr.visitor.EnvironmentEvaluator;
+import org.arend.core.expr.visitor.NormalizationCache;
+import org.arend.ext.core.ops.CMP;
+import org.arend.ext.core.ops.NormalizationMode;
+import org.arend.typechecking.implicitargs.equations.DummyEquations;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.arend.core.expr.ExpressionFactory.Nat;
+
+/**
+ * Measures normalization, comparison, and substitution of core expressions obtained from the generated corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoreBenchmark {
+  @Param({"false", "true"})
+  public boolean environmentEvaluation;
+
+  @Param({"10"})
+  public int depth;
+
+  private FunctionDefinition myFib;
+  private FunctionDefinition myMkTree;
+  private Expression myFibCall;
+  private Expression myTree1;
+  private Expression myTree2;
+  private Binding myBinding;
+  private Expression myOpenTree;
+
+  private Expression makeTree(Expression label) {
+    return FunCallExpression.make(myMkTree, myMkTree.makeIdLevels(), Arrays.asList(label, new SmallIntegerExpression(depth)));
+  }
+
+  @Setup
+  public void setup() {
+    BenchModule module = new BenchModule();
+    module.update(BenchModule.parse(BenchCorpus.generate(1), BenchModule.MODULE));
+    module.typecheck();
+    module.checkErrors();
+    myFib = (FunctionDefinition) module.getDefinition("fib0");
+    myMkTree = (FunctionDefinition) module.getDefinition("mkTree0");
+
+    // Cached normal forms would turn every invocation after the first one into a lookup.
+    // Each fork runs in a separate JVM, so the capacity is not restored.
+    NormalizationCache.setDefaultCapacity(0);
+    EnvironmentEvaluator.setEnabled(environmentEvaluation);
+
+    myFibCall = FunCallExpression.make(myFib, myFib.makeIdLevels(), Arrays.asList(new SmallIntegerExpression(18)));
+    myTree1 = makeTree(new SmallIntegerExpression(1)).normalize(NormalizationMode.NF);
+    myTree2 = makeTree(new SmallIntegerExpression(1)).normalize(NormalizationMode.NF);
+    myBinding = new TypedBinding("x", Nat());
+    myOpenTree = makeTree(new ReferenceExpression(myBinding)).normalize(NormalizationMode.NF);
+  }
+
+  @Benchmark
+  public Expression normalizeFib() {
+    return myFibCall.normalize(NormalizationMode.NF);
+  }
+
+  @Benchmark
+  public Expression normalizeTree() {
+    return makeTree(new SmallIntegerExpression(1)).normalize(NormalizationMode.NF);
+  }
+
+  /**
+   * Compares two equal trees that do not share subexpressions.
+   */
+  @Benchmark
+  public boolean compareTrees() {
+    return CompareVisitor.compare(DummyEquations.getInstance(), CMP.EQ, myTree1, myTree2, myMkTree.getResultType(), null);
+  }
+
+  /**
+   * Compares an unnormalized tree with its normal form.
+   */
+  @Benchmark
+  public boolean compareWithNormalForm() {
+    return CompareVisitor.compare(DummyEquations.getInstance(), CMP.EQ, makeTree(new SmallIntegerExpression(1)), myTree1, myMkTree.getResultType(), null);
+  }
+
+  @Benchmark
+  public Expression substTree() {
+    return myOpenTree.subst(myBinding, new SmallIntegerExpression(1));
+  }
+}
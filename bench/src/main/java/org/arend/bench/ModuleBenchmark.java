@@ -0,0 +1,63 @@
+package org.arend.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures name resolution and typechecking of a generated module.
+ * Both modify the concrete group, so every invocation gets a new server and a freshly parsed module.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleBenchmark {
+  @State(Scope.Thread)
+  public static class Parsed {
+    @Param({"50"})
+    public int copies;
+
+    private String myText;
+    BenchModule module;
+
+    @Setup(Level.Trial)
+    public void generate() {
+      myText = BenchCorpus.generate(copies);
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() {
+      module = new BenchModule();
+      module.update(BenchModule.parse(myText, BenchModule.MODULE));
+      prepare();
+    }
+
+    protected void prepare() {}
+  }
+
+  @State(Scope.Thread)
+  public static class Resolved extends Parsed {
+    @Override
+    protected void prepare() {
+      module.resolve();
+      module.checkErrors();
+    }
+  }
+
+  @Benchmark
+  public BenchModule resolve(Parsed state) {
+    state.module.resolve();
+    return state.module;
+  }
+
+  /**
+   * Measures typechecking of a module whose names are already resolved.
+   */
+  @Benchmark
+  public BenchModule typecheck(Resolved state) {
+    state.module.typecheck();
+    return state.module;
+  }
+}
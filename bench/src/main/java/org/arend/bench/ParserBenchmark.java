@@ -0,0 +1,40 @@
+package org.arend.bench;
+
+import org.arend.prelude.Prelude;
+import org.arend.term.group.ConcreteGroup;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing and building of concrete syntax.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+  @Param({"50"})
+  public int copies;
+
+  private String myPrelude;
+  private String myGenerated;
+
+  @Setup
+  public void setup() {
+    myPrelude = BenchCorpus.readPrelude();
+    myGenerated = BenchCorpus.generate(copies);
+  }
+
+  @Benchmark
+  public ConcreteGroup parsePrelude() {
+    return BenchModule.parse(myPrelude, Prelude.MODULE_LOCATION);
+  }
+
+  @Benchmark
+  public ConcreteGroup parseGenerated() {
+    return BenchModule.parse(myGenerated, BenchModule.MODULE);
+  }
+}
@@ -0,0 +1,73 @@
+package org.arend.bench;
+
+import org.arend.error.DummyErrorReporter;
+import org.arend.ext.serialization.DeserializationException;
+import org.arend.module.serialization.ModuleDeserialization;
+import org.arend.module.serialization.ModuleProtos;
+import org.arend.module.serialization.ModuleSerialization;
+import org.arend.term.group.ConcreteGroup;
+import org.arend.typechecking.order.dependency.DummyDependencyListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialization of a typechecked module and its loading into a freshly parsed group.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+  @State(Scope.Benchmark)
+  public static class Typechecked {
+    @Param({"50"})
+    public int copies;
+
+    String text;
+    ConcreteGroup group;
+    byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      text = BenchCorpus.generate(copies);
+      BenchModule module = new BenchModule();
+      module.update(BenchModule.parse(text, BenchModule.MODULE));
+      module.typecheck();
+      module.checkErrors();
+      group = module.getGroup();
+      bytes = write(group).toByteArray();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Parsed {
+    BenchModule module;
+
+    @Setup(Level.Invocation)
+    public void setup(Typechecked typechecked) {
+      module = new BenchModule();
+      module.update(BenchModule.parse(typechecked.text, BenchModule.MODULE));
+    }
+  }
+
+  private static ModuleProtos.Module write(ConcreteGroup group) {
+    return new ModuleSerialization(DummyErrorReporter.INSTANCE, DummyDependencyListener.INSTANCE).writeModule(group, BenchModule.MODULE.getModulePath());
+  }
+
+  @Benchmark
+  public byte[] serialize(Typechecked state) {
+    return write(state.group).toByteArray();
+  }
+
+  @Benchmark
+  public ConcreteGroup deserialize(Typechecked typechecked, Parsed parsed) throws IOException, DeserializationException {
+    ModuleDeserialization deserialization = new ModuleDeserialization(ModuleProtos.Module.parseFrom(typechecked.bytes), null, null);
+    ConcreteGroup group = parsed.module.getGroup();
+    deserialization.readDefinitions(group);
+    deserialization.readModule(parsed.module.getServer().getModuleScopeProvider(BenchModule.MODULE.getLibraryName(), false), DummyDependencyListener.INSTANCE);
+    return group;
+  }
+}
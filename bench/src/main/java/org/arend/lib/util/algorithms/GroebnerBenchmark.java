@@ -0,0 +1,101 @@
+package org.arend.lib.util.algorithms;
+
+import org.arend.ext.util.Pair;
+import org.arend.lib.util.algorithms.groebner.Buchberger;
+import org.arend.lib.util.algorithms.idealmem.GroebnerIM;
+import org.arend.lib.util.algorithms.polynomials.Monomial;
+import org.arend.lib.util.algorithms.polynomials.Poly;
+import org.arend.lib.util.algorithms.polynomials.Ring;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ideal membership problems of the kind solved by the algebraic solvers of the meta library.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroebnerBenchmark {
+  @Param({"3", "4"})
+  public int variables;
+
+  private List<Poly<BigInteger>> myChainGenerators;
+  private Poly<BigInteger> myChainPoly;
+  private List<Poly<BigInteger>> mySymmetricGenerators;
+  private Poly<BigInteger> mySymmetricPoly;
+  private List<Integer> myWord1;
+  private List<Integer> myWord2;
+  private List<Pair<List<Integer>, List<Integer>>> myAxioms;
+
+  private Monomial<BigInteger> monomial(long coefficient, int... degrees) {
+    return new Monomial<>(BigInteger.valueOf(coefficient), Arrays.copyOf(degrees, variables), Ring.Z);
+  }
+
+  private int[] power(int var, int degree) {
+    int[] degrees = new int[variables];
+    degrees[var] = degree;
+    return degrees;
+  }
+
+  @Setup
+  public void setup() {
+    // x_i^2 = x_{i+1} and x_{n-1}^2 = x_0 imply x_0^(2^n) = x_0
+    myChainGenerators = new ArrayList<>();
+    myAxioms = new ArrayList<>();
+    for (int i = 0; i < variables; i++) {
+      int next = (i + 1) % variables;
+      myChainGenerators.add(new Poly<>(List.of(monomial(1, power(i, 2)), monomial(-1, power(next, 1)))));
+      myAxioms.add(new Pair<>(Arrays.stream(power(i, 2)).boxed().toList(), Arrays.stream(power(next, 1)).boxed().toList()));
+    }
+    myChainPoly = new Poly<>(List.of(monomial(1, power(0, 1 << variables)), monomial(-1, power(0, 1))));
+    myWord1 = Arrays.stream(power(0, 1 << variables)).boxed().toList();
+    myWord2 = Arrays.stream(power(0, 1)).boxed().toList();
+
+    // Elementary symmetric polynomials e_1, ..., e_{n-1} and e_n - 1 imply x_0^n + (-1)^n = 0
+    mySymmetricGenerators = new ArrayList<>();
+    for (int k = 1; k <= variables; k++) {
+      List<Monomial<BigInteger>> monomials = new ArrayList<>();
+      addElementarySymmetric(k, 0, new int[variables], monomials);
+      if (k == variables) {
+        monomials.add(monomial(-1));
+      }
+      mySymmetricGenerators.add(new Poly<>(monomials));
+    }
+    mySymmetricPoly = new Poly<>(List.of(monomial(1, power(0, variables)), monomial(variables % 2 == 0 ? 1 : -1)));
+  }
+
+  private void addElementarySymmetric(int k, int from, int[] degrees, List<Monomial<BigInteger>> result) {
+    if (k == 0) {
+      result.add(monomial(1, degrees));
+      return;
+    }
+    for (int i = from; i < variables; i++) {
+      degrees[i] = 1;
+      addElementarySymmetric(k - 1, i + 1, degrees, result);
+      degrees[i] = 0;
+    }
+  }
+
+  @Benchmark
+  public List<Poly<BigInteger>> chainIdeal() {
+    return new GroebnerIM(new Buchberger()).computeGenDecomposition(myChainPoly, myChainGenerators);
+  }
+
+  @Benchmark
+  public List<Poly<BigInteger>> symmetricIdeal() {
+    return new GroebnerIM(new Buchberger()).computeGenDecomposition(mySymmetricPoly, mySymmetricGenerators);
+  }
+
+  @Benchmark
+  public List<Pair<Integer, Boolean>> commutativeMonoidWordProblem() {
+    return new ComMonoidWP(new GroebnerIM(new Buchberger())).solve(myWord1, myWord2, myAxioms);
+  }
+}
@@ -0,0 +1,93 @@
+package org.arend.typechecking.termination;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares packed call matrices with the previous sparse representation and measures completion of call graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallMatrixBenchmark {
+  @Param({"4", "16", "64"})
+  public int parameters;
+
+  @Param({"8"})
+  public int functions;
+
+  private BaseCallMatrix<String> myPacked1;
+  private BaseCallMatrix<String> myPacked2;
+  private SparseCallMatrix mySparse1;
+  private SparseCallMatrix mySparse2;
+  private Set<BaseCallMatrix<String>> myEdges;
+
+  private static BaseCallMatrix.R randomRelation(Random random) {
+    return random.nextInt(4) == 0 ? BaseCallMatrix.R.LessThan : BaseCallMatrix.R.Equal;
+  }
+
+  /**
+   * Generates a matrix that looks like a call matrix: most parameters are related to at most one argument.
+   */
+  private BaseCallMatrix<String> generate(Random random, String domain, String codomain, SparseCallMatrix sparse) {
+    BaseCallMatrix<String> result = new BaseCallMatrix<>(parameters, parameters, domain, codomain);
+    for (int i = 0; i < parameters; i++) {
+      if (random.nextInt(8) == 0) continue;
+      int j = random.nextInt(parameters);
+      BaseCallMatrix.R r = randomRelation(random);
+      result.set(i, j, r);
+      if (sparse != null) {
+        sparse.set(i, j, r);
+      }
+    }
+    return result;
+  }
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    mySparse1 = new SparseCallMatrix();
+    mySparse2 = new SparseCallMatrix();
+    myPacked1 = generate(random, "f", "f", mySparse1);
+    myPacked2 = generate(random, "f", "f", mySparse2);
+
+    // A block of mutually recursive functions, each of which calls the next one and some random others
+    myEdges = new HashSet<>();
+    for (int i = 0; i < functions; i++) {
+      myEdges.add(generate(random, "f" + i, "f" + (i + 1) % functions, null));
+      myEdges.add(generate(random, "f" + i, "f" + random.nextInt(functions), null));
+    }
+  }
+
+  @Benchmark
+  public BaseCallMatrix<String> packedMultiply() {
+    return new BaseCallMatrix<>(myPacked1, myPacked2);
+  }
+
+  @Benchmark
+  public Object sparseMultiply() {
+    return new SparseCallMatrix(mySparse1, mySparse2);
+  }
+
+  @Benchmark
+  public int packedCompare() {
+    return myPacked1.compare(myPacked2).ordinal();
+  }
+
+  @Benchmark
+  public int sparseCompare() {
+    return mySparse1.compare(mySparse2).ordinal();
+  }
+
+  @Benchmark
+  public BaseCallGraph<String> completeGraph() {
+    BaseCallGraph<String> graph = new BaseCallGraph<>();
+    graph.add(myEdges);
+    return graph.getCompletedGraph();
+  }
+}
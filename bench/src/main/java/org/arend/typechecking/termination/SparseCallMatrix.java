@@ -0,0 +1,60 @@
+package org.arend.typechecking.termination;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The previous representation of call matrices as maps of maps.
+ * It is kept as a baseline for {@link CallMatrixBenchmark}.
+ */
+class SparseCallMatrix {
+  private final HashMap<Integer, HashMap<Integer, BaseCallMatrix.R>> matrixMap = new HashMap<>();
+
+  SparseCallMatrix() {}
+
+  SparseCallMatrix(SparseCallMatrix m1, SparseCallMatrix m2) {
+    for (Integer i : m1.matrixMap.keySet()) {
+      HashMap<Integer, BaseCallMatrix.R> m1map = m1.matrixMap.get(i);
+      for (Integer j : m1map.keySet()) {
+        HashMap<Integer, BaseCallMatrix.R> m2map = m2.matrixMap.get(j);
+        if (m2map != null) for (Map.Entry<Integer, BaseCallMatrix.R> e : m2map.entrySet()) {
+          int k = e.getKey();
+          BaseCallMatrix.R ik_value = getValue(i, k);
+          if (ik_value != BaseCallMatrix.R.LessThan) {
+            BaseCallMatrix.R ik_summand = BaseCallMatrix.rmul(m1map.get(j), e.getValue());
+            BaseCallMatrix.R new_ik_value = BaseCallMatrix.radd(ik_value, ik_summand);
+            if (new_ik_value != ik_value) set(i, k, new_ik_value);
+          }
+        }
+      }
+    }
+  }
+
+  void set(int i, int j, BaseCallMatrix.R v) {
+    if (v != BaseCallMatrix.R.Unknown) {
+      matrixMap.computeIfAbsent(i, k -> new HashMap<>()).put(j, v);
+    } else {
+      HashMap<Integer, BaseCallMatrix.R> map = matrixMap.get(i);
+      if (map != null) {
+        map.remove(j);
+      }
+    }
+  }
+
+  BaseCallMatrix.R getValue(int i, int j) {
+    HashMap<Integer, BaseCallMatrix.R> result = matrixMap.get(i);
+    if (result == null) return BaseCallMatrix.R.Unknown;
+    BaseCallMatrix.R result2 = result.get(j);
+    return result2 == null ? BaseCallMatrix.R.Unknown : result2;
+  }
+
+  BaseCallMatrix.R compare(SparseCallMatrix cm) {
+    if (matrixMap.equals(cm.matrixMap)) return BaseCallMatrix.R.Equal;
+    for (Map.Entry<Integer, HashMap<Integer, BaseCallMatrix.R>> entry : matrixMap.entrySet()) {
+      for (Map.Entry<Integer, BaseCallMatrix.R> entry2 : entry.getValue().entrySet()) {
+        if (!BaseCallMatrix.rleq(entry2.getValue(), cm.getValue(entry.getKey(), entry2.getKey()))) return BaseCallMatrix.R.Unknown;
+      }
+    }
+    return BaseCallMatrix.R.LessThan;
+  }
+}
@@ -93,3 +93,19 @@ dependencies {
     testImplementation("junit:junit:4.13.1")
     testImplementation("org.hamcrest:hamcrest-library:1.3")
 }
+
+// Tests load prelude from Prelude.arc, so PreludeTest also runs with prelude typechecked from Prelude.ard
+val testSourcePrelude = tasks.register<Test>("testSourcePrelude") {
+    description = "Runs PreludeTest with prelude typechecked from Prelude.ard."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    filter {
+        includeTestsMatching("org.arend.typechecking.PreludeTest")
+    }
+    systemProperty("arend.test.sourcePrelude", "true")
+}
+
+tasks.check {
+    dependsOn(testSourcePrelude)
+}
@@ -2,6 +2,8 @@ package org.arend.frontend;
 
 import org.apache.commons.cli.*;
 import org.arend.core.definition.Definition;
+import org.arend.core.expr.ExpressionInterner;
+import org.arend.core.expr.visitor.EnvironmentEvaluator;
 import org.arend.core.expr.visitor.SizeExpressionVisitor;
 import org.arend.error.DummyErrorReporter;
 import org.arend.ext.error.ErrorReporter;
@@ -15,12 +17,14 @@ import org.arend.frontend.library.*;
 import org.arend.frontend.repl.PlainCliRepl;
 import org.arend.frontend.repl.jline.JLineCliRepl;
 import org.arend.frontend.source.PreludeResourceSource;
+import org.arend.frontend.source.PreludeSources;
 import org.arend.library.classLoader.FileClassLoaderDelegate;
 import org.arend.library.error.LibraryIOError;
 import org.arend.ext.module.FullName;
 import org.arend.ext.module.ModuleLocation;
 import org.arend.module.error.DefinitionNotFoundError;
 import org.arend.module.error.ModuleNotFoundError;
+import org.arend.module.serialization.LemmaBodyStore;
 import org.arend.naming.reference.GlobalReferable;
 import org.arend.naming.reference.LocatedReferable;
 import org.arend.naming.reference.TCDefReferable;
@@ -30,6 +34,7 @@ import org.arend.server.ArendServer;
 import org.arend.server.ProgressReporter;
 import org.arend.server.impl.ArendServerImpl;
 import org.arend.server.impl.DefinitionData;
+import org.arend.source.BuildCache;
 import org.arend.term.concrete.Concrete;
 import org.arend.term.group.ConcreteGroup;
 import org.arend.term.group.ConcreteNamespaceCommand;
@@ -50,12 +55,17 @@ import java.util.*;
 
 public class ConsoleMain {
   private boolean myExitWithError;
+  private LibraryManager myLibraryManager;
+  private LemmaBodyStore myLemmaBodyStore;
   private final Map<ModuleLocation, GeneralError.Level> myModuleResults = new LinkedHashMap<>();
 
   private final static String SHOW_TIMES = "show-times";
   private final static String SHOW_SIZES = "show-sizes";
   private final static String SHOW_MODULES = "show-modules";
   private final static String SHOW_MODULES_WITH_INSTANCES = "show-modules-with-instances";
+  private final static String SHARE_EXPRESSIONS = "share-expressions";
+  private final static String ENVIRONMENT_EVALUATION = "environment-evaluation";
+  private final static String STORE_LEMMAS = "store-lemmas";
 
   private final ErrorReporter mySystemErrErrorReporter = error -> {
     System.err.println(error);
@@ -74,12 +84,17 @@ public class ConsoleMain {
       cmdOptions.addOption(Option.builder("c").longOpt("double-check").desc("double check correctness of the result").build());
       cmdOptions.addOption(Option.builder("i").longOpt("interactive").hasArg().optionalArg(true).argName("type").desc("start an interactive REPL, type can be plain or jline (default)").build());
       cmdOptions.addOption(Option.builder("p").longOpt("print").hasArg().argName("target").desc("print a definition or a module").build());
+      cmdOptions.addOption(Option.builder("b").longOpt("binaries").hasArg().argName("dir").desc("directory of the incremental build cache").build());
+      cmdOptions.addOption(Option.builder("j").longOpt("jobs").hasArg().argName("n").desc("number of threads used to parse and resolve modules and to typecheck independent definitions").build());
       cmdOptions.addOption("t", "test", false, "run tests");
       cmdOptions.addOption("v", "version", false, "print language version");
       cmdOptions.addOption(Option.builder().longOpt(SHOW_TIMES).build());
       cmdOptions.addOption(Option.builder().longOpt(SHOW_SIZES).build());
       cmdOptions.addOption(Option.builder().longOpt(SHOW_MODULES).build());
       cmdOptions.addOption(Option.builder().longOpt(SHOW_MODULES_WITH_INSTANCES).build());
+      cmdOptions.addOption(Option.builder().longOpt(SHARE_EXPRESSIONS).desc("share structurally equal expressions of loaded modules").build());
+      cmdOptions.addOption(Option.builder().longOpt(ENVIRONMENT_EVALUATION).desc("evaluate function calls in environments instead of substituting arguments").build());
+      cmdOptions.addOption(Option.builder().longOpt(STORE_LEMMAS).desc("keep bodies of lemmas in a temporary file instead of memory").build());
       CommandLine cmdLine = new DefaultParser().parse(cmdOptions, args);
 
       if (cmdLine.hasOption("h")) {
@@ -272,9 +287,42 @@ public class ConsoleMain {
     if (cmdLine == null) return false;
 
     boolean doubleCheck = cmdLine.hasOption("c");
+    if (cmdLine.hasOption(SHARE_EXPRESSIONS)) {
+      ExpressionInterner.setEnabled(true);
+    }
+    if (cmdLine.hasOption(ENVIRONMENT_EVALUATION)) {
+      EnvironmentEvaluator.setEnabled(true);
+    }
     LibraryManager libraryManager = new LibraryManager(mySystemErrErrorReporter);
-    ArendServer server = new ArendServerImpl(new CliServerRequester(libraryManager), false, false, !doubleCheck);
+    myLibraryManager = libraryManager;
+    CliServerRequester requester = new CliServerRequester(libraryManager);
+    boolean storeLemmas = cmdLine.hasOption(STORE_LEMMAS);
+    ArendServerImpl server = new ArendServerImpl(requester, false, false, !doubleCheck || storeLemmas);
+    if (storeLemmas) {
+      try {
+        myLemmaBodyStore = LemmaBodyStore.createTemporary();
+        server.setLemmaBodyStore(myLemmaBodyStore);
+      } catch (IOException e) {
+        System.err.println("[ERROR] Cannot create a file for bodies of lemmas: " + e.getLocalizedMessage());
+        return false;
+      }
+    }
+    int jobs = 1;
+    if (cmdLine.hasOption("j")) {
+      try {
+        jobs = Integer.parseInt(cmdLine.getOptionValue("j"));
+      } catch (NumberFormatException ignored) {
+        jobs = 0;
+      }
+      if (jobs < 1) {
+        System.err.println("[ERROR] Number of jobs must be a positive integer");
+        return false;
+      }
+      server.setResolvingParallelism(jobs);
+      server.setTypecheckingParallelism(jobs);
+    }
     server.addReadOnlyModule(Prelude.MODULE_LOCATION, () -> Objects.requireNonNull(new PreludeResourceSource().loadGroup(DummyErrorReporter.INSTANCE)));
+    PreludeSources.loadBinaryPrelude(server, myErrorReporter);
     server.addErrorReporter(myErrorReporter);
 
     // Get library directories
@@ -317,7 +365,17 @@ public class ConsoleMain {
     Path sourceDir = sourceDirStr == null ? null : Paths.get(sourceDirStr);
 
     String binaryDirStr = cmdLine.getOptionValue("b");
-    Path outDir = binaryDirStr != null ? Paths.get(binaryDirStr) : null;
+    BuildCache buildCache = null;
+    if (binaryDirStr != null) {
+      Path outDir = Paths.get(binaryDirStr);
+      try {
+        Files.createDirectories(outDir);
+        buildCache = new BuildCache(outDir, requester::computeSourceHash);
+        requester.setBuildCache(buildCache);
+      } catch (IOException e) {
+        mySystemErrErrorReporter.report(new LibraryIOError(outDir.toString(), "Cannot create output directory", e.getLocalizedMessage()));
+      }
+    }
 
     String extDirStr = cmdLine.getOptionValue("e");
     Path extDir = extDirStr != null ? Paths.get(extDirStr) : null;
@@ -350,18 +408,9 @@ public class ConsoleMain {
     }
 
     if (sourceDir != null) {
-      if (outDir != null) {
-        try {
-          Files.createDirectories(outDir);
-        } catch (IOException e) {
-          mySystemErrErrorReporter.report(new LibraryIOError(outDir.toString(), "Cannot create output directory", e.getLocalizedMessage()));
-          outDir = null;
-        }
-      }
-
       requestedLibraries.add(new FileSourceLibrary("\\default", false, -1,
           requestedLibraries.stream().map(SourceLibrary::getLibraryName).toList(), null, extMainClass, null,
-          sourceDir, outDir, null, extDir == null ? null : new FileClassLoaderDelegate(extDir)));
+          sourceDir, null, null, extDir == null ? null : new FileClassLoaderDelegate(extDir)));
     }
 
     if (requestedLibraries.isEmpty()) {
@@ -401,8 +450,20 @@ public class ConsoleMain {
         System.out.println("--- Typechecking " + library.getLibraryName() + " ---");
         long time = System.currentTimeMillis();
 
-        for (ModulePath modulePath : library.findModules(false)) {
-          server.getCheckerFor(Collections.singletonList(new ModuleLocation(library.getLibraryName(), ModuleLocation.LocationKind.SOURCE, modulePath))).typecheck(UnstoppableCancellationIndicator.INSTANCE, progressReporter);
+        if (jobs > 1) {
+          // Parse all modules in advance instead of parsing them one by one when they are requested
+          library.loadModules(server, false, jobs, libraryManager.getErrorReporter());
+
+          // Typecheck all modules at once so that independent definitions from different modules can be checked in parallel
+          List<ModuleLocation> modules = new ArrayList<>();
+          for (ModulePath modulePath : library.findModules(false)) {
+            modules.add(new ModuleLocation(library.getLibraryName(), ModuleLocation.LocationKind.SOURCE, modulePath));
+          }
+          server.getCheckerFor(modules).typecheck(UnstoppableCancellationIndicator.INSTANCE, progressReporter);
+        } else {
+          for (ModulePath modulePath : library.findModules(false)) {
+            server.getCheckerFor(Collections.singletonList(new ModuleLocation(library.getLibraryName(), ModuleLocation.LocationKind.SOURCE, modulePath))).typecheck(UnstoppableCancellationIndicator.INSTANCE, progressReporter);
+          }
         }
 
         time = System.currentTimeMillis() - time;
@@ -499,6 +560,10 @@ public class ConsoleMain {
       }
     }
 
+    if (buildCache != null) {
+      buildCache.persist(server, mySystemErrErrorReporter);
+    }
+
     printDefinitions(server, cmdLine.getOptionValue("p"));
 
     if (cmdLine.hasOption("t")) {
@@ -622,9 +687,28 @@ public class ConsoleMain {
     }
   }
 
+  private void close() {
+    if (myLibraryManager != null) {
+      myLibraryManager.unloadLibraries();
+    }
+    if (myLemmaBodyStore != null) {
+      try {
+        myLemmaBodyStore.close();
+      } catch (IOException e) {
+        System.err.println("[ERROR] Cannot close the file for bodies of lemmas: " + e.getLocalizedMessage());
+      }
+    }
+  }
+
   public static void main(String[] args) {
     ConsoleMain main = new ConsoleMain();
-    if (!main.run(args) || main.myExitWithError) {
+    boolean ok;
+    try {
+      ok = main.run(args);
+    } finally {
+      main.close();
+    }
+    if (!ok || main.myExitWithError) {
       System.exit(1);
     }
   }
@@ -1,9 +1,19 @@
 package org.arend.frontend.library;
 
 import org.arend.ext.module.ModuleLocation;
+import org.arend.ext.module.ModulePath;
+import org.arend.frontend.source.StreamRawSource;
+import org.arend.module.serialization.ModuleProtos;
+import org.arend.prelude.Prelude;
 import org.arend.server.ArendServer;
 import org.arend.server.ArendServerRequester;
+import org.arend.server.impl.ArendServerImpl;
+import org.arend.source.BuildCache;
 import org.arend.source.Source;
+import org.arend.source.StreamBinarySource;
+import org.arend.term.group.ConcreteGroup;
+import org.arend.typechecking.order.dependency.DependencyListener;
+import org.arend.typechecking.order.dependency.DummyDependencyListener;
 import org.arend.util.FileUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -11,12 +21,19 @@ import org.jetbrains.annotations.Nullable;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.arend.repl.Repl.REPL_NAME;
 
 public class CliServerRequester implements ArendServerRequester {
   private final LibraryManager myLibraryManager;
+  private final Map<ModuleLocation, ConcreteGroup> myBinaryGroups = new HashMap<>();
+  // Timestamps of binaries of modules that were loaded from binaries
+  private final Map<ModuleLocation, Long> myBinaryTimeStamps = new ConcurrentHashMap<>();
+  private BuildCache myBuildCache;
 
   public CliServerRequester(LibraryManager libraryManager) {
     myLibraryManager = libraryManager;
@@ -26,6 +43,19 @@ public class CliServerRequester implements ArendServerRequester {
     return myLibraryManager;
   }
 
+  /**
+   * Sets a cache from which modules are loaded before binaries of libraries are tried.
+   */
+  public void setBuildCache(@Nullable BuildCache buildCache) {
+    myBuildCache = buildCache;
+  }
+
+  public byte @Nullable [] computeSourceHash(@NotNull ModuleLocation module) {
+    SourceLibrary library = myLibraryManager.getLibrary(module.getLibraryName());
+    Source source = library == null ? null : library.getSource(module.getModulePath(), module.getLocationKind() == ModuleLocation.LocationKind.TEST);
+    return source instanceof StreamRawSource rawSource ? rawSource.computeHash() : null;
+  }
+
   @Override
   public void requestModuleUpdate(@NotNull ArendServer server, @NotNull ModuleLocation module) {
     if (module.getLocationKind() == ModuleLocation.LocationKind.GENERATED) return;
@@ -34,6 +64,61 @@ public class CliServerRequester implements ArendServerRequester {
     Source source = library.getSource(module.getModulePath(), module.getLocationKind() == ModuleLocation.LocationKind.TEST);
     if (source == null) return;
     source.load(server, myLibraryManager.getErrorReporter());
+    if (module.getLocationKind() == ModuleLocation.LocationKind.SOURCE) {
+      loadBinary(server, library, module);
+    }
+  }
+
+  /**
+   * Loads typechecked definitions of a module from the build cache or from its binary source if the binary is up to date.
+   * Each version of a group is loaded at most once; if loading fails, the module will be typechecked from the raw source.
+   * Only the bookkeeping is synchronized since loading requests other modules from the server.
+   */
+  private void loadBinary(ArendServer server, SourceLibrary library, ModuleLocation module) {
+    ConcreteGroup group = server.getRawGroup(module);
+    if (group == null) return;
+    synchronized (myBinaryGroups) {
+      if (myBinaryGroups.put(module, group) == group) return;
+      myBinaryTimeStamps.remove(module);
+    }
+
+    DependencyListener dependencyListener = server instanceof ArendServerImpl serverImpl ? serverImpl.getDependencyCollector() : DummyDependencyListener.INSTANCE;
+    if (myBuildCache != null && myBuildCache.load(server, module, dependencyListener, myLibraryManager.getErrorReporter())) {
+      return;
+    }
+
+    StreamBinarySource binarySource = library.getBinarySource(module.getModulePath());
+    if (binarySource == null) return;
+
+    long timeStamp = binarySource.getTimeStamp();
+    ModuleProtos.Module[] loadedProto = new ModuleProtos.Module[1];
+    if (binarySource.loadDefinitions(group, server.getModuleScopeProvider(module.getLibraryName(), false), dependencyListener, myLibraryManager.getErrorReporter(), moduleProto -> {
+      loadedProto[0] = moduleProto;
+      return areDependenciesUpToDate(server, module, timeStamp, moduleProto);
+    }, null)) {
+      myBinaryTimeStamps.put(module, timeStamp);
+      if (myBuildCache != null) {
+        myBuildCache.addLibraryBinary(module, loadedProto[0]);
+      }
+    }
+  }
+
+  /**
+   * Checks that every module the binary refers to was also loaded from a binary which is not newer than this one.
+   * Otherwise, the binary may refer to definitions that were changed or removed.
+   * Dependencies are loaded by this method, so their definitions are available when the binary is read.
+   */
+  private boolean areDependenciesUpToDate(ArendServer server, ModuleLocation module, long timeStamp, ModuleProtos.Module moduleProto) {
+    for (ModuleProtos.ModuleCallTargets moduleCallTargets : moduleProto.getModuleCallTargetsList()) {
+      ModulePath modulePath = new ModulePath(moduleCallTargets.getNameList());
+      if (modulePath.equals(Prelude.MODULE_PATH)) continue;
+      ModuleLocation dependency = server.findModule(modulePath, module.getLibraryName(), false, true);
+      Long dependencyTimeStamp = dependency == null ? null : myBinaryTimeStamps.get(dependency);
+      if (dependencyTimeStamp == null || timeStamp != 0 && dependencyTimeStamp > timeStamp) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
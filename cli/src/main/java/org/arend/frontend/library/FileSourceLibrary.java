@@ -10,7 +10,10 @@ import org.arend.library.classLoader.ClassLoaderDelegate;
 import org.arend.library.classLoader.FileClassLoaderDelegate;
 import org.arend.library.error.LibraryIOError;
 import org.arend.ext.module.ModuleLocation;
+import org.arend.source.FileBinarySource;
+import org.arend.source.GZIPStreamBinarySource;
 import org.arend.source.Source;
+import org.arend.source.StreamBinarySource;
 import org.arend.util.FileUtils;
 import org.arend.util.Version;
 import org.jetbrains.annotations.NotNull;
@@ -74,6 +77,15 @@ public class FileSourceLibrary extends SourceLibrary {
     return source.isAvailable() ? source : null;
   }
 
+  @Override
+  public @Nullable StreamBinarySource getBinarySource(@NotNull ModulePath modulePath) {
+    if (binaryBasePath == null || myModules != null && !myModules.contains(modulePath)) return null;
+    ModuleLocation module = new ModuleLocation(getLibraryName(), ModuleLocation.LocationKind.SOURCE, modulePath);
+    FileBinarySource source = new FileBinarySource(binaryBasePath, module);
+    long timeStamp = source.getTimeStamp();
+    return timeStamp != 0 && timeStamp >= new FileRawSource(sourceBasePath, module).getTimeStamp() ? new GZIPStreamBinarySource(source) : null;
+  }
+
   @Override
   public @NotNull List<ModulePath> findModules(boolean inTests) {
     if (inTests && testBasePath == null) return Collections.emptyList();
@@ -16,15 +16,29 @@ public class LibraryManager {
   }
 
   public void updateLibrary(SourceLibrary library, ArendServer server) {
-    if (myLibraries.put(library.getLibraryName(), library) != null) {
+    SourceLibrary oldLibrary = myLibraries.put(library.getLibraryName(), library);
+    if (oldLibrary != null) {
       server.removeLibrary(library.getLibraryName());
+      oldLibrary.unload();
     }
     server.updateLibrary(library, myErrorReporter);
   }
 
   public void removeLibrary(String name, ArendServer server) {
     server.removeLibrary(name);
-    myLibraries.remove(name);
+    SourceLibrary library = myLibraries.remove(name);
+    if (library != null) {
+      library.unload();
+    }
+  }
+
+  /**
+   * Releases resources of all libraries without removing them.
+   */
+  public void unloadLibraries() {
+    for (SourceLibrary library : myLibraries.values()) {
+      library.unload();
+    }
   }
 
   public SourceLibrary getLibrary(String name) {
@@ -1,15 +1,25 @@
 package org.arend.frontend.library;
 
+import org.arend.ext.error.ErrorReporter;
+import org.arend.ext.error.ListErrorReporter;
 import org.arend.ext.module.ModulePath;
 import org.arend.ext.ui.ArendUI;
 import org.arend.frontend.ui.ArendCliUI;
 import org.arend.server.ArendLibrary;
+import org.arend.server.ArendServer;
 import org.arend.source.Source;
+import org.arend.source.StreamBinarySource;
+import org.arend.term.group.ConcreteGroup;
 import org.arend.util.Version;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public abstract class SourceLibrary implements ArendLibrary {
   private final String myName;
@@ -64,5 +74,70 @@ public abstract class SourceLibrary implements ArendLibrary {
 
   public abstract @Nullable Source getSource(@NotNull ModulePath modulePath, boolean inTests);
 
+  /**
+   * Gets a binary source of a module.
+   *
+   * @return the binary source of the module if it exists and is not older than the corresponding raw source, null otherwise.
+   */
+  public @Nullable StreamBinarySource getBinarySource(@NotNull ModulePath modulePath) {
+    return null;
+  }
+
   public abstract @NotNull List<ModulePath> findModules(boolean inTests);
+
+  /**
+   * Releases resources held by the library.
+   * It is invoked when the library is removed from the {@link LibraryManager}.
+   */
+  public void unload() {}
+
+  private record ParsedModule(long timeStamp, ConcreteGroup group, ListErrorReporter errorReporter) {}
+
+  /**
+   * Parses all modules of the library on a pool of workers and adds them to the server.
+   * Modules are added and their errors are reported in the order of {@link #findModules}.
+   * Since modules are added with the timestamps of their sources, they are not parsed again when they are requested.
+   *
+   * @param parallelism   the number of workers.
+   */
+  public void loadModules(@NotNull ArendServer server, boolean inTests, int parallelism, @NotNull ErrorReporter errorReporter) {
+    List<Source> sources = new ArrayList<>();
+    for (ModulePath modulePath : findModules(inTests)) {
+      Source source = getSource(modulePath, inTests);
+      if (source != null) sources.add(source);
+    }
+    if (sources.isEmpty()) return;
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, sources.size())), runnable -> {
+      Thread thread = new Thread(runnable, "Arend parsing worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      List<Future<ParsedModule>> futures = new ArrayList<>(sources.size());
+      for (Source source : sources) {
+        futures.add(executor.submit(() -> {
+          long timeStamp = source.getTimeStamp();
+          ListErrorReporter listErrorReporter = new ListErrorReporter();
+          return new ParsedModule(timeStamp, source.loadGroup(listErrorReporter), listErrorReporter);
+        }));
+      }
+
+      for (int i = 0; i < sources.size(); i++) {
+        ParsedModule parsed = futures.get(i).get();
+        parsed.errorReporter.reportTo(errorReporter);
+        if (parsed.group != null) {
+          server.updateModule(parsed.timeStamp, sources.get(i).getModule(), parsed::group);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+      if (e.getCause() instanceof Error) throw (Error) e.getCause();
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
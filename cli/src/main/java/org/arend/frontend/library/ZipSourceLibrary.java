@@ -9,7 +9,10 @@ import org.arend.library.classLoader.ClassLoaderDelegate;
 import org.arend.library.classLoader.ZipClassLoaderDelegate;
 import org.arend.library.error.LibraryIOError;
 import org.arend.ext.module.ModuleLocation;
+import org.arend.source.GZIPStreamBinarySource;
 import org.arend.source.Source;
+import org.arend.source.StreamBinarySource;
+import org.arend.source.ZipFileBinarySource;
 import org.arend.util.FileUtils;
 import org.arend.util.Version;
 import org.jetbrains.annotations.NotNull;
@@ -27,13 +30,16 @@ import java.util.zip.ZipFile;
 public class ZipSourceLibrary extends SourceLibrary {
   private final File myFile;
   private final String mySourcesDir;
+  private final String myBinariesDir;
   private final ClassLoaderDelegate myClassLoaderDelegate;
   private final Set<ModulePath> myModules;
+  private ZipFile myZipFile;
 
-  public ZipSourceLibrary(String name, List<String> dependencies, Version version, String extensionMainClass, File zipFile, String sourceDir, String extDir, Set<ModulePath> modules) {
+  public ZipSourceLibrary(String name, List<String> dependencies, Version version, String extensionMainClass, File zipFile, String sourceDir, String binariesDir, String extDir, Set<ModulePath> modules) {
     super(name, true, -1, dependencies, version, extensionMainClass);
     myFile = zipFile;
     mySourcesDir = sourceDir;
+    myBinariesDir = binariesDir;
     myClassLoaderDelegate = extDir == null ? null : new ZipClassLoaderDelegate(zipFile, extDir);
     myModules = modules;
   }
@@ -68,24 +74,45 @@ public class ZipSourceLibrary extends SourceLibrary {
           .filter(FileUtils::isCorrectModulePath)
           .collect(Collectors.toSet());
 
-      return new ZipSourceLibrary(libName, header.dependencies(), header.version(), header.extMainClass(), file, sourcesDir, header.extDir(), modules);
+      return new ZipSourceLibrary(libName, header.dependencies(), header.version(), header.extMainClass(), file, sourcesDir, header.binariesDir(), header.extDir(), modules);
     } catch (IOException e) {
       errorReporter.report(new LibraryIOError(fileName, "Cannot read file", e.getLocalizedMessage()));
       return null;
     }
   }
 
-  @Override
-  public @Nullable Source getSource(@NotNull ModulePath modulePath, boolean inTests) {
-    if (inTests || !myModules.contains(modulePath)) return null;
+  private static String getEntryName(String dir, ModulePath modulePath, String extension) {
     StringBuilder builder = new StringBuilder();
-    builder.append(mySourcesDir);
+    builder.append(dir);
     for (String name : modulePath.toList()) {
       builder.append("/");
       builder.append(name);
     }
-    builder.append(FileUtils.EXTENSION);
-    return new ZipFileRawSource(new ModuleLocation(getLibraryName(), ModuleLocation.LocationKind.SOURCE, modulePath), myFile, builder.toString());
+    builder.append(extension);
+    return builder.toString();
+  }
+
+  @Override
+  public @Nullable Source getSource(@NotNull ModulePath modulePath, boolean inTests) {
+    if (inTests || !myModules.contains(modulePath)) return null;
+    return new ZipFileRawSource(new ModuleLocation(getLibraryName(), ModuleLocation.LocationKind.SOURCE, modulePath), myFile, getEntryName(mySourcesDir, modulePath, FileUtils.EXTENSION));
+  }
+
+  /**
+   * Sources and binaries of a zip library are packed together, so a binary is always considered to be up to date.
+   */
+  @Override
+  public synchronized @Nullable StreamBinarySource getBinarySource(@NotNull ModulePath modulePath) {
+    if (myBinariesDir == null || !myModules.contains(modulePath)) return null;
+    try {
+      if (myZipFile == null) {
+        myZipFile = new ZipFile(myFile);
+      }
+      ZipEntry entry = myZipFile.getEntry(getEntryName(myBinariesDir, modulePath, FileUtils.SERIALIZED_EXTENSION));
+      return entry == null ? null : new GZIPStreamBinarySource(new ZipFileBinarySource(new ModuleLocation(getLibraryName(), ModuleLocation.LocationKind.SOURCE, modulePath), myZipFile, entry));
+    } catch (IOException e) {
+      return null;
+    }
   }
 
   @Override
@@ -93,6 +120,16 @@ public class ZipSourceLibrary extends SourceLibrary {
     return new ArrayList<>(myModules);
   }
 
+  @Override
+  public synchronized void unload() {
+    if (myZipFile != null) {
+      try {
+        myZipFile.close();
+      } catch (IOException ignored) {}
+      myZipFile = null;
+    }
+  }
+
   @Override
   public @Nullable ClassLoaderDelegate getClassLoaderDelegate() {
     return myClassLoaderDelegate;
@@ -0,0 +1,47 @@
+package org.arend.frontend.source;
+
+import org.arend.ext.module.ModuleLocation;
+import org.arend.prelude.Prelude;
+import org.arend.source.StreamBinarySource;
+import org.arend.util.FileUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+
+public class PreludeResourceBinarySource extends StreamBinarySource {
+  static final String RESOURCE_PATH = "/lib/" + Prelude.MODULE_PATH + FileUtils.SERIALIZED_EXTENSION;
+
+  @Override
+  public @NotNull ModuleLocation getModule() {
+    return Prelude.MODULE_LOCATION;
+  }
+
+  @Override
+  protected @Nullable InputStream getInputStream() {
+    return Prelude.class.getResourceAsStream(RESOURCE_PATH);
+  }
+
+  @Override
+  protected @Nullable OutputStream getOutputStream() {
+    return null;
+  }
+
+  @Override
+  public long getTimeStamp() {
+    return getResourceTimeStamp(RESOURCE_PATH);
+  }
+
+  static long getResourceTimeStamp(String path) {
+    URL url = Prelude.class.getResource(path);
+    if (url == null) return -1;
+    try {
+      return url.openConnection().getLastModified();
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+}
@@ -8,7 +8,7 @@ import java.io.IOException;
 import java.io.InputStream;
 
 public class PreludeResourceSource extends StreamRawSource {
-  private static final String RESOURCE_PATH = "/lib/" + Prelude.MODULE_PATH + FileUtils.EXTENSION;
+  static final String RESOURCE_PATH = "/lib/" + Prelude.MODULE_PATH + FileUtils.EXTENSION;
 
   public PreludeResourceSource() {
     super(Prelude.MODULE_LOCATION);
@@ -1,10 +1,17 @@
 package org.arend.frontend.source;
 
+import org.arend.core.definition.DataDefinition;
+import org.arend.ext.error.ErrorReporter;
+import org.arend.naming.reference.TCDefReferable;
 import org.arend.prelude.Prelude;
+import org.arend.server.ArendServer;
 import org.arend.source.FileBinarySource;
 import org.arend.source.GZIPStreamBinarySource;
 import org.arend.source.PersistableBinarySource;
 import org.arend.source.Source;
+import org.arend.term.group.ConcreteGroup;
+import org.arend.term.group.ConcreteStatement;
+import org.arend.typechecking.order.dependency.DummyDependencyListener;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -24,4 +31,41 @@ public class PreludeSources {
   public static PersistableBinarySource getBinarySource(Path binaryPath) {
     return new GZIPStreamBinarySource(new FileBinarySource(binaryPath.resolve(BASE_PATH), Prelude.MODULE_LOCATION));
   }
+
+  /**
+   * Loads typechecked prelude from the precompiled resource instead of typechecking it.
+   * The prelude module should be already added to the server.
+   * Prelude is initialized under the same lock as in {@link org.arend.server.impl.ArendCheckerImpl}, so it is not typechecked and loaded at the same time.
+   *
+   * @param errorReporter reports errors that occurred while reading the resource.
+   * @return true if prelude is initialized, false if it should be typechecked from the source.
+   */
+  public static boolean loadBinaryPrelude(ArendServer server, ErrorReporter errorReporter) {
+    synchronized (Prelude.class) {
+      if (Prelude.isInitialized()) return true;
+
+      ConcreteGroup group = server.getRawGroup(Prelude.MODULE_LOCATION);
+      if (group == null) return false;
+
+      PreludeResourceBinarySource binarySource = new PreludeResourceBinarySource();
+      long binaryTimeStamp = binarySource.getTimeStamp();
+      if (binaryTimeStamp < 0 || binaryTimeStamp < PreludeResourceBinarySource.getResourceTimeStamp(PreludeResourceSource.RESOURCE_PATH)) {
+        return false;
+      }
+
+      // Patterns in prelude definitions refer to constructors of Nat, so Nat should be initialized before bodies are read
+      if (!new GZIPStreamBinarySource(binarySource).loadDefinitions(group, server.getModuleScopeProvider(Prelude.LIBRARY_NAME, false), DummyDependencyListener.INSTANCE, errorReporter, preludeGroup -> {
+        for (ConcreteStatement statement : preludeGroup.statements()) {
+          ConcreteGroup subgroup = statement.group();
+          if (subgroup != null && subgroup.referable() instanceof TCDefReferable referable && referable.getRefName().equals("Nat") && referable.getTypechecked() instanceof DataDefinition) {
+            Prelude.update(referable.getTypechecked());
+          }
+        }
+      })) {
+        return false;
+      }
+      Prelude.initializeTypechecked(group);
+      return true;
+    }
+  }
 }
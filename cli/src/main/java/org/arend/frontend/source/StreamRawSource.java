@@ -1,6 +1,8 @@
 package org.arend.frontend.source;
 
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.arend.ext.error.ErrorReporter;
 import org.arend.frontend.parser.*;
 import org.arend.ext.module.ModuleLocation;
@@ -12,6 +14,8 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /**
  * Represents a source that loads a raw module from an {@link InputStream}.
@@ -46,14 +50,43 @@ public abstract class StreamRawSource implements Source {
       lexer.removeErrorListeners();
       lexer.addErrorListener(errorListener);
 
-      ArendParser parser = new ArendParser(new CommonTokenStream(lexer));
+      CommonTokenStream tokenStream = new CommonTokenStream(lexer);
+      ArendParser parser = new ArendParser(tokenStream);
       parser.removeErrorListeners();
-      parser.addErrorListener(errorListener);
 
-      return new BuildVisitor(myModule, errorReporter).visitStatements(parser.statements());
+      // SLL prediction is much faster and almost always succeeds on correct sources.
+      // If it fails, the source is parsed again with full LL prediction which also reports errors.
+      parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+      parser.setErrorHandler(new BailErrorStrategy());
+      ArendParser.StatementsContext tree;
+      try {
+        tree = parser.statements();
+      } catch (ParseCancellationException e) {
+        tokenStream.seek(0);
+        parser.reset();
+        parser.addErrorListener(errorListener);
+        parser.setErrorHandler(new DefaultErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        tree = parser.statements();
+      }
+
+      return new BuildVisitor(myModule, errorReporter).visitStatements(tree);
     } catch (IOException e) {
       errorReporter.report(new ExceptionError(e, "loading", myModule.getModulePath()));
       return null;
     }
   }
+
+  /**
+   * Computes a hash of the content of the source.
+   *
+   * @return the SHA-256 hash of the content or null if the source cannot be read.
+   */
+  public byte @Nullable [] computeHash() {
+    try (InputStream inputStream = getInputStream()) {
+      return MessageDigest.getInstance("SHA-256").digest(inputStream.readAllBytes());
+    } catch (IOException | NoSuchAlgorithmException e) {
+      return null;
+    }
+  }
 }
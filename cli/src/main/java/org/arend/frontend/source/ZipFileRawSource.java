@@ -3,6 +3,7 @@ package org.arend.frontend.source;
 import org.arend.ext.module.ModuleLocation;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -32,7 +33,9 @@ public class ZipFileRawSource extends StreamRawSource {
       if (entry == null) {
         throw new ZipException("Cannot find " + myEntry + " in " + myFile);
       }
-      return zipFile.getInputStream(entry);
+      try (InputStream inputStream = zipFile.getInputStream(entry)) {
+        return new ByteArrayInputStream(inputStream.readAllBytes());
+      }
     }
   }
 }
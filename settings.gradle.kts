@@ -7,5 +7,6 @@ include(
     "proto",
     "parser",
     "intellij",
+    "bench",
     "arend-lib:meta"
 )
@@ -2,8 +2,10 @@ package org.arend;
 
 import org.arend.error.DummyErrorReporter;
 import org.arend.ext.error.GeneralError;
+import org.arend.ext.error.ListErrorReporter;
 import org.arend.ext.prettyprinting.doc.Doc;
 import org.arend.frontend.source.PreludeResourceSource;
+import org.arend.frontend.source.PreludeSources;
 import org.arend.naming.reference.Referable;
 import org.arend.naming.reference.TCDefReferable;
 import org.arend.naming.scope.EmptyScope;
@@ -28,6 +30,11 @@ import static org.arend.ext.prettyprinting.doc.DocFactory.vList;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public abstract class ArendTestCase {
+  /**
+   * If this property is set, prelude is typechecked from Prelude.ard instead of being loaded from Prelude.arc.
+   */
+  public static final String SOURCE_PRELUDE_PROPERTY = "arend.test.sourcePrelude";
+
   protected ArendServer server;
 
   protected ArendServerRequester getRequester() {
@@ -38,6 +45,11 @@ public abstract class ArendTestCase {
   public void initializeServer() {
     server = new ArendServerImpl(getRequester(), false, false, false);
     server.addReadOnlyModule(Prelude.MODULE_LOCATION, () -> new PreludeResourceSource().loadGroup(DummyErrorReporter.INSTANCE));
+    if (!Boolean.getBoolean(SOURCE_PRELUDE_PROPERTY)) {
+      ListErrorReporter errorReporter = new ListErrorReporter();
+      PreludeSources.loadBinaryPrelude(server, errorReporter);
+      assertThat(errorReporter.getErrorList(), containsErrors(0));
+    }
   }
 
   public TCDefReferable get(Scope scope, String path) {
@@ -16,6 +16,7 @@ import static org.arend.Matchers.*;
 import static org.arend.core.expr.ExpressionFactory.Suc;
 import static org.arend.core.expr.ExpressionFactory.Zero;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class ExtensionsTest extends TypeCheckingTestCase {
@@ -488,4 +489,37 @@ public class ExtensionsTest extends TypeCheckingTestCase {
       \\func test => S.x
       """);
   }
+
+  @Test
+  public void subClassTest() {
+    typeCheckModule("""
+      \\record A
+      \\record B \\extends A
+      \\record C \\extends A
+      \\record D \\extends B, C
+      \\record E \\extends D
+      """);
+    ClassDefinition a = (ClassDefinition) getDefinition("A");
+    ClassDefinition b = (ClassDefinition) getDefinition("B");
+    ClassDefinition c = (ClassDefinition) getDefinition("C");
+    ClassDefinition e = (ClassDefinition) getDefinition("E");
+    ClassDefinition f = (ClassDefinition) getDefinition("F");
+    assertTrue(e.isSubClassOf(a));
+    assertTrue(e.isSubClassOf(c));
+    assertTrue(e.isSubClassOf(e));
+    assertFalse(b.isSubClassOf(c));
+    assertFalse(a.isSubClassOf(b));
+
+    assertFalse(e.isSubClassOf(f));
+    assertFalse(f.isSubClassOf(a));
+
+    c.addSuperClass(b);
+    assertTrue(c.isSubClassOf(b));
+
+    // Only descendants of A are invalidated
+    a.addSuperClass(f);
+    assertTrue(e.isSubClassOf(f));
+    assertTrue(c.isSubClassOf(f));
+    assertFalse(f.isSubClassOf(a));
+  }
 }
@@ -0,0 +1,92 @@
+package org.arend.library;
+
+import org.arend.ext.error.ListErrorReporter;
+import org.arend.ext.module.ModuleLocation;
+import org.arend.ext.module.ModulePath;
+import org.arend.frontend.library.SourceLibrary;
+import org.arend.frontend.parser.BuildVisitor;
+import org.arend.frontend.parser.ParserError;
+import org.arend.frontend.repl.CommonCliRepl;
+import org.arend.library.classLoader.ClassLoaderDelegate;
+import org.arend.source.Source;
+import org.arend.term.group.ConcreteGroup;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class SourceLoadingTest extends LibraryTestCase {
+  private static class MemorySourceLibrary extends SourceLibrary {
+    private final Map<ModulePath, MemoryRawSource> mySources = new LinkedHashMap<>();
+
+    MemorySourceLibrary() {
+      super(MemoryLibrary.INSTANCE.getLibraryName(), false, -1, Collections.emptyList(), null, null);
+    }
+
+    void addModule(String name, String text) {
+      ModulePath modulePath = new ModulePath(name);
+      mySources.put(modulePath, new MemoryRawSource(modulePath, text, 1));
+    }
+
+    @Override
+    public @Nullable Source getSource(@NotNull ModulePath modulePath, boolean inTests) {
+      return inTests ? null : mySources.get(modulePath);
+    }
+
+    @Override
+    public @NotNull List<ModulePath> findModules(boolean inTests) {
+      return inTests ? Collections.emptyList() : new ArrayList<>(mySources.keySet());
+    }
+
+    @Override
+    public @Nullable ClassLoaderDelegate getClassLoaderDelegate() {
+      return null;
+    }
+  }
+
+  private static ModuleLocation location(String name) {
+    return new ModuleLocation(MemoryLibrary.INSTANCE.getLibraryName(), ModuleLocation.LocationKind.SOURCE, new ModulePath(name));
+  }
+
+  @Test
+  public void parseCorrectSource() {
+    ListErrorReporter errorReporter = new ListErrorReporter();
+    ConcreteGroup group = new MemoryRawSource(new ModulePath("A"), "\\func f (n : Nat) : Nat \\elim n\n  | 0 => 0\n  | suc n => \\case n \\with { | 0 => 1 | suc _ => f n }").loadGroup(errorReporter);
+    assertNotNull(group);
+    assertThat(errorReporter.getErrorList(), is(empty()));
+    assertThat(group.statements(), hasSize(1));
+  }
+
+  @Test
+  public void parseIncorrectSource() {
+    String text = "\\func f => 0\n\\func g => (";
+    ListErrorReporter errorReporter = new ListErrorReporter();
+    new MemoryRawSource(new ModulePath("A"), text).loadGroup(errorReporter);
+    ListErrorReporter expectedErrorReporter = new ListErrorReporter();
+    new BuildVisitor(location("A"), expectedErrorReporter).visitStatements(CommonCliRepl.createParser(text, location("A"), expectedErrorReporter).statements());
+
+    // Syntax errors are reported only by the second pass
+    assertThat(errorReporter.getErrorList(), hasItem(instanceOf(ParserError.class)));
+    assertEquals(expectedErrorReporter.getErrorList().size(), errorReporter.getErrorList().size());
+  }
+
+  @Test
+  public void loadModules() {
+    MemorySourceLibrary library = new MemorySourceLibrary();
+    for (int i = 0; i < 20; i++) {
+      library.addModule("M" + i, "\\func f" + i + " => " + i);
+    }
+    library.addModule("Error", "\\func g =>");
+    library.loadModules(server, false, 4, errorReporter);
+
+    for (int i = 0; i < 20; i++) {
+      assertNotNull(server.getRawGroup(location("M" + i)));
+    }
+    assertThat(errorList, hasItem(instanceOf(ParserError.class)));
+  }
+}
@@ -0,0 +1,102 @@
+package org.arend.module.serialization;
+
+import org.arend.core.definition.FunctionDefinition;
+import org.arend.core.elimtree.ElimBody;
+import org.arend.error.DummyErrorReporter;
+import org.arend.core.expr.Expression;
+import org.arend.ext.error.GeneralError;
+import org.arend.ext.error.ListErrorReporter;
+import org.arend.frontend.source.PreludeResourceSource;
+import org.arend.frontend.source.PreludeSources;
+import org.arend.prelude.Prelude;
+import org.arend.server.impl.ArendServerImpl;
+import org.arend.typechecking.TypeCheckingTestCase;
+import org.arend.typechecking.doubleChecker.CoreModuleChecker;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LemmaBodyStoreTest extends TypeCheckingTestCase {
+  @Test
+  public void storeAndLoad() throws IOException {
+    typeCheckModule("""
+      \\data D | con1 | con2 Nat
+      \\lemma f (n : Nat) (d : D) : n = n \\elim d
+        | con1 => idp
+        | con2 m => idp
+      \\lemma g (x : Nat) : x = x => idp
+      \\func h (d : D) => f 0 d
+      """);
+    FunctionDefinition f = (FunctionDefinition) getDefinition("f");
+    FunctionDefinition g = (FunctionDefinition) getDefinition("g");
+    String gBody = g.getReallyActualBody().toString();
+
+    try (LemmaBodyStore store = LemmaBodyStore.createTemporary()) {
+      store.store(f);
+      store.store(g);
+      assertTrue(f.hasBodyLoader());
+      assertTrue(g.hasBodyLoader());
+
+      assertTrue(f.getReallyActualBody() instanceof ElimBody);
+      assertEquals(2, ((ElimBody) f.getReallyActualBody()).getClauses().size());
+      assertTrue(g.getReallyActualBody() instanceof Expression);
+      assertEquals(gBody, g.getReallyActualBody().toString());
+
+      List<GeneralError> errors = new ArrayList<>();
+      assertTrue(new CoreModuleChecker(new ListErrorReporter(errors)).checkGroup(getGroup()));
+      assertTrue(errors.isEmpty());
+    }
+  }
+
+  @Test
+  public void setBodyRemovesLoader() throws IOException {
+    typeCheckModule("\\lemma g (x : Nat) : x = x => idp");
+    FunctionDefinition g = (FunctionDefinition) getDefinition("g");
+    try (LemmaBodyStore store = LemmaBodyStore.createTemporary()) {
+      store.store(g);
+      g.setBody(null);
+      assertFalse(g.hasBodyLoader());
+      assertNull(g.getReallyActualBody());
+    }
+  }
+
+  @Test
+  public void clearLemmas() throws IOException {
+    try (LemmaBodyStore store = LemmaBodyStore.createTemporary()) {
+      ArendServerImpl lemmaServer = new ArendServerImpl(getRequester(), false, false, true);
+      lemmaServer.addReadOnlyModule(Prelude.MODULE_LOCATION, () -> new PreludeResourceSource().loadGroup(DummyErrorReporter.INSTANCE));
+      PreludeSources.loadBinaryPrelude(lemmaServer, DummyErrorReporter.INSTANCE);
+      lemmaServer.setLemmaBodyStore(store);
+      server = lemmaServer;
+
+      typeCheckModule("""
+        \\func pmap {A B : \\Type} (f : A -> B) {a a' : A} (p : a = a') : f a = f a' => path (\\lam i => f (p @ i))
+        \\data D | con1 | con2 Nat
+        \\lemma f (n : Nat) (d : D) : n = n \\elim d
+          | con1 => idp
+          | con2 m => idp
+        \\lemma even (n : Nat) : n = n \\elim n
+          | 0 => idp
+          | suc n => pmap suc (odd n)
+        \\lemma odd (n : Nat) : n = n \\elim n
+          | 0 => idp
+          | suc n => pmap suc (even n)
+        \\func h (d : D) => f 0 d
+        """);
+
+      for (String name : new String[] { "f", "even", "odd" }) {
+        FunctionDefinition lemma = (FunctionDefinition) getDefinition(name);
+        assertTrue(name, lemma.hasBodyLoader());
+        assertTrue(name, lemma.getReallyActualBody() instanceof ElimBody);
+      }
+
+      List<GeneralError> errors = new ArrayList<>();
+      assertTrue(new CoreModuleChecker(new ListErrorReporter(errors)).checkGroup(getGroup()));
+      assertTrue(errors.isEmpty());
+    }
+  }
+}
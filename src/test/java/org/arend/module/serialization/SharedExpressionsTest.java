@@ -0,0 +1,136 @@
+package org.arend.module.serialization;
+
+import org.arend.core.context.param.DependentLink;
+import org.arend.core.definition.ClassDefinition;
+import org.arend.core.definition.ClassField;
+import org.arend.core.definition.Definition;
+import org.arend.core.definition.FunctionDefinition;
+import org.arend.core.expr.AbsExpression;
+import org.arend.core.expr.Expression;
+import org.arend.core.expr.ReferenceExpression;
+import org.arend.core.expr.visitor.CompareVisitor;
+import org.arend.core.subst.ExprSubstitution;
+import org.arend.ext.core.level.LevelSubstitution;
+import org.arend.ext.core.ops.CMP;
+import org.arend.ext.error.ListErrorReporter;
+import org.arend.ext.module.ModuleLocation;
+import org.arend.ext.module.ModulePath;
+import org.arend.ext.serialization.DeserializationException;
+import org.arend.frontend.parser.BuildVisitor;
+import org.arend.frontend.repl.CommonCliRepl;
+import org.arend.library.MemoryLibrary;
+import org.arend.naming.reference.TCDefReferable;
+import org.arend.term.group.ConcreteGroup;
+import org.arend.typechecking.TypeCheckingTestCase;
+import org.arend.typechecking.implicitargs.equations.DummyEquations;
+import org.arend.typechecking.order.dependency.DependencyCollector;
+import org.arend.typechecking.order.dependency.DummyDependencyListener;
+import org.arend.util.Pair;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SharedExpressionsTest extends TypeCheckingTestCase {
+  private void addModule(String name, String text) {
+    ModuleLocation module = new ModuleLocation(MemoryLibrary.INSTANCE.getLibraryName(), ModuleLocation.LocationKind.SOURCE, new ModulePath(name));
+    ListErrorReporter errorReporter = new ListErrorReporter();
+    ConcreteGroup group = new BuildVisitor(module, errorReporter).visitStatements(CommonCliRepl.createParser(text, module, errorReporter).statements());
+    assertTrue(errorReporter.getErrorList().isEmpty());
+    server.updateModule(0, module, () -> group);
+  }
+
+  private static boolean compare(Expression expr1, Expression expr2) {
+    return CompareVisitor.compare(DummyEquations.getInstance(), CMP.EQ, expr1, expr2, null, null);
+  }
+
+  private static boolean compare(AbsExpression expr1, AbsExpression expr2) {
+    return compare(expr1.apply(new ReferenceExpression(expr2.getBinding()), LevelSubstitution.EMPTY), expr2.getExpression());
+  }
+
+  private static void compareFunctions(FunctionDefinition def1, FunctionDefinition def2) {
+    ExprSubstitution substitution = new ExprSubstitution();
+    DependentLink link2 = def2.getParameters();
+    for (DependentLink link1 = def1.getParameters(); link1.hasNext(); link1 = link1.getNext(), link2 = link2.getNext()) {
+      assertTrue(link2.hasNext());
+      assertTrue(def1.getName(), compare(link1.getTypeExpr().subst(substitution), link2.getTypeExpr()));
+      substitution.add(link1, new ReferenceExpression(link2));
+    }
+    assertFalse(link2.hasNext());
+    assertTrue(def1.getName(), compare(def1.getResultType().subst(substitution), def2.getResultType()));
+    assertTrue(def1.getName(), compare(((Expression) def1.getBody()).subst(substitution), (Expression) def2.getBody()));
+  }
+
+  private static void compareClasses(ClassDefinition def1, ClassDefinition def2) {
+    assertEquals(def1.getImplemented().size(), def2.getImplemented().size());
+    for (Map.Entry<ClassField, AbsExpression> entry : def1.getImplemented()) {
+      AbsExpression impl = def2.getImplementation(entry.getKey());
+      assertNotNull(entry.getKey().getName(), impl);
+      assertTrue(entry.getKey().getName(), compare(entry.getValue(), impl));
+    }
+    assertEquals(def1.getDefaults().size(), def2.getDefaults().size());
+    for (Map.Entry<ClassField, Pair<AbsExpression, Boolean>> entry : def1.getDefaults()) {
+      AbsExpression defaultImpl = def2.getDefault(entry.getKey());
+      assertNotNull(entry.getKey().getName(), defaultImpl);
+      assertTrue(entry.getKey().getName(), compare(entry.getValue().proj1, defaultImpl));
+    }
+    assertEquals(def1.getOverriddenFields().size(), def2.getOverriddenFields().size());
+    for (var entry : def1.getOverriddenFields()) {
+      assertNotNull(entry.getKey().getName(), def2.getOverriddenType(entry.getKey()));
+    }
+  }
+
+  @Test
+  public void roundTrip() throws DeserializationException {
+    addModule("M", """
+      \\record C (E : \\Set) | x : E | y : E
+      \\record B \\extends C | E => Nat
+      \\class H | h : C
+      """);
+    typeCheckModule("""
+      \\import M
+      \\func id {T : \\Type} (t : T) => t
+      \\func f (c : C Nat) : C Nat => id (id (id c))
+      \\func g (c d : C Nat) : \\Sigma (C Nat) (C Nat) => (id c, id d)
+      \\record D \\extends C {
+        | E => Nat
+        | x => 0
+        \\default y => x
+      }
+      \\class K \\extends H { \\override h : B }
+      """);
+
+    List<TCDefReferable> refs = new ArrayList<>();
+    List<Definition> definitions = new ArrayList<>();
+    for (String name : new String[] { "id", "f", "g", "D", "K" }) {
+      TCDefReferable ref = getDef(getGroup(), name);
+      assertNotNull(name, ref);
+      refs.add(ref);
+      definitions.add(ref.getTypechecked());
+    }
+
+    ListErrorReporter errorReporter = new ListErrorReporter();
+    ModuleProtos.Module moduleProto = new ModuleSerialization(errorReporter, new DependencyCollector(null)).writeModule(getGroup(), MODULE.getModulePath());
+    assertNotNull(moduleProto);
+    assertTrue(errorReporter.getErrorList().isEmpty());
+    assertTrue(moduleProto.toString().contains("shared {"));
+
+    ModuleDeserialization moduleDeserialization = new ModuleDeserialization(moduleProto, null, null);
+    moduleDeserialization.readDefinitions(getGroup());
+    moduleDeserialization.readModule(server.getModuleScopeProvider(MODULE.getLibraryName(), false), DummyDependencyListener.INSTANCE);
+
+    for (int i = 0; i < refs.size(); i++) {
+      Definition oldDef = definitions.get(i);
+      Definition newDef = refs.get(i).getTypechecked();
+      assertNotSame(oldDef, newDef);
+      if (oldDef instanceof FunctionDefinition oldFunction) {
+        compareFunctions(oldFunction, (FunctionDefinition) newDef);
+      } else {
+        compareClasses((ClassDefinition) oldDef, (ClassDefinition) newDef);
+      }
+    }
+  }
+}
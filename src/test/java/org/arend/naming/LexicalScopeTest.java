@@ -0,0 +1,74 @@
+package org.arend.naming;
+
+import org.arend.naming.reference.AliasReferable;
+import org.arend.naming.reference.GlobalReferable;
+import org.arend.naming.reference.InternalReferable;
+import org.arend.naming.reference.Referable;
+import org.arend.naming.scope.EmptyScope;
+import org.arend.naming.scope.LexicalScope;
+import org.arend.naming.scope.Scope;
+import org.arend.term.group.ConcreteGroup;
+import org.arend.term.group.ConcreteStatement;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.*;
+
+public class LexicalScopeTest extends ParserTestCase {
+  private static Scope scope(ConcreteGroup group) {
+    return LexicalScope.insideOf(group, EmptyScope.INSTANCE, false);
+  }
+
+  @Test
+  public void firstDefinitionWins() {
+    ConcreteGroup group = parseModule(
+      "\\data D | con\n" +
+      "\\func con => 0\n" +
+      "\\func f => 0\n" +
+      "\\func f => 1");
+    Referable con = scope(group).resolveName("con");
+    assertThat(con, instanceOf(InternalReferable.class));
+    assertSame(group.statements().get(2).group().referable(), scope(group).resolveName("f"));
+  }
+
+  @Test
+  public void aliases() {
+    ConcreteGroup group = parseModule(
+      "\\func f \\alias g => 0\n" +
+      "\\data D | con \\alias c");
+    Referable g = scope(group).resolveName("g");
+    assertThat(g, instanceOf(AliasReferable.class));
+    assertSame(group.statements().get(0).group().referable(), ((AliasReferable) g).getOriginalReferable());
+    assertThat(scope(group).resolveName("c"), instanceOf(AliasReferable.class));
+    assertNotNull(scope(group).resolveNamespace("g"));
+    assertNull(scope(group).resolveNamespace("c"));
+  }
+
+  @Test
+  public void contexts() {
+    ConcreteGroup group = parseModule(
+      "\\record R (x : Nat) \\where { \\func h => 0 }\n" +
+      "\\func f => 0");
+    Scope scope = scope(group);
+    assertThat(scope.resolveName("x"), instanceOf(InternalReferable.class));
+    assertNull(scope.resolveName("f", Scope.ScopeContext.DYNAMIC));
+    assertNull(scope.resolveName("f", Scope.ScopeContext.PLEVEL));
+    assertNotNull(scope.resolveName("f", Scope.ScopeContext.STATIC));
+    assertNull(scope.resolveName("h"));
+    assertNotNull(scope.resolveNamespace("R").resolveName("h"));
+  }
+
+  @Test
+  public void invalidateIndex() {
+    ConcreteGroup group = parseModule("\\func f => 0");
+    ConcreteGroup other = parseModule("\\func g => 0");
+    assertNull(scope(group).resolveName("g"));
+
+    ConcreteStatement statement = other.statements().get(0);
+    group.statements().add(statement);
+    LexicalScope.invalidateIndex(group);
+    GlobalReferable g = statement.group().referable();
+    assertSame(g, scope(group).resolveName("g"));
+  }
+}
@@ -0,0 +1,112 @@
+package org.arend.naming;
+
+import org.arend.ext.concrete.expr.ConcreteExpression;
+import org.arend.ext.error.GeneralError;
+import org.arend.ext.error.ListErrorReporter;
+import org.arend.ext.module.ModuleLocation;
+import org.arend.ext.module.ModulePath;
+import org.arend.ext.prettyprinting.doc.DocFactory;
+import org.arend.ext.reference.ExpressionResolver;
+import org.arend.ext.reference.Precedence;
+import org.arend.ext.typechecking.ContextData;
+import org.arend.ext.typechecking.MetaDefinition;
+import org.arend.ext.typechecking.MetaResolver;
+import org.arend.ext.typechecking.meta.TrivialMetaTypechecker;
+import org.arend.frontend.parser.BuildVisitor;
+import org.arend.frontend.repl.CommonCliRepl;
+import org.arend.library.MemoryLibrary;
+import org.arend.naming.reference.FullModuleReferable;
+import org.arend.naming.reference.MetaReferable;
+import org.arend.server.impl.ArendServerImpl;
+import org.arend.term.concrete.Concrete;
+import org.arend.term.group.AccessModifier;
+import org.arend.term.group.ConcreteGroup;
+import org.arend.term.group.ConcreteStatement;
+import org.arend.typechecking.TypeCheckingTestCase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.arend.Matchers.notInScope;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelResolvingTest extends TypeCheckingTestCase {
+  @Before
+  public void setParallelism() {
+    ((ArendServerImpl) server).setResolvingParallelism(4);
+  }
+
+  private ModuleLocation addModule(String name, String text) {
+    ModuleLocation module = new ModuleLocation(MemoryLibrary.INSTANCE.getLibraryName(), ModuleLocation.LocationKind.SOURCE, new ModulePath(name));
+    ListErrorReporter errorReporter = new ListErrorReporter();
+    ConcreteGroup group = new BuildVisitor(module, errorReporter).visitStatements(CommonCliRepl.createParser(text, module, errorReporter).statements());
+    assertThat(errorReporter.getErrorList(), containsErrors(0));
+    server.updateModule(0, module, () -> group);
+    return module;
+  }
+
+  @Test
+  public void diamond() {
+    addModule("A", "\\func a => 0");
+    addModule("B", "\\import A\n\\func b => suc a");
+    addModule("C", "\\import A\n\\func c => suc (suc a)");
+    addModule("D", "\\import B\n\\import C\n\\func d => b Nat.+ c");
+    typeCheckModule(
+      "\\import D\n" +
+      "\\func test : d = 3 => idp");
+  }
+
+  @Test
+  public void errorsInDependencies() {
+    addModule("A", "\\func a => 0");
+    ModuleLocation moduleB = addModule("B", "\\import A\n\\func b => x");
+    ModuleLocation moduleC = addModule("C", "\\import A\n\\func c => a");
+    typeCheckModule(
+      "\\import B\n" +
+      "\\import C\n" +
+      "\\func test => c", 0);
+    assertThat(server.getErrorMap().get(moduleB), contains(notInScope("x")));
+    assertTrue(server.getErrorMap().getOrDefault(moduleC, Collections.<GeneralError>emptyList()).isEmpty());
+  }
+
+  @Test
+  public void concurrentModules() {
+    // Each of the modules waits in the meta resolver until the other one reaches it, so they cannot be resolved one after another
+    CountDownLatch latch = new CountDownLatch(2);
+    AtomicInteger concurrent = new AtomicInteger();
+    class LatchMeta implements MetaDefinition, MetaResolver {
+      @Override
+      public @Nullable ConcreteExpression resolvePrefix(@NotNull ExpressionResolver resolver, @NotNull ContextData contextData) {
+        latch.countDown();
+        try {
+          if (latch.await(10, TimeUnit.SECONDS)) {
+            concurrent.incrementAndGet();
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return new Concrete.TupleExpression(null, Collections.emptyList());
+      }
+    }
+    LatchMeta meta = new LatchMeta();
+    ModuleLocation metaModule = new ModuleLocation(MemoryLibrary.INSTANCE.getLibraryName(), ModuleLocation.LocationKind.GENERATED, new ModulePath("Meta"));
+    MetaReferable metaRef = new MetaReferable(AccessModifier.PUBLIC, Precedence.DEFAULT, "meta", new TrivialMetaTypechecker(meta), meta, new FullModuleReferable(metaModule));
+    server.addReadOnlyModule(metaModule, () -> new ConcreteGroup(DocFactory.nullDoc(), new FullModuleReferable(metaModule), null, Collections.singletonList(new ConcreteStatement(new ConcreteGroup(DocFactory.nullDoc(), metaRef, null, Collections.emptyList(), Collections.emptyList(), Collections.emptyList()), null, null, null)), Collections.emptyList(), Collections.emptyList()));
+
+    addModule("A", "\\import Meta\n\\func a => meta 0");
+    addModule("B", "\\import Meta\n\\func b => meta 1");
+    resolveNamesModule(
+      "\\import A\n" +
+      "\\import B");
+    assertEquals(2, concurrent.get());
+  }
+}
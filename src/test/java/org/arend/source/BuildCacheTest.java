@@ -0,0 +1,126 @@
+package org.arend.source;
+
+import com.google.protobuf.ByteString;
+import org.arend.error.DummyErrorReporter;
+import org.arend.ext.error.ListErrorReporter;
+import org.arend.ext.module.ModuleLocation;
+import org.arend.ext.module.ModulePath;
+import org.arend.frontend.library.CliServerRequester;
+import org.arend.frontend.library.FileSourceLibrary;
+import org.arend.frontend.library.LibraryManager;
+import org.arend.frontend.source.PreludeResourceSource;
+import org.arend.frontend.source.PreludeSources;
+import org.arend.module.serialization.ModuleProtos;
+import org.arend.naming.reference.TCDefReferable;
+import org.arend.prelude.Prelude;
+import org.arend.server.ProgressReporter;
+import org.arend.server.impl.ArendServerImpl;
+import org.arend.typechecking.TypeCheckingTestCase;
+import org.arend.typechecking.computation.UnstoppableCancellationIndicator;
+import org.arend.util.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+public class BuildCacheTest extends TypeCheckingTestCase {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private ByteString interfaceHash(String text) throws IOException {
+    initializeServer();
+    typeCheckModule(text);
+    Path dir = folder.newFolder().toPath();
+    ListErrorReporter errorReporter = new ListErrorReporter();
+    new BuildCache(dir, module -> text.getBytes(StandardCharsets.UTF_8)).persist(server, errorReporter);
+    assertTrue(errorReporter.getErrorList().isEmpty());
+
+    try (InputStream stream = new GZIPInputStream(Files.newInputStream(FileUtils.binaryFile(dir.resolve(MODULE.getLibraryName()), MODULE.getModulePath())))) {
+      return ModuleProtos.Module.parseFrom(stream).getInterfaceHash();
+    }
+  }
+
+  @Test
+  public void lemmaBodyDoesNotChangeInterface() throws IOException {
+    ByteString hash1 = interfaceHash("""
+      \\lemma f (n : Nat) : n = n => idp
+      \\func g (n : Nat) : Nat => n
+      """);
+    ByteString hash2 = interfaceHash("""
+      \\lemma f (n : Nat) : n = n => path (\\lam _ => n)
+      \\func g (n : Nat) : Nat => n
+      """);
+    assertEquals(hash1, hash2);
+  }
+
+  @Test
+  public void functionBodyChangesInterface() throws IOException {
+    ByteString hash1 = interfaceHash("\\func g (n : Nat) : Nat => n");
+    ByteString hash2 = interfaceHash("\\func g (n : Nat) : Nat => suc n");
+    assertNotEquals(hash1, hash2);
+  }
+
+  @Test
+  public void typeChangesInterface() throws IOException {
+    ByteString hash1 = interfaceHash("\\lemma f (n : Nat) : n = n => idp");
+    ByteString hash2 = interfaceHash("\\lemma f (n : Nat) : 0 = 0 => idp");
+    assertNotEquals(hash1, hash2);
+  }
+
+  @Test
+  public void deterministicHash() throws IOException {
+    String text = """
+      \\record R (x y : Nat)
+      \\record S \\extends R | x => 0 | y => 1
+      \\func h => \\new S
+      """;
+    assertEquals(interfaceHash(text), interfaceHash(text));
+  }
+
+  private static ArendServerImpl createLibraryServer(CliServerRequester requester, FileSourceLibrary library) {
+    ArendServerImpl libraryServer = new ArendServerImpl(requester, false, false, false);
+    libraryServer.addReadOnlyModule(Prelude.MODULE_LOCATION, () -> new PreludeResourceSource().loadGroup(DummyErrorReporter.INSTANCE));
+    PreludeSources.loadBinaryPrelude(libraryServer, DummyErrorReporter.INSTANCE);
+    requester.getLibraryManager().updateLibrary(library, libraryServer);
+    return libraryServer;
+  }
+
+  @Test
+  public void libraryBinaryWithCache() throws IOException {
+    Path libDir = folder.newFolder("lib").toPath();
+    Path sourceDir = Files.createDirectory(libDir.resolve("src"));
+    Path binaryDir = Files.createDirectory(libDir.resolve("bin"));
+    Files.writeString(sourceDir.resolve("A" + FileUtils.EXTENSION), "\\func f (n : Nat) => suc n");
+    Files.writeString(sourceDir.resolve("B" + FileUtils.EXTENSION), "\\import A\n\\func g => f 0");
+    FileSourceLibrary library = new FileSourceLibrary("lib", false, 0, Collections.emptyList(), null, null, null, sourceDir, binaryDir, null, null);
+    ModuleLocation moduleA = new ModuleLocation("lib", ModuleLocation.LocationKind.SOURCE, new ModulePath("A"));
+    ModuleLocation moduleB = new ModuleLocation("lib", ModuleLocation.LocationKind.SOURCE, new ModulePath("B"));
+
+    ListErrorReporter errorReporter = new ListErrorReporter();
+    ArendServerImpl libraryServer = createLibraryServer(new CliServerRequester(new LibraryManager(errorReporter)), library);
+    libraryServer.getCheckerFor(List.of(moduleA, moduleB)).typecheck(UnstoppableCancellationIndicator.INSTANCE, ProgressReporter.empty());
+    for (ModuleLocation module : List.of(moduleA, moduleB)) {
+      assertTrue(new GZIPStreamBinarySource(new FileBinarySource(binaryDir, module)).persist(libraryServer, errorReporter));
+    }
+
+    CliServerRequester requester = new CliServerRequester(new LibraryManager(errorReporter));
+    BuildCache buildCache = new BuildCache(folder.newFolder().toPath(), requester::computeSourceHash);
+    requester.setBuildCache(buildCache);
+    libraryServer = createLibraryServer(requester, library);
+    assertEquals(moduleB, libraryServer.findModule(moduleB.getModulePath(), "lib", false, false));
+    TCDefReferable g = getDef(libraryServer.getRawGroup(moduleB), "g");
+    assertNotNull(g);
+    assertNotNull(g.getTypechecked());
+    assertTrue(errorReporter.getErrorList().isEmpty());
+  }
+}
@@ -0,0 +1,84 @@
+package org.arend.term.expr;
+
+import org.arend.core.context.param.DependentLink;
+import org.arend.core.definition.Constructor;
+import org.arend.core.definition.DataDefinition;
+import org.arend.core.definition.FunctionDefinition;
+import org.arend.core.expr.Expression;
+import org.arend.core.expr.ExpressionInterner;
+import org.arend.typechecking.TypeCheckingTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.arend.ExpressionFactory.*;
+import static org.arend.core.expr.ExpressionFactory.*;
+import static org.junit.Assert.*;
+
+public class ExpressionInternerTest extends TypeCheckingTestCase {
+  private FunctionDefinition f;
+  private Constructor con2;
+
+  @Before
+  public void initialize() {
+    typeCheckModule(
+      "\\data D | con1 | con2 Nat\n" +
+      "\\func f (d : D) (n : Nat) => n");
+    f = (FunctionDefinition) getDefinition("f");
+    con2 = ((DataDefinition) getDefinition("D")).getConstructor("con2");
+    ExpressionInterner.setEnabled(true);
+  }
+
+  @After
+  public void disable() {
+    ExpressionInterner.setEnabled(false);
+  }
+
+  private Expression con2(Expression arg) {
+    return ExpressionInterner.intern(ConCall(con2, con2.makeIdLevels(), Collections.emptyList(), arg));
+  }
+
+  private Expression f(Expression arg1, Expression arg2) {
+    return ExpressionInterner.intern(FunCall(f, f.makeIdLevels(), arg1, arg2));
+  }
+
+  @Test
+  public void equalExpressions() {
+    Expression expr1 = f(con2(ExpressionInterner.intern(Zero())), ExpressionInterner.intern(Zero()));
+    Expression expr2 = f(con2(ExpressionInterner.intern(Zero())), ExpressionInterner.intern(Zero()));
+    assertSame(expr1, expr2);
+  }
+
+  @Test
+  public void differentExpressions() {
+    Expression expr1 = f(con2(ExpressionInterner.intern(Zero())), ExpressionInterner.intern(Zero()));
+    Expression expr2 = f(con2(ExpressionInterner.intern(Zero())), ExpressionInterner.intern(Suc(Zero())));
+    assertNotSame(expr1, expr2);
+    assertNotEquals(expr1, expr2);
+  }
+
+  @Test
+  public void openExpressions() {
+    DependentLink param = param("n", Nat());
+    Expression expr1 = f(con2(Ref(param)), ExpressionInterner.intern(Zero()));
+    Expression expr2 = f(con2(Ref(param)), ExpressionInterner.intern(Zero()));
+    assertNotSame(expr1, expr2);
+    assertEquals(expr1, expr2);
+  }
+
+  @Test
+  public void notInternedArguments() {
+    Expression arg1 = ConCall(con2, con2.makeIdLevels(), Collections.emptyList(), Zero());
+    Expression arg2 = ConCall(con2, con2.makeIdLevels(), Collections.emptyList(), Zero());
+    assertNotSame(f(arg1, Zero()), f(arg2, Zero()));
+    assertSame(f(con2(Zero()), Zero()), f(con2(Zero()), Zero()));
+  }
+
+  @Test
+  public void disabled() {
+    ExpressionInterner.setEnabled(false);
+    assertNotSame(f(con2(Zero()), Zero()), f(con2(Zero()), Zero()));
+  }
+}
@@ -0,0 +1,88 @@
+package org.arend.term.expr;
+
+import org.arend.core.definition.ClassDefinition;
+import org.arend.core.definition.ClassField;
+import org.arend.core.expr.Expression;
+import org.arend.core.expr.ImplementationMap;
+import org.arend.typechecking.TypeCheckingTestCase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.arend.core.expr.ExpressionFactory.*;
+import static org.junit.Assert.*;
+
+public class ImplementationMapTest extends TypeCheckingTestCase {
+  private ClassDefinition r;
+  private ClassField a, b, c;
+
+  @Before
+  public void initialize() {
+    typeCheckModule("\\record R (a b c : Nat)");
+    r = (ClassDefinition) getDefinition("R");
+    a = r.getPersonalFields().get(0);
+    b = r.getPersonalFields().get(1);
+    c = r.getPersonalFields().get(2);
+  }
+
+  @Test
+  public void slotsAreStable() {
+    int slot = r.getFieldSlot(b);
+    assertTrue(slot >= 0);
+    assertSame(b, r.getSlotField(slot));
+    assertEquals(slot, r.addFieldSlot(b));
+  }
+
+  @Test
+  public void insertionOrder() {
+    Map<ClassField, Expression> map = new ImplementationMap(r);
+    Expression zero = Zero();
+    Expression one = Suc(zero);
+    assertNull(map.put(c, zero));
+    map.put(a, one);
+    assertSame(zero, map.put(c, one));
+    assertEquals(Arrays.asList(c, a), new ArrayList<>(map.keySet()));
+    assertSame(one, map.get(c));
+    assertNull(map.get(b));
+    assertFalse(map.containsKey(b));
+  }
+
+  @Test
+  public void removeAndSetValue() {
+    Map<ClassField, Expression> map = new ImplementationMap(r);
+    Expression zero = Zero();
+    Expression one = Suc(zero);
+    map.put(a, zero);
+    map.put(b, zero);
+    map.put(c, zero);
+    for (Iterator<Map.Entry<ClassField, Expression>> iterator = map.entrySet().iterator(); iterator.hasNext(); ) {
+      Map.Entry<ClassField, Expression> entry = iterator.next();
+      if (entry.getKey() == b) {
+        iterator.remove();
+      } else {
+        entry.setValue(one);
+      }
+    }
+    assertEquals(2, map.size());
+    assertFalse(map.containsKey(b));
+    assertSame(one, map.get(c));
+    assertNull(map.remove(b));
+    assertSame(one, map.remove(a));
+    assertEquals(Collections.singletonList(c), new ArrayList<>(map.keySet()));
+  }
+
+  @Test
+  public void equalToLinkedHashMap() {
+    Map<ClassField, Expression> map = new ImplementationMap(r);
+    Map<ClassField, Expression> expected = new LinkedHashMap<>();
+    Expression zero = Zero();
+    map.put(b, zero);
+    expected.put(b, zero);
+    map.put(a, zero);
+    expected.put(a, zero);
+    assertEquals(expected, map);
+    assertEquals(map, expected);
+    assertEquals(expected.hashCode(), map.hashCode());
+  }
+}
@@ -0,0 +1,72 @@
+package org.arend.term.expr.visitor;
+
+import org.arend.core.definition.FunctionDefinition;
+import org.arend.core.expr.Expression;
+import org.arend.core.expr.FunCallExpression;
+import org.arend.core.expr.SmallIntegerExpression;
+import org.arend.core.expr.visitor.EnvironmentEvaluator;
+import org.arend.ext.core.ops.NormalizationMode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs normalization tests with the environment-based evaluator enabled.
+ */
+public class EnvironmentEvaluatorTest extends NormalizationTest {
+  @Before
+  public void enable() {
+    EnvironmentEvaluator.setEnabled(true);
+  }
+
+  @After
+  public void disable() {
+    EnvironmentEvaluator.setEnabled(false);
+  }
+
+  private Expression normalizeWithoutEvaluator(Expression expr, NormalizationMode mode) {
+    EnvironmentEvaluator.setEnabled(false);
+    try {
+      return expr.normalize(mode);
+    } finally {
+      EnvironmentEvaluator.setEnabled(true);
+    }
+  }
+
+  @Test
+  public void natRecursion() {
+    typeCheckModule(
+      "\\func fib (n : Nat) : Nat\n" +
+      "  | 0 => 0\n" +
+      "  | 1 => 1\n" +
+      "  | suc (suc n) => fib n Nat.+ fib (suc n)\n" +
+      "\\func double (n : Nat) : Nat\n" +
+      "  | 0 => 0\n" +
+      "  | suc n => suc (suc (double n))");
+    FunctionDefinition fib = (FunctionDefinition) getDefinition("fib");
+    FunctionDefinition doubleFun = (FunctionDefinition) getDefinition("double");
+    Expression expr = FunCallExpression.make(doubleFun, doubleFun.makeIdLevels(), Collections.singletonList(FunCallExpression.make(fib, fib.makeIdLevels(), Collections.singletonList(new SmallIntegerExpression(15)))));
+    assertEquals(new SmallIntegerExpression(1220), expr.normalize(NormalizationMode.NF));
+    assertEquals(normalizeWithoutEvaluator(expr, NormalizationMode.WHNF), expr.normalize(NormalizationMode.WHNF));
+  }
+
+  @Test
+  public void caseChain() {
+    typeCheckModule(
+      "\\func f (n m : Nat) : Nat => \\case n \\with {\n" +
+      "  | 0 => m\n" +
+      "  | suc n' => \\case m \\with {\n" +
+      "    | 0 => f n' 1\n" +
+      "    | suc m' => \\let k => f n' m' \\in suc k\n" +
+      "  }\n" +
+      "}");
+    FunctionDefinition f = (FunctionDefinition) getDefinition("f");
+    Expression expr = FunCallExpression.make(f, f.makeIdLevels(), Arrays.asList(new SmallIntegerExpression(30), new SmallIntegerExpression(7)));
+    assertEquals(normalizeWithoutEvaluator(expr, NormalizationMode.NF), expr.normalize(NormalizationMode.NF));
+  }
+}
@@ -0,0 +1,84 @@
+package org.arend.term.expr.visitor;
+
+import org.arend.core.definition.FunctionDefinition;
+import org.arend.core.expr.Expression;
+import org.arend.core.expr.FunCallExpression;
+import org.arend.core.expr.SmallIntegerExpression;
+import org.arend.core.expr.visitor.NormalizationCache;
+import org.arend.ext.core.ops.NormalizationMode;
+import org.arend.typechecking.TypeCheckingTestCase;
+import org.arend.typechecking.computation.ComputationRunner;
+import org.arend.typechecking.computation.UnstoppableCancellationIndicator;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class NormalizationCacheTest extends TypeCheckingTestCase {
+  @Test
+  public void repeatedCalls() {
+    long hits = NormalizationCache.getTotalHits();
+    typeCheckModule(
+      "\\func fib (n : Nat) : Nat\n" +
+      "  | 0 => 0\n" +
+      "  | 1 => 1\n" +
+      "  | suc (suc n) => fib n Nat.+ fib (suc n)\n" +
+      "\\func test : fib 15 = 610 => idp");
+    assertTrue(NormalizationCache.getTotalHits() > hits);
+  }
+
+  @Test
+  public void recursiveDefinition() {
+    typeCheckModule(
+      "\\func f (n : Nat) : Nat\n" +
+      "  | 0 => 0\n" +
+      "  | suc n => suc (f n)\n" +
+      "\\func g (n : Nat) : f n = n\n" +
+      "  | 0 => idp\n" +
+      "  | suc n => pmap suc (g n)\n" +
+      "\\func test : f 3 = 3 => g 3");
+  }
+
+  @Test
+  public void wrongResult() {
+    typeCheckModule(
+      "\\func fib (n : Nat) : Nat\n" +
+      "  | 0 => 0\n" +
+      "  | 1 => 1\n" +
+      "  | suc (suc n) => fib n Nat.+ fib (suc n)\n" +
+      "\\func test1 : fib 10 = 55 => idp\n" +
+      "\\func test2 : fib 10 = 56 => idp", 1);
+  }
+
+  @Test
+  public void cachePerComputation() {
+    assertNull(ComputationRunner.getNormalizationCache());
+    NormalizationCache cache1 = new ComputationRunner<NormalizationCache>().run(UnstoppableCancellationIndicator.INSTANCE, ComputationRunner::getNormalizationCache);
+    NormalizationCache cache2 = new ComputationRunner<NormalizationCache>().run(UnstoppableCancellationIndicator.INSTANCE, () -> {
+      NormalizationCache cache = ComputationRunner.getNormalizationCache();
+      assertSame(cache, new ComputationRunner<NormalizationCache>().run(UnstoppableCancellationIndicator.INSTANCE, ComputationRunner::getNormalizationCache));
+      return cache;
+    });
+    assertNotNull(cache1);
+    assertNotNull(cache2);
+    assertNotSame(cache1, cache2);
+    assertNull(ComputationRunner.getNormalizationCache());
+  }
+
+  @Test
+  public void resultsAreCopied() {
+    typeCheckModule("\\func f (n : Nat) : \\Set0 => \\Sigma (x : Nat) (x = n)");
+    FunctionDefinition f = (FunctionDefinition) getDefinition("f");
+    Expression call = FunCallExpression.make(f, f.makeIdLevels(), Collections.singletonList(new SmallIntegerExpression(3)));
+    new ComputationRunner<Void>().run(UnstoppableCancellationIndicator.INSTANCE, () -> {
+      long hits = NormalizationCache.getTotalHits();
+      Expression result1 = call.normalize(NormalizationMode.WHNF);
+      Expression result2 = call.normalize(NormalizationMode.WHNF);
+      assertTrue(NormalizationCache.getTotalHits() > hits);
+      assertEquals(result1, result2);
+      assertNotSame(result1, result2);
+      return null;
+    });
+  }
+}
@@ -0,0 +1,76 @@
+package org.arend.typechecking;
+
+import org.arend.core.definition.Definition;
+import org.arend.ext.error.GeneralError;
+import org.arend.ext.error.ListErrorReporter;
+import org.arend.naming.reference.TCDefReferable;
+import org.arend.server.ArendChecker;
+import org.arend.server.ProgressReporter;
+import org.arend.server.impl.DefinitionData;
+import org.arend.typechecking.computation.UnstoppableCancellationIndicator;
+import org.arend.typechecking.doubleChecker.CoreModuleChecker;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentSessionsTest extends TypeCheckingTestCase {
+  private static final String TEXT = """
+    \\data D | con1 | con2 Nat
+    \\func f (d : D) : Nat | con1 => 0 | con2 n => n
+    \\func even (n : Nat) : Nat \\elim n
+      | 0 => f con1
+      | suc n => odd n
+    \\func odd (n : Nat) : Nat \\elim n
+      | 0 => 1
+      | suc n => even n
+    \\lemma g (n : Nat) : f (con2 n) = n => idp
+    \\record R (x y : Nat)
+    \\func h (r : R) => r.x Nat.+ even r.y
+    \\func test : h (\\new R 7 3) = 8 => idp
+    """;
+
+  @Test
+  public void sameModuleInTwoSessions() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      for (int i = 0; i < 20; i++) {
+        initializeServer();
+        resolveNamesModule(TEXT);
+
+        List<ArendChecker> checkers = List.of(server.getCheckerFor(Collections.singletonList(MODULE)), server.getCheckerFor(Collections.singletonList(MODULE)));
+        CyclicBarrier barrier = new CyclicBarrier(checkers.size());
+        List<Future<?>> futures = new ArrayList<>();
+        for (ArendChecker checker : checkers) {
+          futures.add(executor.submit(() -> {
+            barrier.await();
+            return checker.typecheck(UnstoppableCancellationIndicator.INSTANCE, ProgressReporter.empty());
+          }));
+        }
+        for (Future<?> future : futures) {
+          future.get(1, TimeUnit.MINUTES);
+        }
+
+        assertTrue(getAllErrors().isEmpty());
+        for (DefinitionData defData : server.getResolvedDefinitions(MODULE)) {
+          TCDefReferable ref = defData.definition().getData();
+          Definition definition = ref.getTypechecked();
+          assertNotNull(ref.getRefName(), definition);
+          assertEquals(ref.getRefName(), Definition.TypeCheckingStatus.NO_ERRORS, definition.status());
+        }
+
+        List<GeneralError> errors = new ArrayList<>();
+        assertTrue(new CoreModuleChecker(new ListErrorReporter(errors)).checkGroup(getGroup()));
+        assertTrue(errors.isEmpty());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
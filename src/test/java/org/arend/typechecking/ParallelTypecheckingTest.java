@@ -0,0 +1,127 @@
+package org.arend.typechecking;
+
+import org.arend.core.definition.Definition;
+import org.arend.ext.error.GeneralError;
+import org.arend.naming.reference.TCDefReferable;
+import org.arend.server.ProgressReporter;
+import org.arend.server.impl.ArendServerImpl;
+import org.arend.server.impl.DefinitionData;
+import org.arend.typechecking.computation.UnstoppableCancellationIndicator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.arend.Matchers.typeMismatchError;
+import static org.junit.Assert.assertEquals;
+
+public class ParallelTypecheckingTest extends TypeCheckingTestCase {
+  @Before
+  public void setParallelism() {
+    ((ArendServerImpl) server).setTypecheckingParallelism(4);
+  }
+
+  @Test
+  public void independentDefinitions() {
+    typeCheckModule(
+      "\\func f1 => 0\n" +
+      "\\func f2 => 1\n" +
+      "\\func f3 => f1 Nat.+ f2\n" +
+      "\\func f4 => f3 Nat.* f2\n" +
+      "\\func f5 : f4 = 1 => idp");
+  }
+
+  @Test
+  public void mutualRecursion() {
+    typeCheckModule(
+      "\\func base => 0\n" +
+      "\\func even (n : Nat) : Nat \\elim n\n" +
+      "  | 0 => base\n" +
+      "  | suc n => odd n\n" +
+      "\\func odd (n : Nat) : Nat \\elim n\n" +
+      "  | 0 => 1\n" +
+      "  | suc n => even n\n" +
+      "\\func test : even 4 = 0 => idp");
+  }
+
+  @Test
+  public void dataAndFunctions() {
+    typeCheckModule(
+      "\\data D | con1 | con2 Nat\n" +
+      "\\data E (A : \\Type) | econ A\n" +
+      "\\func f (d : D) : Nat | con1 => 0 | con2 n => n\n" +
+      "\\func g (e : E D) : Nat | econ d => f d\n" +
+      "\\func test : g (econ (con2 7)) = 7 => idp");
+  }
+
+  @Test
+  public void errors() {
+    typeCheckModule(
+      "\\func f1 : Nat => \\Type\n" +
+      "\\func f2 => 0\n" +
+      "\\func f3 : Nat => \\Type\n" +
+      "\\func f4 => f2", 2);
+    assertThatErrorsAre(typeMismatchError(), typeMismatchError());
+  }
+
+  @Test
+  public void instanceInAnotherTask() {
+    // The instance takes a while to typecheck, so its user would not find it if it did not wait for the instance
+    for (int i = 0; i < 5; i++) {
+      initializeServer();
+      ((ArendServerImpl) server).setTypecheckingParallelism(4);
+      typeCheckModule("""
+        \\func fib (n : Nat) : Nat
+          | 0 => 0
+          | 1 => 1
+          | suc (suc n) => fib n Nat.+ fib (suc n)
+        \\class X (A : \\Type0) {
+          | B : A -> \\Type0
+          | p : fib 20 = 6765
+        }
+        \\instance Nat-X : X Nat | B => \\lam n => Nat | p => idp
+        \\func f => B 0
+        """);
+    }
+  }
+
+  private List<String> typecheckWith(int parallelism, String text) {
+    initializeServer();
+    ((ArendServerImpl) server).setTypecheckingParallelism(parallelism);
+    resolveNamesModule(text);
+    server.getCheckerFor(Collections.singletonList(MODULE)).typecheck(UnstoppableCancellationIndicator.INSTANCE, ProgressReporter.empty());
+
+    List<String> result = new ArrayList<>();
+    for (DefinitionData defData : server.getResolvedDefinitions(MODULE)) {
+      TCDefReferable ref = defData.definition().getData();
+      Definition definition = ref.getTypechecked();
+      result.add(ref.getRefName() + ": " + (definition == null ? null : definition.status()));
+    }
+    for (GeneralError error : getAllErrors()) {
+      result.add(error.toString());
+    }
+    return result;
+  }
+
+  @Test
+  public void sameAsSequential() {
+    String text =
+      "\\data D | con1 | con2 Nat\n" +
+      "\\func f1 : Nat => \\Type\n" +
+      "\\func f2 (d : D) : Nat | con1 => 0 | con2 n => n\n" +
+      "\\func f3 => f1 Nat.+ f2 con1\n" +
+      "\\func f4 (n : Nat) : Nat \\elim n\n" +
+      "  | 0 => f3\n" +
+      "  | suc n => f5 n\n" +
+      "\\func f5 (n : Nat) : Nat \\elim n\n" +
+      "  | 0 => \\Prop\n" +
+      "  | suc n => f4 n\n" +
+      "\\func f6 : f2 (con2 3) = 3 => idp\n" +
+      "\\func f7 : f2 con1 = 1 => idp\n" +
+      "\\func f8 => f7";
+    List<String> sequential = typecheckWith(1, text);
+    assertEquals(sequential, typecheckWith(4, text));
+  }
+}
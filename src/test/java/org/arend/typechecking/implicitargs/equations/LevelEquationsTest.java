@@ -0,0 +1,116 @@
+package org.arend.typechecking.implicitargs.equations;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class LevelEquationsTest {
+  private static LevelEquations<String> equations(String... variables) {
+    LevelEquations<String> equations = new LevelEquations<>();
+    for (String variable : variables) {
+      equations.addVariable(variable);
+    }
+    return equations;
+  }
+
+  @Test
+  public void chain() {
+    LevelEquations<String> equations = equations("u", "v", "w");
+    equations.addEquation(new LevelEquation<>("u", "v", -1));
+    equations.addEquation(new LevelEquation<>("v", "w", -2));
+    Map<String, Integer> solution = new HashMap<>();
+    assertNull(equations.solve(solution));
+    assertEquals(Integer.valueOf(0), solution.get("u"));
+    assertEquals(Integer.valueOf(-1), solution.get("v"));
+    assertEquals(Integer.valueOf(-3), solution.get("w"));
+  }
+
+  @Test
+  public void manyRelaxations() {
+    // v is relaxed more times than there are variables, but there are no cycles
+    LevelEquations<String> equations = equations("u1", "u2", "u3", "u4", "w", "v");
+    for (int j = 1; j <= 4; j++) {
+      equations.addEquation(new LevelEquation<>("u" + j, "v", -j));
+      equations.addEquation(new LevelEquation<>("w", "u" + j, -4));
+    }
+    Map<String, Integer> solution = new HashMap<>();
+    assertNull(equations.solve(solution));
+    assertEquals(Integer.valueOf(-8), solution.get("v"));
+  }
+
+  @Test
+  public void negativeCycle() {
+    LevelEquations<String> equations = equations("u", "v", "w");
+    LevelEquation<String> equation1 = new LevelEquation<>("u", "v", -1);
+    LevelEquation<String> equation2 = new LevelEquation<>("v", "u", 0);
+    equations.addEquation(new LevelEquation<>("w", "u", 0));
+    equations.addEquation(equation1);
+    equations.addEquation(equation2);
+    List<LevelEquation<String>> result = equations.solve(new HashMap<>());
+    assertNotNull(result);
+    assertTrue(result.contains(equation1));
+    assertTrue(result.contains(equation2));
+  }
+
+  @Test
+  public void zeroCycle() {
+    LevelEquations<String> equations = equations("u", "v");
+    equations.addEquation(new LevelEquation<>("u", "v", 0));
+    equations.addEquation(new LevelEquation<>("v", "u", 0));
+    Map<String, Integer> solution = new HashMap<>();
+    assertNull(equations.solve(solution));
+    assertEquals(Integer.valueOf(0), solution.get("u"));
+    assertEquals(Integer.valueOf(0), solution.get("v"));
+  }
+
+  @Test
+  public void constantContradiction() {
+    LevelEquations<String> equations = equations("u", "v");
+    LevelEquation<String> equation1 = new LevelEquation<>("u", "v", -2);
+    LevelEquation<String> equation2 = new LevelEquation<>("v", null, 1);
+    equations.addEquation(equation1);
+    equations.addEquation(equation2);
+    assertEquals(List.of(equation1, equation2), equations.solve(new HashMap<>()));
+  }
+
+  @Test
+  public void infinity() {
+    LevelEquations<String> equations = equations("u", "v", "w");
+    equations.addEquation(new LevelEquation<>("u"));
+    equations.addEquation(new LevelEquation<>("u", "v", -1));
+    equations.addEquation(new LevelEquation<>("w", "v", -3));
+    Map<String, Integer> solution = new HashMap<>();
+    assertNull(equations.solve(solution));
+    assertEquals(Integer.valueOf(LevelEquations.INFINITY), solution.get("u"));
+    assertEquals(Integer.valueOf(LevelEquations.INFINITY), solution.get("v"));
+    assertEquals(Integer.valueOf(0), solution.get("w"));
+  }
+
+  @Test
+  public void infiniteCycle() {
+    // Variables on the cycle are infinite, so it does not give a contradiction
+    LevelEquations<String> equations = equations("u", "v", "w");
+    equations.addEquation(new LevelEquation<>("v", "v", -2));
+    equations.addEquation(new LevelEquation<>("w"));
+    equations.addEquation(new LevelEquation<>("w", "u", 0));
+    equations.addEquation(new LevelEquation<>("u", "v", -2));
+    Map<String, Integer> solution = new HashMap<>();
+    assertNull(equations.solve(solution));
+    assertEquals(Integer.valueOf(LevelEquations.INFINITY), solution.get("v"));
+  }
+
+  @Test
+  public void maxConstant() {
+    // The first equation does not apply since the level of u is less than 1
+    LevelEquations<String> equations = equations("u", "v", "w");
+    equations.addEquation(new LevelEquation<>("u", "v", -1, 1));
+    equations.addEquation(new LevelEquation<>("w", "v", -1, -1));
+    Map<String, Integer> solution = new HashMap<>();
+    assertNull(equations.solve(solution));
+    assertEquals(Integer.valueOf(-1), solution.get("v"));
+  }
+}
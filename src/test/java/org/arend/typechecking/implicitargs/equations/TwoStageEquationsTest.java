@@ -0,0 +1,43 @@
+package org.arend.typechecking.implicitargs.equations;
+
+import org.arend.core.definition.FunctionDefinition;
+import org.arend.core.expr.ClassCallExpression;
+import org.arend.core.expr.Expression;
+import org.arend.core.expr.FunCallExpression;
+import org.arend.typechecking.TypeCheckingTestCase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TwoStageEquationsTest extends TypeCheckingTestCase {
+  private static String nested(String function, String argument, int depth) {
+    return (function + " (").repeat(depth) + argument + ")".repeat(depth);
+  }
+
+  @Test
+  public void manyDeferredEquations() {
+    // Every application of idR adds an equation with a class call or two inference variables, which is deferred until the end
+    typeCheckModule(
+      "\\record R (x : Nat)\n" +
+      "\\func idR {A : \\Type} (a : A) => a\n" +
+      "\\func test (s : R { | x => 0 }) : R => " + nested("idR", "s", 100) + "\n" +
+      "\\func test2 (r : R) (s : R { | x => 0 }) : \\Sigma R R => (" + nested("idR", "r", 50) + ", " + nested("idR", "s", 50) + ")");
+  }
+
+  @Test
+  public void wakeUpEquation() {
+    // The equation between the implicit arguments of the two applications is stuck until the inner one is solved
+    typeCheckModule("""
+      \\record R (x : Nat)
+      \\func idR {A : \\Type} (a : A) => a
+      \\func test (s : R { | x => 0 }) : R => idR (idR s)
+      """);
+    Expression body = (Expression) ((FunctionDefinition) getDefinition("test")).getBody();
+    assertNotNull(body);
+    FunCallExpression funCall = body.cast(FunCallExpression.class);
+    assertNotNull(funCall);
+    ClassCallExpression classCall = funCall.getDefCallArguments().getFirst().cast(ClassCallExpression.class);
+    assertNotNull(classCall);
+    assertSame(getDefinition("R"), classCall.getDefinition());
+  }
+}
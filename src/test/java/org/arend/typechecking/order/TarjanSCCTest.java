@@ -0,0 +1,75 @@
+package org.arend.typechecking.order;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TarjanSCCTest {
+  private static class CollectingTarjanSCC extends MapTarjanSCC<Integer> {
+    final List<List<Integer>> components = new ArrayList<>();
+    final Set<Integer> loops = new HashSet<>();
+
+    CollectingTarjanSCC(Map<Integer, List<Integer>> map) {
+      super(map);
+    }
+
+    @Override
+    protected void unitFound(Integer unit, boolean withLoops) {
+      components.add(Collections.singletonList(unit));
+      if (withLoops) {
+        loops.add(unit);
+      }
+    }
+
+    @Override
+    protected void sccFound(List<Integer> scc) {
+      components.add(scc);
+    }
+  }
+
+  @Test
+  public void dependenciesFirst() {
+    Map<Integer, List<Integer>> map = new LinkedHashMap<>();
+    map.put(0, Arrays.asList(1, 2));
+    map.put(1, Collections.singletonList(2));
+    map.put(2, Collections.singletonList(2));
+    CollectingTarjanSCC tarjan = new CollectingTarjanSCC(map);
+    tarjan.order();
+    assertEquals(Arrays.asList(Collections.singletonList(2), Collections.singletonList(1), Collections.singletonList(0)), tarjan.components);
+    assertEquals(Collections.singleton(2), tarjan.loops);
+  }
+
+  @Test
+  public void cycles() {
+    Map<Integer, List<Integer>> map = new LinkedHashMap<>();
+    map.put(0, Collections.singletonList(1));
+    map.put(1, Arrays.asList(2, 3));
+    map.put(2, Collections.singletonList(0));
+    map.put(3, Collections.singletonList(4));
+    map.put(4, Collections.singletonList(3));
+    CollectingTarjanSCC tarjan = new CollectingTarjanSCC(map);
+    tarjan.order();
+    assertEquals(2, tarjan.components.size());
+    assertEquals(new HashSet<>(Arrays.asList(3, 4)), new HashSet<>(tarjan.components.get(0)));
+    assertEquals(new HashSet<>(Arrays.asList(0, 1, 2)), new HashSet<>(tarjan.components.get(1)));
+    assertTrue(tarjan.loops.isEmpty());
+  }
+
+  @Test
+  public void longChain() {
+    int size = 200000;
+    Map<Integer, List<Integer>> map = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      map.put(i, i + 1 < size ? Collections.singletonList(i + 1) : Collections.singletonList(0));
+    }
+    CollectingTarjanSCC tarjan = new CollectingTarjanSCC(map);
+    tarjan.order();
+    assertEquals(1, tarjan.components.size());
+    assertEquals(size, tarjan.components.getFirst().size());
+    assertFalse(tarjan.loops.contains(0));
+  }
+}
@@ -0,0 +1,70 @@
+package org.arend.typechecking.order.dependency;
+
+import org.arend.naming.reference.TCDefReferable;
+import org.arend.typechecking.TypeCheckingTestCase;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class DependencyCollectorTest extends TypeCheckingTestCase {
+  @Test
+  public void updateTest() {
+    typeCheckModule("""
+      \\func a => 0
+      \\func b => a
+      \\func c => b
+      \\func d => a
+      \\func e => 1
+      """);
+    TCDefReferable a = getDef(getGroup(), "a");
+    TCDefReferable b = getDef(getGroup(), "b");
+    TCDefReferable c = getDef(getGroup(), "c");
+    TCDefReferable d = getDef(getGroup(), "d");
+    TCDefReferable e = getDef(getGroup(), "e");
+
+    DependencyCollector collector = new DependencyCollector(null);
+    collector.dependsOn(b, a);
+    collector.dependsOn(c, b);
+    collector.dependsOn(d, a);
+    assertEquals(Set.of(a), collector.getDependencies(b));
+    assertEquals(Set.of(b), collector.getDependencies(c));
+    assertTrue(collector.getDependencies(a).isEmpty());
+
+    assertEquals(Set.of(b, c), collector.update(b));
+    assertNull(b.getTypechecked());
+    assertNull(c.getTypechecked());
+    assertNotNull(a.getTypechecked());
+    assertNotNull(d.getTypechecked());
+    assertTrue(collector.getDependencies(b).isEmpty());
+    assertTrue(collector.getDependencies(c).isEmpty());
+
+    // b does not depend on a anymore, so only a and d are updated
+    assertEquals(Set.of(a, d), collector.update(a));
+    assertNull(a.getTypechecked());
+    assertNull(d.getTypechecked());
+    assertNotNull(e.getTypechecked());
+    assertTrue(collector.getDependencies(d).isEmpty());
+
+    assertEquals(Set.of(e), collector.update(e));
+  }
+
+  @Test
+  public void cycleTest() {
+    typeCheckModule("""
+      \\func a => 0
+      \\func b => a
+      """);
+    TCDefReferable a = getDef(getGroup(), "a");
+    TCDefReferable b = getDef(getGroup(), "b");
+
+    DependencyCollector collector = new DependencyCollector(null);
+    collector.dependsOn(a, b);
+    collector.dependsOn(b, a);
+    assertEquals(Set.of(a, b), collector.update(a));
+    assertTrue(collector.getDependencies(a).isEmpty());
+    assertTrue(collector.getDependencies(b).isEmpty());
+    assertEquals(Set.of(b), collector.update(b));
+  }
+}
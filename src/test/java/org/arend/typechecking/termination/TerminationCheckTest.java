@@ -23,6 +23,8 @@ import org.junit.Test;
 import java.util.HashSet;
 import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
+
 public class TerminationCheckTest extends TypeCheckingTestCase {
 
   @Test
@@ -472,4 +474,34 @@ public class TerminationCheckTest extends TypeCheckingTestCase {
         | con4 f p1 p2 => a4 Ad1 Ad2 (\\lam n => foo B a1 a2 a3 a4 (f n)) p1 p2
       """);
   }
+
+  @Test
+  public void wideMatrices() {
+    String[] arguments = new String[40];
+    for (int i = 0; i < arguments.length; i++) {
+      arguments[i] = "x" + i;
+    }
+    TestVertex v = new TestVertex("v", arguments);
+    // Shifts arguments by one and decreases the last one
+    BaseCallMatrix<TestVertex> shift = new BaseCallMatrix<>(40, 40, v, v);
+    for (int i = 0; i < 39; i++) {
+      shift.set(i, i + 1, BaseCallMatrix.R.Equal);
+    }
+    shift.set(39, 0, BaseCallMatrix.R.LessThan);
+
+    BaseCallMatrix<TestVertex> square = new BaseCallMatrix<>(shift, shift);
+    for (int i = 0; i < 40; i++) {
+      for (int j = 0; j < 40; j++) {
+        BaseCallMatrix.R expected = j != (i + 2) % 40 ? BaseCallMatrix.R.Unknown : i >= 38 ? BaseCallMatrix.R.LessThan : BaseCallMatrix.R.Equal;
+        assertEquals(expected, square.getValue(i, j));
+      }
+    }
+
+    BaseCallMatrix<TestVertex> weaker = new BaseCallMatrix<>(shift, shift);
+    weaker.set(38, 0, BaseCallMatrix.R.Equal);
+    assertEquals(BaseCallMatrix.R.LessThan, weaker.compare(square));
+    assertEquals(BaseCallMatrix.R.Unknown, square.compare(weaker));
+    assertEquals(BaseCallMatrix.R.Equal, square.compare(new BaseCallMatrix<>(shift, shift)));
+    assertEquals(square.hashCode(), new BaseCallMatrix<>(shift, shift).hashCode());
+  }
 }
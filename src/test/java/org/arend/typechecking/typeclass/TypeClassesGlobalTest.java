@@ -55,6 +55,21 @@ public class TypeClassesGlobalTest extends TypeCheckingTestCase {
       \\func g => B left""");
   }
 
+  @Test
+  public void instancesWithDifferentHeads() {
+    typeCheckModule("""
+      \\class X (A : \\Type0) {
+        | B : A -> \\Type0
+      }
+      \\instance Sigma-X : X (\\Sigma Nat Nat) | B => \\lam _ => Nat
+      \\instance Pi-X : X (Nat -> Nat) | B => \\lam _ => Nat -> Nat
+      \\instance Nat-X : X Nat | B => \\lam _ => \\Sigma Nat Nat
+      \\instance I-X : X I | B => \\lam _ => Nat
+      \\func f (b : B 0) : \\Sigma Nat Nat => b
+      \\func g (b : B (\\lam (n : Nat) => n)) : Nat -> Nat => b
+      \\func h (b : B (0,0)) : Nat => b""");
+  }
+
   @Test
   public void localInstance() {
     typeCheckModule("""
@@ -0,0 +1,52 @@
+package org.arend.util;
+
+import org.arend.util.list.UndoableList;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class UndoTrailTest {
+  @Test
+  public void undoNested() {
+    UndoTrail trail = new UndoTrail();
+    List<Integer> list = new UndoableList<>(trail);
+    list.add(0);
+    int mark1 = trail.mark();
+    list.add(1);
+    int mark2 = trail.mark();
+    list.add(2);
+    trail.undo(mark2);
+    assertEquals(Arrays.asList(0, 1), list);
+    trail.release();
+    trail.undo(mark1);
+    assertEquals(Collections.singletonList(0), list);
+    trail.release();
+  }
+
+  @Test
+  public void truncatedWhenReleased() {
+    UndoTrail trail = new UndoTrail();
+    List<Integer> list = new UndoableList<>(trail);
+    list.add(0);
+    assertEquals(0, trail.size());
+    for (int i = 0; i < 10; i++) {
+      int mark = trail.mark();
+      list.add(i);
+      if (i % 2 == 0) {
+        trail.undo(mark);
+      }
+      trail.release();
+      assertEquals(0, trail.size());
+    }
+    assertEquals(Arrays.asList(0, 1, 3, 5, 7, 9), list);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void unbalancedRelease() {
+    new UndoTrail().release();
+  }
+}